@@ -12,6 +12,7 @@ import com.sora.backend.service.LikeCommentService;
 import com.sora.backend.service.PostService;
 import com.sora.backend.service.UserAccountService;
 import com.sora.backend.util.MessageUtil;
+import com.sora.backend.util.PageCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -21,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -63,6 +65,21 @@ public class CommentController {
         return ResponseEntity.ok(responses);
     }
 
+    @GetMapping(value = "/api/posts/{postId}/comments", params = "cursor")
+    @Operation(summary = "Get post comments by cursor", description = "Get comments after an opaque cursor; pass an empty cursor for the first page")
+    @ApiResponse(responseCode = "200", description = "Comments retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    @ApiResponse(responseCode = "404", description = "Post not found")
+    public ResponseEntity<CursorPageResponseDto<CommentResponseDto>> getPostCommentsByCursor(@Parameter(description = "Post ID") @PathVariable Long postId, @Parameter(description = "Cursor returned by the previous page") @RequestParam String cursor, @Parameter(description = "Page size") @RequestParam(value = "size", defaultValue = "20") int size, Authentication authentication) {
+        if (!postRepository.existsById(postId))
+            throw new ServiceException(MessageUtil.getMessage("post.not.found"));
+
+        UserAccount currentUser = getCurrentUser(authentication);
+        Slice<Comment> comments = commentService.getPostCommentsAfter(postId, PageCursor.decode(cursor), Math.min(size, 100));
+        CursorPageResponseDto<CommentResponseDto> response = CursorPageResponseDto.of(comments, c -> mapToCommentResponseDto(c, currentUser), c -> PageCursor.of(c.getCreatedAt(), c.getId()));
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/api/posts/{postId}/comments")
     @Operation(summary = "Create comment", description = "Create a new comment on a post")
     @ApiResponse(responseCode = "201", description = "Comment created successfully")
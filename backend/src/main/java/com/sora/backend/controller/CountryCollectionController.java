@@ -62,7 +62,7 @@ public class CountryCollectionController {
     @Operation(summary = "Get country posts", description = "Get posts from a specific country collection")
     @ApiResponse(responseCode = "200", description = "Country posts retrieved successfully")
     @ApiResponse(responseCode = "404", description = "User or country not found")
-    public ResponseEntity<CountryPostsResponseDto> getCountryPosts(@Parameter(description = "User ID") @PathVariable Long userId, @Parameter(description = "Country code") @PathVariable String countryCode, @Parameter(description = "Filter by collection") @RequestParam(value = "collectionCode", required = false) String collectionCode, @Parameter(description = "Filter by city") @RequestParam(value = "cityName", required = false) String cityName, @Parameter(description = "Page number") @RequestParam(value = "page", defaultValue = "0") int page, @Parameter(description = "Page size") @RequestParam(value = "size", defaultValue = "20") int size, @Parameter(description = "Sort by") @RequestParam(value = "sortBy", defaultValue = "createdAt") String sortBy, @Parameter(description = "Sort direction") @RequestParam(value = "sortDirection", defaultValue = "DESC") String sortDirection, Authentication authentication) {
+    public ResponseEntity<CountryPostsResponseDto> getCountryPosts(@Parameter(description = "User ID") @PathVariable Long userId, @Parameter(description = "Country code") @PathVariable String countryCode, @Parameter(description = "Filter by collection") @RequestParam(value = "collectionCode", required = false) String collectionCode, @Parameter(description = "Filter by city") @RequestParam(value = "cityName", required = false) String cityName, @Parameter(description = "Page number") @RequestParam(value = "page", defaultValue = "0") int page, @Parameter(description = "Page size") @RequestParam(value = "size", defaultValue = "20") int size, @Parameter(description = "Sort by") @RequestParam(value = "sortBy", defaultValue = "createdAt") String sortBy, @Parameter(description = "Sort direction") @RequestParam(value = "sortDirection", defaultValue = "DESC") String sortDirection, @Parameter(description = "Compute an exact total; false skips the count query and returns a cached approximate total") @RequestParam(value = "count", defaultValue = "true") boolean count, Authentication authentication) {
         Optional<UserAccount> userOpt = userAccountService.findById(userId);
         if (userOpt.isEmpty()) {
             throw new ServiceException(MessageUtil.getMessage("user.not.found"));
@@ -73,7 +73,7 @@ public class CountryCollectionController {
         Sort.Direction direction = Sort.Direction.fromString(sortDirection);
         Pageable pageable = PageRequest.of(page, Math.min(size, 100), Sort.by(direction, sortBy));
 
-        CountryPostsResponseDto response = postService.getCountryPosts(userId, countryCode, collectionCode, cityName, pageable, currentUser);
+        CountryPostsResponseDto response = postService.getCountryPosts(userId, countryCode, collectionCode, cityName, pageable, currentUser, count);
 
         return ResponseEntity.ok(response);
     }
@@ -107,11 +107,11 @@ public class GamificationController {
     @GetMapping("/followers-leaderboard")
     @Operation(summary = "Get followers leaderboard", description = "Get ranking of current user's followers based on travel metrics")
     @ApiResponse(responseCode = "200", description = "Followers leaderboard retrieved successfully")
-    public ResponseEntity<LeaderboardResponseDto> getFollowersLeaderboard(@Parameter(description = "Ranking metric") @RequestParam(value = "metric", defaultValue = "countries") String metric, @Parameter(description = "Limit results") @RequestParam(value = "limit", defaultValue = "10") int limit, Authentication authentication) {
+    public ResponseEntity<LeaderboardResponseDto> getFollowersLeaderboard(@Parameter(description = "Ranking metric") @RequestParam(value = "metric", defaultValue = "countries") String metric, @Parameter(description = "Time period") @RequestParam(value = "timeframe", defaultValue = "all") String timeframe, @Parameter(description = "Limit results") @RequestParam(value = "limit", defaultValue = "10") int limit, Authentication authentication) {
         UserAccount currentUser = getCurrentUser(authentication);
         limit = Math.min(limit, 100);
 
-        LeaderboardResponseDto leaderboard = gamificationService.getFollowersLeaderboard(currentUser, metric, limit);
+        LeaderboardResponseDto leaderboard = gamificationService.getFollowersLeaderboard(currentUser, metric, timeframe, limit);
 
         return ResponseEntity.ok(leaderboard);
     }
@@ -119,11 +119,11 @@ public class GamificationController {
     @GetMapping("/following-leaderboard")
     @Operation(summary = "Get following leaderboard", description = "Get ranking of users that current user follows based on travel metrics")
     @ApiResponse(responseCode = "200", description = "Following leaderboard retrieved successfully")
-    public ResponseEntity<LeaderboardResponseDto> getFollowingLeaderboard(@Parameter(description = "Ranking metric") @RequestParam(value = "metric", defaultValue = "countries") String metric, @Parameter(description = "Limit results") @RequestParam(value = "limit", defaultValue = "10") int limit, Authentication authentication) {
+    public ResponseEntity<LeaderboardResponseDto> getFollowingLeaderboard(@Parameter(description = "Ranking metric") @RequestParam(value = "metric", defaultValue = "countries") String metric, @Parameter(description = "Time period") @RequestParam(value = "timeframe", defaultValue = "all") String timeframe, @Parameter(description = "Limit results") @RequestParam(value = "limit", defaultValue = "10") int limit, Authentication authentication) {
         UserAccount currentUser = getCurrentUser(authentication);
         limit = Math.min(limit, 100);
 
-        LeaderboardResponseDto leaderboard = gamificationService.getFollowingLeaderboard(currentUser, metric, limit);
+        LeaderboardResponseDto leaderboard = gamificationService.getFollowingLeaderboard(currentUser, metric, timeframe, limit);
 
         return ResponseEntity.ok(leaderboard);
     }
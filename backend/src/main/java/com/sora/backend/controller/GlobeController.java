@@ -1,10 +1,23 @@
 package com.sora.backend.controller;
 
+import com.sora.backend.dto.CursorPageResponseDto;
+import com.sora.backend.dto.GeoClusterResponseDto;
 import com.sora.backend.dto.GlobeDataResponseDto;
+import com.sora.backend.dto.NormalizedGlobeResponseDto;
 import com.sora.backend.dto.PostResponseDto;
+import com.sora.backend.dto.PostSummaryDto;
+import com.sora.backend.model.Post;
 import com.sora.backend.model.UserAccount;
+import com.sora.backend.service.ExploreGlobeSnapshotService;
+import com.sora.backend.service.GeoClusterService;
 import com.sora.backend.service.GlobeService;
+import com.sora.backend.service.HeatmapTileService;
+import com.sora.backend.service.PostHydrationService;
+import com.sora.backend.service.PostService;
+import com.sora.backend.service.TileCacheService;
 import com.sora.backend.service.UserAccountService;
+import com.sora.backend.service.VectorTileService;
+import com.sora.backend.util.PageCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,29 +25,62 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 @RestController
 @RequestMapping("/api/globe")
 @Tag(name = "Globe Interface", description = "Globe visualization data for different contexts")
 public class GlobeController {
 
+    private static final String VECTOR_TILE_CONTENT_TYPE = "application/vnd.mapbox-vector-tile";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final GlobeService globeService;
     private final UserAccountService userAccountService;
+    private final PostService postService;
+    private final PostHydrationService postHydrationService;
+    private final ExploreGlobeSnapshotService exploreGlobeSnapshotService;
+    private final GeoClusterService geoClusterService;
+    private final HeatmapTileService heatmapTileService;
+    private final VectorTileService vectorTileService;
 
-    public GlobeController(GlobeService globeService, UserAccountService userAccountService) {
+    public GlobeController(GlobeService globeService, UserAccountService userAccountService, PostService postService, PostHydrationService postHydrationService, ExploreGlobeSnapshotService exploreGlobeSnapshotService, GeoClusterService geoClusterService, HeatmapTileService heatmapTileService, VectorTileService vectorTileService) {
         this.globeService = globeService;
         this.userAccountService = userAccountService;
+        this.postService = postService;
+        this.postHydrationService = postHydrationService;
+        this.exploreGlobeSnapshotService = exploreGlobeSnapshotService;
+        this.geoClusterService = geoClusterService;
+        this.heatmapTileService = heatmapTileService;
+        this.vectorTileService = vectorTileService;
     }
 
     @GetMapping("/main")
-    @Operation(summary = "Get main globe data", description = "Get globe data for main feed (followed users' recent posts by country)")
+    @Operation(summary = "Get main globe data", description = "Get globe data for main feed (followed users' recent posts by country). Pass the version of a previous response as since to receive only changed markers and removedCountryCodes; delta is false when the full globe had to be sent")
     @ApiResponse(responseCode = "200", description = "Main globe data retrieved successfully")
-    public ResponseEntity<GlobeDataResponseDto> getMainGlobeData(Authentication authentication) {
+    public ResponseEntity<GlobeDataResponseDto> getMainGlobeData(@Parameter(description = "Globe version held by the client") @RequestParam(value = "since", required = false) Long since, Authentication authentication) {
         UserAccount currentUser = getCurrentUser(authentication);
-        GlobeDataResponseDto globeData = globeService.getMainGlobeData(currentUser);
+        GlobeDataResponseDto globeData = globeService.getMainGlobeData(currentUser, since);
         return ResponseEntity.ok(globeData);
     }
 
@@ -48,13 +94,90 @@ public class GlobeController {
     }
 
     @GetMapping("/explore")
-    @Operation(summary = "Get explore globe data", description = "Get globe data for global content discovery")
+    @Operation(summary = "Get explore globe data", description = "Get globe data for global content discovery, served from a snapshot refreshed in the background (see generatedAt)")
     @ApiResponse(responseCode = "200", description = "Explore globe data retrieved successfully")
     public ResponseEntity<GlobeDataResponseDto> getExploreGlobeData(@Parameter(description = "Time period") @RequestParam(value = "timeframe", defaultValue = "month") String timeframe, @Parameter(description = "Minimum posts per country") @RequestParam(value = "minPosts", defaultValue = "1") int minPosts, Authentication authentication) {
-        GlobeDataResponseDto globeData = globeService.getExploreGlobeData(timeframe, minPosts);
+        GlobeDataResponseDto globeData = exploreGlobeSnapshotService.getExploreGlobeData(timeframe, minPosts);
         return ResponseEntity.ok(globeData);
     }
 
+    @GetMapping("/main/normalized")
+    @Operation(summary = "Get normalized main globe data", description = "Main globe with users listed once in a top-level users map and referenced by id from markers and posts; accepts since like /main")
+    @ApiResponse(responseCode = "200", description = "Main globe data retrieved successfully")
+    public ResponseEntity<NormalizedGlobeResponseDto> getNormalizedMainGlobeData(@Parameter(description = "Globe version held by the client") @RequestParam(value = "since", required = false) Long since, Authentication authentication) {
+        UserAccount currentUser = getCurrentUser(authentication);
+        return ResponseEntity.ok(globeService.normalize(globeService.getMainGlobeData(currentUser, since)));
+    }
+
+    @GetMapping("/profile/{userId}/normalized")
+    @Operation(summary = "Get normalized user profile globe data", description = "Profile globe with users listed once in a top-level users map and referenced by id")
+    @ApiResponse(responseCode = "200", description = "Profile globe data retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    public ResponseEntity<NormalizedGlobeResponseDto> getNormalizedProfileGlobeData(@Parameter(description = "User ID") @PathVariable Long userId, Authentication authentication) {
+        return ResponseEntity.ok(globeService.normalize(globeService.getProfileGlobeData(userId)));
+    }
+
+    @GetMapping("/explore/normalized")
+    @Operation(summary = "Get normalized explore globe data", description = "Explore globe with users listed once in a top-level users map and referenced by id")
+    @ApiResponse(responseCode = "200", description = "Explore globe data retrieved successfully")
+    public ResponseEntity<NormalizedGlobeResponseDto> getNormalizedExploreGlobeData(@Parameter(description = "Time period") @RequestParam(value = "timeframe", defaultValue = "month") String timeframe, @Parameter(description = "Minimum posts per country") @RequestParam(value = "minPosts", defaultValue = "1") int minPosts, Authentication authentication) {
+        return ResponseEntity.ok(globeService.normalize(exploreGlobeSnapshotService.getExploreGlobeData(timeframe, minPosts)));
+    }
+
+    @GetMapping("/clusters")
+    @Operation(summary = "Get city clusters", description = "Get post clusters by geohash cell for a map viewport; the cell level follows the zoom. A minLng greater than maxLng crosses the antimeridian")
+    @ApiResponse(responseCode = "200", description = "Clusters retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid viewport or zoom")
+    public ResponseEntity<GeoClusterResponseDto> getClusters(@Parameter(description = "South latitude") @RequestParam("minLat") double minLat, @Parameter(description = "West longitude") @RequestParam("minLng") double minLng, @Parameter(description = "North latitude") @RequestParam("maxLat") double maxLat, @Parameter(description = "East longitude") @RequestParam("maxLng") double maxLng, @Parameter(description = "Map zoom level (0-22)") @RequestParam(value = "zoom", defaultValue = "3") int zoom, Authentication authentication) {
+        return ResponseEntity.ok(geoClusterService.getClusters(minLat, minLng, maxLat, maxLng, zoom));
+    }
+
+    @GetMapping("/tiles/{z}/{x}/{y}.png")
+    @Operation(summary = "Get heatmap tile", description = "Get a 256px Web Mercator post density tile (XYZ scheme). Tiles are cached per data version; the ETag changes at most once per refresh interval when posts change")
+    @ApiResponse(responseCode = "200", description = "Tile rendered successfully")
+    @ApiResponse(responseCode = "304", description = "Tile unchanged since the version in If-None-Match")
+    @ApiResponse(responseCode = "400", description = "Invalid tile coordinates")
+    public void getHeatmapTile(@Parameter(description = "Zoom level") @PathVariable("z") int z, @Parameter(description = "Tile column") @PathVariable("x") int x, @Parameter(description = "Tile row") @PathVariable("y") int y, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        writeTile(heatmapTileService.getTile(z, x, y), MediaType.IMAGE_PNG_VALUE, request, response);
+    }
+
+    @GetMapping("/tiles/{z}/{x}/{y}.mvt")
+    @Operation(summary = "Get vector tile", description = "Get a Mapbox Vector Tile (XYZ scheme) with clusters, cities and posts point layers, each point carrying a count property. Tiles are cached per data version; the ETag changes at most once per refresh interval when posts change")
+    @ApiResponse(responseCode = "200", description = "Tile encoded successfully")
+    @ApiResponse(responseCode = "304", description = "Tile unchanged since the version in If-None-Match")
+    @ApiResponse(responseCode = "400", description = "Invalid tile coordinates")
+    public void getVectorTile(@Parameter(description = "Zoom level") @PathVariable("z") int z, @Parameter(description = "Tile column") @PathVariable("x") int x, @Parameter(description = "Tile row") @PathVariable("y") int y, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        writeTile(vectorTileService.getTile(z, x, y), VECTOR_TILE_CONTENT_TYPE, request, response);
+    }
+
+    @GetMapping("/main/countries/{countryCode}/posts")
+    @Operation(summary = "Get main globe country posts", description = "Page through every post from followed users in a country, newest first")
+    @ApiResponse(responseCode = "200", description = "Country posts retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Country not found")
+    public ResponseEntity<Page<PostSummaryDto>> getMainCountryPosts(@Parameter(description = "Country code") @PathVariable String countryCode, @Parameter(description = "Page number") @RequestParam(value = "page", defaultValue = "0") int page, @Parameter(description = "Page size") @RequestParam(value = "size", defaultValue = "20") int size, Authentication authentication) {
+        UserAccount currentUser = getCurrentUser(authentication);
+        Pageable pageable = PageRequest.of(page, Math.min(size, 100));
+        return ResponseEntity.ok(globeService.getMainCountryPosts(currentUser, countryCode, pageable));
+    }
+
+    @GetMapping("/profile/{userId}/countries/{countryCode}/posts")
+    @Operation(summary = "Get profile globe country posts", description = "Page through every post on a user's profile in a country, newest first")
+    @ApiResponse(responseCode = "200", description = "Country posts retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "User or country not found")
+    public ResponseEntity<Page<PostSummaryDto>> getProfileCountryPosts(@Parameter(description = "User ID") @PathVariable Long userId, @Parameter(description = "Country code") @PathVariable String countryCode, @Parameter(description = "Page number") @RequestParam(value = "page", defaultValue = "0") int page, @Parameter(description = "Page size") @RequestParam(value = "size", defaultValue = "20") int size, Authentication authentication) {
+        Pageable pageable = PageRequest.of(page, Math.min(size, 100));
+        return ResponseEntity.ok(globeService.getProfileCountryPosts(userId, countryCode, pageable));
+    }
+
+    @GetMapping("/explore/countries/{countryCode}/posts")
+    @Operation(summary = "Get explore globe country posts", description = "Page through a country's posts in the timeframe, most liked first")
+    @ApiResponse(responseCode = "200", description = "Country posts retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Country not found")
+    public ResponseEntity<Page<PostSummaryDto>> getExploreCountryPosts(@Parameter(description = "Country code") @PathVariable String countryCode, @Parameter(description = "Time period") @RequestParam(value = "timeframe", defaultValue = "month") String timeframe, @Parameter(description = "Page number") @RequestParam(value = "page", defaultValue = "0") int page, @Parameter(description = "Page size") @RequestParam(value = "size", defaultValue = "20") int size, Authentication authentication) {
+        Pageable pageable = PageRequest.of(page, Math.min(size, 100));
+        return ResponseEntity.ok(globeService.getExploreCountryPosts(countryCode, timeframe, pageable));
+    }
+
     @GetMapping("/countries/{countryCode}/recent")
     @Operation(summary = "Get country recent posts", description = "Get recent posts from followed users in specific country")
     @ApiResponse(responseCode = "200", description = "Country posts retrieved successfully")
@@ -68,6 +191,50 @@ public class GlobeController {
         return ResponseEntity.ok(posts);
     }
 
+    @GetMapping("/countries/{countryCode}/posts")
+    @Operation(summary = "Get country timeline", description = "Stream all posts in a country newest first, page by page after an opaque cursor; omit or pass an empty cursor for the first page")
+    @ApiResponse(responseCode = "200", description = "Country posts retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or country not found")
+    public ResponseEntity<CursorPageResponseDto<PostResponseDto>> getCountryTimeline(@Parameter(description = "Country code") @PathVariable String countryCode, @Parameter(description = "Cursor returned by the previous page") @RequestParam(value = "cursor", required = false) String cursor, @Parameter(description = "Page size") @RequestParam(value = "size", defaultValue = "20") int size, Authentication authentication) {
+        UserAccount currentUser = getCurrentUser(authentication);
+        Slice<Post> posts = postService.getCountryTimeline(countryCode, PageCursor.decode(cursor), Math.min(size, 100));
+        CursorPageResponseDto<PostResponseDto> response = CursorPageResponseDto.ofMapped(posts, postHydrationService.hydrate(posts.getContent(), currentUser), post -> PageCursor.of(post.getCreatedAt(), post.getId()));
+        return ResponseEntity.ok(response);
+    }
+
+    private void writeTile(TileCacheService.CachedTile cachedTile, String contentType, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=60");
+        // A client revalidating the current version gets a bodyless 304 instead of the tile again
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + cachedTile.version() + "\""))
+            return;
+
+        response.setContentType(contentType);
+        if (cachedTile.path() == null) {
+            response.setContentLength(cachedTile.content().length);
+            response.getOutputStream().write(cachedTile.content());
+            return;
+        }
+
+        Path tile = cachedTile.path();
+        long size = Files.size(tile);
+        response.setContentLengthLong(size);
+
+        // Tomcat sends the file with sendfile after the response is committed: no copy through the JVM heap
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, tile.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(tile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (buffer.hasRemaining())
+                out.write(buffer);
+        }
+    }
+
     private UserAccount getCurrentUser(Authentication authentication) {
         return userAccountService.findByEmail(authentication.getName()).orElseThrow();
     }
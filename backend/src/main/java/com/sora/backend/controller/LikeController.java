@@ -6,6 +6,7 @@ import com.sora.backend.model.UserAccount;
 import com.sora.backend.service.LikePostService;
 import com.sora.backend.service.UserAccountService;
 import com.sora.backend.util.MessageUtil;
+import com.sora.backend.util.PageCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,6 +14,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -77,6 +79,17 @@ public class LikeController {
         return ResponseEntity.ok(responses);
     }
 
+    @GetMapping(value = "/{postId}/likes", params = "cursor")
+    @Operation(summary = "Get post likes by cursor", description = "Get likes after an opaque cursor; pass an empty cursor for the first page")
+    @ApiResponse(responseCode = "200", description = "Likes retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    @ApiResponse(responseCode = "404", description = "Post not found")
+    public ResponseEntity<CursorPageResponseDto<LikeResponseDto>> getPostLikesByCursor(@Parameter(description = "Post ID") @PathVariable Long postId, @Parameter(description = "Cursor returned by the previous page") @RequestParam String cursor, @Parameter(description = "Page size") @RequestParam(value = "size", defaultValue = "20") int size) {
+        Slice<LikePost> likes = likePostService.getPostLikesAfter(postId, PageCursor.decode(cursor), Math.min(size, 100));
+        CursorPageResponseDto<LikeResponseDto> response = CursorPageResponseDto.of(likes, this::mapToLikeResponseDto, like -> PageCursor.of(like.getCreatedAt(), like.getId()));
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{postId}/likes/count")
     @Operation(summary = "Get post likes count", description = "Get total number of likes for a post")
     @ApiResponse(responseCode = "200", description = "Likes count retrieved successfully")
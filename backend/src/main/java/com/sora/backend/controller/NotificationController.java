@@ -8,6 +8,7 @@ import com.sora.backend.model.UserAccount;
 import com.sora.backend.service.NotificationService;
 import com.sora.backend.service.UserAccountService;
 import com.sora.backend.util.MessageUtil;
+import com.sora.backend.util.PageCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,6 +16,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -60,6 +62,17 @@ public class NotificationController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get notifications by cursor", description = "Get notifications after an opaque cursor; pass an empty cursor for the first page")
+    @ApiResponse(responseCode = "200", description = "Notifications retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    public ResponseEntity<CursorPageResponseDto<NotificationResponseDto>> getNotificationsByCursor(@Parameter(description = "Cursor returned by the previous page") @RequestParam String cursor, @Parameter(description = "Page size") @RequestParam(value = "size", defaultValue = "20") int size, Authentication authentication) {
+        UserAccount currentUser = getCurrentUser(authentication);
+        Slice<Notification> notifications = notificationService.getUserNotificationsAfter(currentUser.getId(), PageCursor.decode(cursor), Math.min(size, 100));
+        CursorPageResponseDto<NotificationResponseDto> response = CursorPageResponseDto.of(notifications, this::mapToNotificationResponseDto, n -> PageCursor.of(n.getCreatedAt(), n.getId()));
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{notificationId}/read")
     @Operation(summary = "Mark notification as read", description = "Mark a specific notification as read")
     @ApiResponse(responseCode = "200", description = "Notification marked as read successfully")
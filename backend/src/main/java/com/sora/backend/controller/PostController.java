@@ -3,11 +3,13 @@ package com.sora.backend.controller;
 import com.sora.backend.dto.*;
 import com.sora.backend.exception.ServiceException;
 import com.sora.backend.model.*;
+import com.sora.backend.service.FeedCacheService;
 import com.sora.backend.service.PostService;
+import com.sora.backend.service.TrendingRankingService;
 import com.sora.backend.service.UserAccountService;
-import com.sora.backend.service.LikePostService;
-import com.sora.backend.service.CommentService;
+import com.sora.backend.service.PostHydrationService;
 import com.sora.backend.util.MessageUtil;
+import com.sora.backend.util.PageCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,14 +18,13 @@ import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,16 +35,14 @@ public class PostController {
 
     private final PostService postService;
     private final UserAccountService userAccountService;
-    private final LikePostService likePostService;
-    private final CommentService commentService;
-    private final com.sora.backend.repository.FollowRepository followRepository;
+    private final PostHydrationService postHydrationService;
+    private final FeedCacheService feedCacheService;
 
-    public PostController(PostService postService, UserAccountService userAccountService, LikePostService likePostService, CommentService commentService, com.sora.backend.repository.FollowRepository followRepository) {
+    public PostController(PostService postService, UserAccountService userAccountService, PostHydrationService postHydrationService, FeedCacheService feedCacheService) {
         this.postService = postService;
         this.userAccountService = userAccountService;
-        this.likePostService = likePostService;
-        this.commentService = commentService;
-        this.followRepository = followRepository;
+        this.postHydrationService = postHydrationService;
+        this.feedCacheService = feedCacheService;
     }
 
     @PostMapping
@@ -53,7 +52,7 @@ public class PostController {
     public ResponseEntity<List<PostResponseDto>> createPost(@Valid @RequestBody PostCreateRequestDto request, Authentication authentication) {
         UserAccount currentUser = getCurrentUser(authentication);
         List<Post> posts = postService.createPost(currentUser, request);
-        List<PostResponseDto> responses = posts.stream().map(post -> mapToPostResponseDto(post, currentUser)).toList();
+        List<PostResponseDto> responses = postHydrationService.hydrate(posts, currentUser);
         return ResponseEntity.status(HttpStatus.CREATED).body(responses);
     }
 
@@ -69,7 +68,7 @@ public class PostController {
         
         UserAccount currentUser = getCurrentUser(authentication);
         List<PostMedia> media = postService.uploadMedia(postId, files, currentUser);
-        List<MediaDto> mediaDtos = media.stream().map(this::mapToMediaDto).toList();
+        List<MediaDto> mediaDtos = media.stream().map(postHydrationService::mapToMediaDto).toList();
         
         MediaUploadResponseDto response = new MediaUploadResponseDto(
             MessageUtil.getMessage("post.media.uploaded"),
@@ -92,7 +91,7 @@ public class PostController {
         }
         
         Post post = postOpt.get();
-        PostResponseDto response = mapToPostResponseDto(post, currentUser);
+        PostResponseDto response = postHydrationService.hydrate(post, currentUser);
         
         return ResponseEntity.ok(response);
     }
@@ -106,7 +105,7 @@ public class PostController {
         UserAccount currentUser = getCurrentUser(authentication);
         Post updatedPost = postService.updatePost(postId, request, currentUser);
         
-        return ResponseEntity.ok(mapToPostResponseDto(updatedPost, currentUser));
+        return ResponseEntity.ok(postHydrationService.hydrate(updatedPost, currentUser));
     }
 
     @DeleteMapping("/{postId}")
@@ -131,111 +130,63 @@ public class PostController {
     public ResponseEntity<List<PostResponseDto>> getSharedPostGroup(@Parameter(description = "Shared post group ID") @PathVariable String groupId, Authentication authentication) {
         UserAccount currentUser = getCurrentUser(authentication);
         List<Post> posts = postService.getPostsBySharedGroup(groupId);
-        List<PostResponseDto> responses = posts.stream().map(post -> mapToPostResponseDto(post, currentUser)).toList();
+        List<PostResponseDto> responses = postHydrationService.hydrate(posts, currentUser);
         return ResponseEntity.ok(responses);
     }
 
     @GetMapping("/feed")
     @Operation(summary = "Get feed posts", description = "Get paginated feed with posts from followed users and own posts")
     @ApiResponse(responseCode = "200", description = "Feed retrieved successfully")
-    public ResponseEntity<Page<PostResponseDto>> getFeed(@Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page, @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size, Authentication authentication) {
+    public ResponseEntity<Page<PostResponseDto>> getFeed(@Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page, @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size, @Parameter(description = "Compute an exact total; false skips the count query and returns a cached approximate total") @RequestParam(defaultValue = "true") boolean count, Authentication authentication) {
         UserAccount currentUser = getCurrentUser(authentication);
-        List<Long> followedUserIds = followRepository.findFollowingUserIds(currentUser.getId());
-        List<Long> allUserIds = new ArrayList<>(followedUserIds);
-        allUserIds.add(currentUser.getId());
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Post> posts = postService.getFeedPosts(allUserIds, pageable);
-        Page<PostResponseDto> response = posts.map(post -> mapToPostResponseDto(post, currentUser));
+        if (count && feedCacheService.isCacheable(page, size)) {
+            Page<PostResponseDto> cached = feedCacheService.getFirstPage(currentUser.getId(), size,
+                    firstPageSize -> postHydrationService.hydratePage(postService.getFeedPosts(currentUser, PageRequest.of(0, firstPageSize)), currentUser));
+            return ResponseEntity.ok(cached);
+        }
+
+        Pageable pageable = PageRequest.of(page, size);
+        Page<Post> posts = count ? postService.getFeedPosts(currentUser, pageable) : postService.getFeedPostsWithApproximateTotal(currentUser, pageable);
+        Page<PostResponseDto> response = postHydrationService.hydratePage(posts, currentUser);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/feed", params = "cursor")
+    @Operation(summary = "Get feed posts by cursor", description = "Get feed posts after an opaque cursor; pass an empty cursor for the first page")
+    @ApiResponse(responseCode = "200", description = "Feed retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    public ResponseEntity<CursorPageResponseDto<PostResponseDto>> getFeedByCursor(@Parameter(description = "Cursor returned by the previous page") @RequestParam String cursor, @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size, Authentication authentication) {
+        UserAccount currentUser = getCurrentUser(authentication);
+        Slice<Post> posts = postService.getFeedPostsAfter(currentUser, PageCursor.decode(cursor), Math.min(size, 100));
+        CursorPageResponseDto<PostResponseDto> response = CursorPageResponseDto.ofMapped(posts, postHydrationService.hydrate(posts.getContent(), currentUser), post -> PageCursor.of(post.getCreatedAt(), post.getId()));
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/explore")
-    @Operation(summary = "Get explore trending posts", description = "Get paginated trending posts from all users ordered by engagement")
+    @Operation(summary = "Get explore trending posts", description = "Get paginated trending posts from all users ordered by engagement. Only the top ranked posts of the timeframe (ranking.max-entries) are ordered by score; later pages continue with the remaining posts, newest first, and totalElements counts every post in the timeframe")
     @ApiResponse(responseCode = "200", description = "Explore posts retrieved successfully")
-    public ResponseEntity<Page<PostResponseDto>> getExplorePosts(@Parameter(description = "Timeframe filter") @RequestParam(defaultValue = "week") String timeframe, @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page, @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size, Authentication authentication) {
+    public ResponseEntity<Page<PostResponseDto>> getExplorePosts(@Parameter(description = "Timeframe filter") @RequestParam(defaultValue = "week") String timeframe, @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page, @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size, @Parameter(description = "Compute an exact total; false skips the count query and returns a cached approximate total") @RequestParam(defaultValue = "true") boolean count, Authentication authentication) {
         UserAccount currentUser = getCurrentUser(authentication);
         Pageable pageable = PageRequest.of(page, size);
-        Page<Post> posts = postService.getExplorePosts(timeframe, pageable);
-        Page<PostResponseDto> response = posts.map(post -> mapToPostResponseDto(post, currentUser));
+        Page<Post> posts = count ? postService.getExplorePosts(timeframe, pageable) : postService.getExplorePostsWithApproximateTotal(timeframe, pageable);
+        Page<PostResponseDto> response = postHydrationService.hydratePage(posts, currentUser);
         return ResponseEntity.ok(response);
     }
 
-    private UserAccount getCurrentUser(Authentication authentication) {
-        return userAccountService.findByEmail(authentication.getName()).orElseThrow();
-    }
-
-    private PostResponseDto mapToPostResponseDto(Post post, UserAccount currentUser) {
-        return new PostResponseDto(
-                post.getId(),
-                mapToUserSummaryDto(post.getAuthor()),
-                mapToUserSummaryDto(post.getProfileOwner()),
-                mapToCountryDto(post.getCountry()),
-                mapToCollectionDto(post.getCollection()),
-                post.getCityName(),
-                post.getCityLatitude(),
-                post.getCityLongitude(),
-                post.getCaption(),
-                post.getMedia().stream().map(this::mapToMediaDto).toList(),
-                (int) likePostService.getPostLikesCount(post.getId()),
-                (int) commentService.getPostCommentsCount(post.getId()),
-                likePostService.isPostLikedByUser(currentUser, post.getId()),
-                post.getVisibilityType(),
-                post.getSharedPostGroupId(),
-                post.getCreatedAt(),
-                post.getUpdatedAt()
-        );
-    }
-
-    private UserSummaryDto mapToUserSummaryDto(UserAccount user) {
-        return new UserSummaryDto(
-                user.getId(),
-                user.getUsername(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getProfilePicture(),
-                0, // countriesVisitedCount - placeholder
-                false // isFollowing - placeholder
-        );
-    }
-
-    private CountryDto mapToCountryDto(Country country) {
-        return new CountryDto(
-                country.getId(),
-                country.getCode(),
-                country.getNameKey(),
-                country.getLatitude(),
-                country.getLongitude(),
-                country.getTimezone()
-        );
-    }
-
-    private CollectionDto mapToCollectionDto(Collection collection) {
-        return new CollectionDto(
-                collection.getId(),
-                collection.getCode(),
-                collection.getNameKey(),
-                collection.getIconName(),
-                collection.getSortOrder(),
-                collection.getIsDefault()
-        );
+    @GetMapping(value = "/explore", params = "cursor")
+    @Operation(summary = "Get explore trending posts by cursor", description = "Get trending posts after an opaque cursor; pass an empty cursor for the first page. Posts past the top ranked ones (ranking.max-entries) follow newest first")
+    @ApiResponse(responseCode = "200", description = "Explore posts retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    public ResponseEntity<CursorPageResponseDto<PostResponseDto>> getExplorePostsByCursor(@Parameter(description = "Timeframe filter") @RequestParam(defaultValue = "week") String timeframe, @Parameter(description = "Cursor returned by the previous page") @RequestParam String cursor, @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size, Authentication authentication) {
+        UserAccount currentUser = getCurrentUser(authentication);
+        PageCursor position = PageCursor.decode(cursor);
+        TrendingRankingService.Snapshot snapshot = postService.getExploreSnapshot(timeframe, position);
+        Slice<Post> posts = postService.getExplorePostsAfter(snapshot, position, Math.min(size, 100));
+        CursorPageResponseDto<PostResponseDto> response = CursorPageResponseDto.ofMapped(posts, postHydrationService.hydrate(posts.getContent(), currentUser), post -> snapshot.cursorFor(post.getId(), post.getCreatedAt()));
+        return ResponseEntity.ok(response);
     }
 
-    private MediaDto mapToMediaDto(PostMedia media) {
-        String thumbnailUrl = media.getCloudinaryUrl() != null ? 
-                media.getCloudinaryUrl().replace("/upload/", "/upload/c_fill,w_300,h_300/") : null;
-        
-        return new MediaDto(
-                media.getId(),
-                media.getFileName(),
-                media.getCloudinaryPublicId(),
-                media.getCloudinaryUrl(),
-                thumbnailUrl,
-                media.getMediaType(),
-                media.getFileSize(),
-                media.getWidth(),
-                media.getHeight(),
-                media.getSortOrder(),
-                media.getUploadedAt()
-        );
+    private UserAccount getCurrentUser(Authentication authentication) {
+        return userAccountService.findByEmail(authentication.getName()).orElseThrow();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package com.sora.backend.dto;
+
+public record CityPointDto(
+    String cityName,
+    String countryCode,
+    Long postCount,
+    Double latitude,
+    Double longitude
+) {}
@@ -0,0 +1,9 @@
+package com.sora.backend.dto;
+
+import java.time.LocalDateTime;
+
+public record CountryActivityDto(
+    Long countryId,
+    Long postCount,
+    LocalDateTime lastPostAt
+) {}
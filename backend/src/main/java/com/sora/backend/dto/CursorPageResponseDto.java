@@ -0,0 +1,27 @@
+package com.sora.backend.dto;
+
+import com.sora.backend.util.PageCursor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPageResponseDto<T>(
+    List<T> content,
+    String nextCursor,
+    boolean hasNext,
+    int size
+) {
+    public static <E, T> CursorPageResponseDto<T> of(Slice<E> slice, Function<E, T> mapper, Function<E, PageCursor> cursorOf) {
+        List<E> rows = slice.getContent();
+        String nextCursor = slice.hasNext() && !rows.isEmpty() ? cursorOf.apply(rows.get(rows.size() - 1)).encode() : null;
+        return new CursorPageResponseDto<>(rows.stream().map(mapper).toList(), nextCursor, slice.hasNext(), rows.size());
+    }
+
+    // For content that was mapped in one batch, in the same order as the slice rows
+    public static <E, T> CursorPageResponseDto<T> ofMapped(Slice<E> slice, List<T> content, Function<E, PageCursor> cursorOf) {
+        List<E> rows = slice.getContent();
+        String nextCursor = slice.hasNext() && !rows.isEmpty() ? cursorOf.apply(rows.get(rows.size() - 1)).encode() : null;
+        return new CursorPageResponseDto<>(content, nextCursor, slice.hasNext(), content.size());
+    }
+}
@@ -0,0 +1,8 @@
+package com.sora.backend.dto;
+
+public record GeoClusterDto(
+    String cell,
+    Integer postCount,
+    Double latitude,
+    Double longitude
+) {}
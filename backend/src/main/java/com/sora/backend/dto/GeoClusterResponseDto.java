@@ -0,0 +1,9 @@
+package com.sora.backend.dto;
+
+import java.util.List;
+
+public record GeoClusterResponseDto(
+    Integer level,
+    Integer totalPosts,
+    List<GeoClusterDto> clusters
+) {}
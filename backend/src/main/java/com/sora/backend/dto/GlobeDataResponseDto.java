@@ -8,5 +8,14 @@ public record GlobeDataResponseDto(
     Integer totalCountriesWithActivity,
     Integer totalRecentPosts,
     LocalDateTime lastUpdated,
-    List<CountryMarkerDto> countryMarkers
-) {}
\ No newline at end of file
+    LocalDateTime generatedAt,
+    List<CountryMarkerDto> countryMarkers,
+    Long version,
+    Boolean delta,
+    List<String> removedCountryCodes
+) {
+
+    public GlobeDataResponseDto(String globeType, Integer totalCountriesWithActivity, Integer totalRecentPosts, LocalDateTime lastUpdated, LocalDateTime generatedAt, List<CountryMarkerDto> countryMarkers) {
+        this(globeType, totalCountriesWithActivity, totalRecentPosts, lastUpdated, generatedAt, countryMarkers, null, false, List.of());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.sora.backend.dto;
+
+public record IdCountDto(
+    Long id,
+    Long count
+) {}
@@ -0,0 +1,15 @@
+package com.sora.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record NormalizedCountryMarkerDto(
+    String countryCode,
+    String countryNameKey,
+    Double latitude,
+    Double longitude,
+    Integer recentPostsCount,
+    LocalDateTime lastPostDate,
+    List<Long> activeUserIds,
+    List<NormalizedPostSummaryDto> recentPosts
+) {}
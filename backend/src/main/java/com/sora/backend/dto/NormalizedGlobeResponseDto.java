@@ -0,0 +1,19 @@
+package com.sora.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Same globe as GlobeDataResponseDto with every user serialized once in users and referenced by id
+public record NormalizedGlobeResponseDto(
+    String globeType,
+    Integer totalCountriesWithActivity,
+    Integer totalRecentPosts,
+    LocalDateTime lastUpdated,
+    LocalDateTime generatedAt,
+    List<NormalizedCountryMarkerDto> countryMarkers,
+    Map<Long, UserSummaryDto> users,
+    Long version,
+    Boolean delta,
+    List<String> removedCountryCodes
+) {}
@@ -0,0 +1,14 @@
+package com.sora.backend.dto;
+
+import java.time.LocalDateTime;
+
+public record NormalizedPostSummaryDto(
+    Long id,
+    Long authorId,
+    String cityName,
+    Double cityLatitude,
+    Double cityLongitude,
+    String thumbnailUrl,
+    Integer likesCount,
+    LocalDateTime createdAt
+) {}
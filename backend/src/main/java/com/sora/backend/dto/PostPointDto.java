@@ -0,0 +1,9 @@
+package com.sora.backend.dto;
+
+public record PostPointDto(
+    Long postId,
+    String cityName,
+    String countryCode,
+    Double latitude,
+    Double longitude
+) {}
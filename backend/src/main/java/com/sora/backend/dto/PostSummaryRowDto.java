@@ -0,0 +1,15 @@
+package com.sora.backend.dto;
+
+import java.time.LocalDateTime;
+
+public record PostSummaryRowDto(
+    Long id,
+    Long countryId,
+    Long authorId,
+    Long profileOwnerId,
+    String cityName,
+    Double cityLatitude,
+    Double cityLongitude,
+    Integer likesCount,
+    LocalDateTime createdAt
+) {}
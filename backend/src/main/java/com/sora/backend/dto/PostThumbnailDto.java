@@ -0,0 +1,6 @@
+package com.sora.backend.dto;
+
+public record PostThumbnailDto(
+    Long postId,
+    String cloudinaryUrl
+) {}
@@ -0,0 +1,27 @@
+package com.sora.backend.model;
+
+// Values of country.continent_code
+public enum Continent {
+    AFRICA("AF", "continent.africa"),
+    ASIA("AS", "continent.asia"),
+    EUROPE("EU", "continent.europe"),
+    NORTH_AMERICA("NA", "continent.north_america"),
+    SOUTH_AMERICA("SA", "continent.south_america"),
+    OCEANIA("OC", "continent.oceania");
+
+    private final String code;
+    private final String nameKey;
+
+    Continent(String code, String nameKey) {
+        this.code = code;
+        this.nameKey = nameKey;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getNameKey() {
+        return nameKey;
+    }
+}
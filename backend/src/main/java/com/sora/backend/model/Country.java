@@ -1,6 +1,7 @@
 package com.sora.backend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Generated;
 
 @Entity
 @Table(name = "country")
@@ -21,6 +22,14 @@ public class Country extends BaseEntity {
     @Column(name = "timezone")
     private String timezone;
     
+    // Assigned by the database from country_bit_index_seq; position in user_travel_stats country masks
+    @Generated
+    @Column(name = "bit_index", nullable = false, insertable = false, updatable = false)
+    private Short bitIndex;
+    
+    @Column(name = "continent_code", length = 2)
+    private String continentCode;
+    
     public Country() {}
     
     public Country(String code, String nameKey, Double latitude, Double longitude) {
@@ -69,4 +78,16 @@ public class Country extends BaseEntity {
     public void setTimezone(String timezone) {
         this.timezone = timezone;
     }
-}
\ No newline at end of file
+    
+    public Short getBitIndex() {
+        return bitIndex;
+    }
+    
+    public String getContinentCode() {
+        return continentCode;
+    }
+    
+    public void setContinentCode(String continentCode) {
+        this.continentCode = continentCode;
+    }
+}
@@ -0,0 +1,70 @@
+package com.sora.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "feed_entry", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "post_id"}, name = "uk_feed_entry_user_post")
+})
+public class FeedEntry extends BaseEntity {
+
+    // Whose home feed this entry belongs to
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserAccount user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", nullable = false)
+    private Post post;
+
+    // Profile owner of the post, used to trim the feed on unfollow
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "source_user_id", nullable = false)
+    private UserAccount sourceUser;
+
+    // Copy of post.created_at so a feed page is a single index range scan
+    @Column(name = "post_created_at", nullable = false)
+    private LocalDateTime postCreatedAt;
+
+    public FeedEntry() {}
+
+    public FeedEntry(UserAccount user, Post post) {
+        this.user = user;
+        this.post = post;
+        this.sourceUser = post.getProfileOwner();
+        this.postCreatedAt = post.getCreatedAt();
+    }
+
+    public UserAccount getUser() {
+        return user;
+    }
+
+    public void setUser(UserAccount user) {
+        this.user = user;
+    }
+
+    public Post getPost() {
+        return post;
+    }
+
+    public void setPost(Post post) {
+        this.post = post;
+    }
+
+    public UserAccount getSourceUser() {
+        return sourceUser;
+    }
+
+    public void setSourceUser(UserAccount sourceUser) {
+        this.sourceUser = sourceUser;
+    }
+
+    public LocalDateTime getPostCreatedAt() {
+        return postCreatedAt;
+    }
+
+    public void setPostCreatedAt(LocalDateTime postCreatedAt) {
+        this.postCreatedAt = postCreatedAt;
+    }
+}
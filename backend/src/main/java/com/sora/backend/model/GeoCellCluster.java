@@ -0,0 +1,68 @@
+package com.sora.backend.model;
+
+import jakarta.persistence.*;
+
+// Post count and coordinate sums per geohash cell and level, maintained by GeoClusterService on post writes
+@Entity
+@Table(name = "geo_cell_cluster", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"level", "cell"}, name = "uk_geo_cell_cluster_level_cell")
+})
+public class GeoCellCluster extends BaseEntity {
+
+    @Column(name = "level", nullable = false)
+    private Integer level;
+
+    @Column(name = "cell", nullable = false, length = 12)
+    private String cell;
+
+    @Column(name = "post_count", nullable = false)
+    private Integer postCount;
+
+    @Column(name = "latitude_sum", nullable = false)
+    private Double latitudeSum;
+
+    @Column(name = "longitude_sum", nullable = false)
+    private Double longitudeSum;
+
+    public GeoCellCluster() {}
+
+    public Integer getLevel() {
+        return level;
+    }
+
+    public void setLevel(Integer level) {
+        this.level = level;
+    }
+
+    public String getCell() {
+        return cell;
+    }
+
+    public void setCell(String cell) {
+        this.cell = cell;
+    }
+
+    public Integer getPostCount() {
+        return postCount;
+    }
+
+    public void setPostCount(Integer postCount) {
+        this.postCount = postCount;
+    }
+
+    public Double getLatitudeSum() {
+        return latitudeSum;
+    }
+
+    public void setLatitudeSum(Double latitudeSum) {
+        this.latitudeSum = latitudeSum;
+    }
+
+    public Double getLongitudeSum() {
+        return longitudeSum;
+    }
+
+    public void setLongitudeSum(Double longitudeSum) {
+        this.longitudeSum = longitudeSum;
+    }
+}
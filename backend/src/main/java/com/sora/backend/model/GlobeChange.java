@@ -0,0 +1,55 @@
+package com.sora.backend.model;
+
+import jakarta.persistence.*;
+
+// Append-only globe change log written by GlobeChangeService; the version is stamped right before commit
+@Entity
+@Table(name = "globe_change")
+public class GlobeChange extends BaseEntity {
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "viewer_id")
+    private Long viewerId;
+
+    @Column(name = "country_id", nullable = false)
+    private Long countryId;
+
+    @Column(name = "version")
+    private Long version;
+
+    public GlobeChange() {}
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public Long getViewerId() {
+        return viewerId;
+    }
+
+    public void setViewerId(Long viewerId) {
+        this.viewerId = viewerId;
+    }
+
+    public Long getCountryId() {
+        return countryId;
+    }
+
+    public void setCountryId(Long countryId) {
+        this.countryId = countryId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
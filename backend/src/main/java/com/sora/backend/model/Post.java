@@ -40,6 +40,9 @@ public class Post extends BaseEntity {
     
     @Column(name = "city_longitude")
     private Double cityLongitude;
+
+    @Column(name = "geohash", length = 12)
+    private String geohash;
     
     @Column(name = "caption")
     private String caption;
@@ -51,6 +54,13 @@ public class Post extends BaseEntity {
     @Column(name = "shared_post_group_id", length = 36)
     private String sharedPostGroupId;
 
+    // Maintained through PostCounterService, never written by entity updates
+    @Column(name = "likes_count", insertable = false, updatable = false)
+    private Integer likesCount;
+
+    @Column(name = "comments_count", insertable = false, updatable = false)
+    private Integer commentsCount;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @OrderBy("sortOrder")
     private List<PostMedia> media;
@@ -128,6 +138,14 @@ public class Post extends BaseEntity {
     public void setCityLongitude(Double cityLongitude) {
         this.cityLongitude = cityLongitude;
     }
+
+    public String getGeohash() {
+        return geohash;
+    }
+
+    public void setGeohash(String geohash) {
+        this.geohash = geohash;
+    }
     
     public String getCaption() {
         return caption;
@@ -186,10 +204,10 @@ public class Post extends BaseEntity {
     }
 
     public Integer getLikesCount() {
-        return likes != null ? likes.size() : 0;
+        return likesCount != null ? likesCount : 0;
     }
 
     public Integer getCommentsCount() {
-        return comments != null ? comments.size() : 0;
+        return commentsCount != null ? commentsCount : 0;
     }
 }
\ No newline at end of file
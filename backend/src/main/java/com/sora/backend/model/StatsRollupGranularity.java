@@ -0,0 +1,6 @@
+package com.sora.backend.model;
+
+public enum StatsRollupGranularity {
+    DAY,
+    MONTH
+}
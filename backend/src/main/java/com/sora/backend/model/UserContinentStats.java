@@ -0,0 +1,58 @@
+package com.sora.backend.model;
+
+import jakarta.persistence.*;
+
+// Per user and continent coverage maintained by UserTravelStatsService on post writes
+@Entity
+@Table(name = "user_continent_stats", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "continent_code"}, name = "uk_user_continent_stats_continent")
+})
+public class UserContinentStats extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserAccount user;
+
+    @Column(name = "continent_code", nullable = false, length = 2)
+    private String continentCode;
+
+    @Column(name = "countries_visited", nullable = false)
+    private Integer countriesVisited;
+
+    @Column(name = "posts_count", nullable = false)
+    private Integer postsCount;
+
+    public UserContinentStats() {}
+
+    public UserAccount getUser() {
+        return user;
+    }
+
+    public void setUser(UserAccount user) {
+        this.user = user;
+    }
+
+    public String getContinentCode() {
+        return continentCode;
+    }
+
+    public void setContinentCode(String continentCode) {
+        this.continentCode = continentCode;
+    }
+
+    public Integer getCountriesVisited() {
+        return countriesVisited;
+    }
+
+    public void setCountriesVisited(Integer countriesVisited) {
+        this.countriesVisited = countriesVisited;
+    }
+
+    public Integer getPostsCount() {
+        return postsCount;
+    }
+
+    public void setPostsCount(Integer postsCount) {
+        this.postsCount = postsCount;
+    }
+}
@@ -0,0 +1,104 @@
+package com.sora.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Per (profile owner, country) aggregate maintained by UserCountryStatsService on post writes
+@Entity
+@Table(name = "user_country_stats", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "country_id"}, name = "uk_user_country_stats_user_country")
+})
+public class UserCountryStats extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserAccount user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "country_id", nullable = false)
+    private Country country;
+
+    @Column(name = "post_count", nullable = false)
+    private Integer postCount;
+
+    @Column(name = "city_count", nullable = false)
+    private Integer cityCount;
+
+    @Column(name = "first_post_at")
+    private LocalDateTime firstPostAt;
+
+    @Column(name = "last_post_at")
+    private LocalDateTime lastPostAt;
+
+    @Column(name = "latest_post_id")
+    private Long latestPostId;
+
+    @Column(name = "latest_thumbnail_url", length = 500)
+    private String latestThumbnailUrl;
+
+    public UserCountryStats() {}
+
+    public UserAccount getUser() {
+        return user;
+    }
+
+    public void setUser(UserAccount user) {
+        this.user = user;
+    }
+
+    public Country getCountry() {
+        return country;
+    }
+
+    public void setCountry(Country country) {
+        this.country = country;
+    }
+
+    public Integer getPostCount() {
+        return postCount;
+    }
+
+    public void setPostCount(Integer postCount) {
+        this.postCount = postCount;
+    }
+
+    public Integer getCityCount() {
+        return cityCount;
+    }
+
+    public void setCityCount(Integer cityCount) {
+        this.cityCount = cityCount;
+    }
+
+    public LocalDateTime getFirstPostAt() {
+        return firstPostAt;
+    }
+
+    public void setFirstPostAt(LocalDateTime firstPostAt) {
+        this.firstPostAt = firstPostAt;
+    }
+
+    public LocalDateTime getLastPostAt() {
+        return lastPostAt;
+    }
+
+    public void setLastPostAt(LocalDateTime lastPostAt) {
+        this.lastPostAt = lastPostAt;
+    }
+
+    public Long getLatestPostId() {
+        return latestPostId;
+    }
+
+    public void setLatestPostId(Long latestPostId) {
+        this.latestPostId = latestPostId;
+    }
+
+    public String getLatestThumbnailUrl() {
+        return latestThumbnailUrl;
+    }
+
+    public void setLatestThumbnailUrl(String latestThumbnailUrl) {
+        this.latestThumbnailUrl = latestThumbnailUrl;
+    }
+}
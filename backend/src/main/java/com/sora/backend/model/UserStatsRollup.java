@@ -0,0 +1,83 @@
+package com.sora.backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// Per user activity in one day or month bucket, maintained by UserTravelStatsService on post writes
+@Entity
+@Table(name = "user_stats_rollup", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "granularity", "bucket_start"}, name = "uk_user_stats_rollup_bucket")
+})
+public class UserStatsRollup extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserAccount user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private StatsRollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(name = "posts_count", nullable = false)
+    private Integer postsCount;
+
+    @Column(name = "new_countries_count", nullable = false)
+    private Integer newCountriesCount;
+
+    @Column(name = "new_cities_count", nullable = false)
+    private Integer newCitiesCount;
+
+    public UserStatsRollup() {}
+
+    public UserAccount getUser() {
+        return user;
+    }
+
+    public void setUser(UserAccount user) {
+        this.user = user;
+    }
+
+    public StatsRollupGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(StatsRollupGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDate getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDate bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Integer getPostsCount() {
+        return postsCount;
+    }
+
+    public void setPostsCount(Integer postsCount) {
+        this.postsCount = postsCount;
+    }
+
+    public Integer getNewCountriesCount() {
+        return newCountriesCount;
+    }
+
+    public void setNewCountriesCount(Integer newCountriesCount) {
+        this.newCountriesCount = newCountriesCount;
+    }
+
+    public Integer getNewCitiesCount() {
+        return newCitiesCount;
+    }
+
+    public void setNewCitiesCount(Integer newCitiesCount) {
+        this.newCitiesCount = newCitiesCount;
+    }
+}
@@ -0,0 +1,125 @@
+package com.sora.backend.model;
+
+import jakarta.persistence.*;
+
+// Per user profile totals maintained by UserTravelStatsService on post, like and comment writes
+@Entity
+@Table(name = "user_travel_stats", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id"}, name = "uk_user_travel_stats_user")
+})
+public class UserTravelStats extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserAccount user;
+
+    @Column(name = "countries_count", nullable = false)
+    private Integer countriesCount;
+
+    @Column(name = "cities_count", nullable = false)
+    private Integer citiesCount;
+
+    @Column(name = "posts_count", nullable = false)
+    private Integer postsCount;
+
+    @Column(name = "likes_received", nullable = false)
+    private Integer likesReceived;
+
+    @Column(name = "comments_received", nullable = false)
+    private Integer commentsReceived;
+
+    // Visited countries as a 256-bit set over country.bit_index, see CountryBitset
+    @Column(name = "countries_mask_0", nullable = false)
+    private Long countriesMask0;
+
+    @Column(name = "countries_mask_1", nullable = false)
+    private Long countriesMask1;
+
+    @Column(name = "countries_mask_2", nullable = false)
+    private Long countriesMask2;
+
+    @Column(name = "countries_mask_3", nullable = false)
+    private Long countriesMask3;
+
+    public UserTravelStats() {}
+
+    public UserAccount getUser() {
+        return user;
+    }
+
+    public void setUser(UserAccount user) {
+        this.user = user;
+    }
+
+    public Integer getCountriesCount() {
+        return countriesCount;
+    }
+
+    public void setCountriesCount(Integer countriesCount) {
+        this.countriesCount = countriesCount;
+    }
+
+    public Integer getCitiesCount() {
+        return citiesCount;
+    }
+
+    public void setCitiesCount(Integer citiesCount) {
+        this.citiesCount = citiesCount;
+    }
+
+    public Integer getPostsCount() {
+        return postsCount;
+    }
+
+    public void setPostsCount(Integer postsCount) {
+        this.postsCount = postsCount;
+    }
+
+    public Integer getLikesReceived() {
+        return likesReceived;
+    }
+
+    public void setLikesReceived(Integer likesReceived) {
+        this.likesReceived = likesReceived;
+    }
+
+    public Integer getCommentsReceived() {
+        return commentsReceived;
+    }
+
+    public void setCommentsReceived(Integer commentsReceived) {
+        this.commentsReceived = commentsReceived;
+    }
+
+    public Long getCountriesMask0() {
+        return countriesMask0;
+    }
+
+    public void setCountriesMask0(Long countriesMask0) {
+        this.countriesMask0 = countriesMask0;
+    }
+
+    public Long getCountriesMask1() {
+        return countriesMask1;
+    }
+
+    public void setCountriesMask1(Long countriesMask1) {
+        this.countriesMask1 = countriesMask1;
+    }
+
+    public Long getCountriesMask2() {
+        return countriesMask2;
+    }
+
+    public void setCountriesMask2(Long countriesMask2) {
+        this.countriesMask2 = countriesMask2;
+    }
+
+    public Long getCountriesMask3() {
+        return countriesMask3;
+    }
+
+    public void setCountriesMask3(Long countriesMask3) {
+        this.countriesMask3 = countriesMask3;
+    }
+}
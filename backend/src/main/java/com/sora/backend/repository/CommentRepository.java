@@ -1,5 +1,6 @@
 package com.sora.backend.repository;
 
+import com.sora.backend.dto.IdCountDto;
 import com.sora.backend.model.Comment;
 import com.sora.backend.model.Post;
 import org.springframework.data.domain.Page;
@@ -9,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -17,18 +19,21 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND c.parentComment IS NULL ORDER BY c.createdAt DESC")
     Page<Comment> findByPostIdAndParentCommentIsNull(@Param("postId") Long postId, Pageable pageable);
     
+    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND c.parentComment IS NULL AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findTopLevelByPostIdBefore(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
     @Query("SELECT c FROM Comment c WHERE c.parentComment.id = :parentCommentId ORDER BY c.createdAt ASC")
     List<Comment> findByParentCommentId(@Param("parentCommentId") Long parentCommentId);
     
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.post.id = :postId")
     long countByPostId(@Param("postId") Long postId);
     
+    @Query("SELECT new com.sora.backend.dto.IdCountDto(c.post.id, COUNT(c)) FROM Comment c WHERE c.post.id IN :postIds GROUP BY c.post.id")
+    List<IdCountDto> countByPostIds(@Param("postIds") List<Long> postIds);
+    
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.parentComment.id = :parentCommentId")
     long countByParentCommentId(@Param("parentCommentId") Long parentCommentId);
     
     @Query("SELECT c FROM Comment c WHERE c.parentComment.id = :parentCommentId ORDER BY c.createdAt ASC")
     List<Comment> findByParentCommentIdOrderByCreatedAtAsc(@Param("parentCommentId") Long parentCommentId);
-    
-    @Query("SELECT COUNT(c) FROM Comment c WHERE c.post.author.id = :userId")
-    long countCommentsReceivedByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -16,4 +16,12 @@ public interface CountryRepository extends JpaRepository<Country, Long> {
     
     @Query("SELECT c FROM Country c ORDER BY c.nameKey ASC")
     List<Country> findAllByOrderByNameKeyAsc();
+
+    @Query("SELECT c.continentCode AS continentCode, COUNT(c) AS countriesCount FROM Country c WHERE c.continentCode IS NOT NULL GROUP BY c.continentCode")
+    List<ContinentCountRow> countByContinent();
+
+    interface ContinentCountRow {
+        String getContinentCode();
+        Long getCountriesCount();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.sora.backend.repository;
+
+import com.sora.backend.model.FeedEntry;
+import com.sora.backend.model.Post;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FeedEntryRepository extends JpaRepository<FeedEntry, Long> {
+
+    @Query(value = "SELECT fe.post FROM FeedEntry fe WHERE fe.user.id = :userId ORDER BY fe.postCreatedAt DESC, fe.post.id DESC",
+           countQuery = "SELECT COUNT(fe) FROM FeedEntry fe WHERE fe.user.id = :userId")
+    Page<Post> findFeedPostsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT fe.post FROM FeedEntry fe WHERE fe.user.id = :userId ORDER BY fe.postCreatedAt DESC, fe.post.id DESC")
+    Slice<Post> findFeedSliceByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT fe.post FROM FeedEntry fe WHERE fe.user.id = :userId ORDER BY fe.postCreatedAt DESC, fe.post.id DESC")
+    List<Post> findRecentFeedPostsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT fe.post FROM FeedEntry fe WHERE fe.user.id = :userId AND (fe.postCreatedAt < :createdAt OR (fe.postCreatedAt = :createdAt AND fe.post.id < :postId)) ORDER BY fe.postCreatedAt DESC, fe.post.id DESC")
+    List<Post> findFeedPostsBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt, @Param("postId") Long postId, Pageable pageable);
+
+    @Query("SELECT COUNT(fe) FROM FeedEntry fe WHERE fe.user.id = :userId")
+    long countByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(fe) FROM FeedEntry fe WHERE fe.user.id = :userId AND fe.sourceUser.id NOT IN :sourceUserIds")
+    long countByUserIdExcludingSources(@Param("userId") Long userId, @Param("sourceUserIds") List<Long> sourceUserIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO feed_entry (user_id, post_id, source_user_id, post_created_at, created_at, updated_at) " +
+                   "VALUES (:userId, :postId, :sourceUserId, :postCreatedAt, NOW(), NOW()) " +
+                   "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int insertEntry(@Param("userId") Long userId, @Param("postId") Long postId, @Param("sourceUserId") Long sourceUserId, @Param("postCreatedAt") LocalDateTime postCreatedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO feed_entry (user_id, post_id, source_user_id, post_created_at, created_at, updated_at) " +
+                   "SELECT f.follower_id, :postId, :sourceUserId, :postCreatedAt, NOW(), NOW() FROM follow f WHERE f.following_id = :sourceUserId " +
+                   "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int fanOutToFollowers(@Param("postId") Long postId, @Param("sourceUserId") Long sourceUserId, @Param("postCreatedAt") LocalDateTime postCreatedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO feed_entry (user_id, post_id, source_user_id, post_created_at, created_at, updated_at) " +
+                   "SELECT :userId, p.id, p.profile_owner_id, p.created_at, NOW(), NOW() FROM post p " +
+                   "WHERE p.profile_owner_id = :sourceUserId AND p.created_at IS NOT NULL " +
+                   "ORDER BY p.created_at DESC LIMIT :limit " +
+                   "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int backfillFromSource(@Param("userId") Long userId, @Param("sourceUserId") Long sourceUserId, @Param("limit") int limit);
+
+    // Pushes an account's latest posts to every follower at once, for accounts that were pulled at read time until now
+    @Modifying
+    @Query(value = "INSERT INTO feed_entry (user_id, post_id, source_user_id, post_created_at, created_at, updated_at) " +
+                   "SELECT f.follower_id, p.id, p.profile_owner_id, p.created_at, NOW(), NOW() " +
+                   "FROM (SELECT id, profile_owner_id, created_at FROM post WHERE profile_owner_id = :sourceUserId AND created_at IS NOT NULL " +
+                   "ORDER BY created_at DESC LIMIT :limit) p " +
+                   "JOIN follow f ON f.following_id = p.profile_owner_id " +
+                   "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int backfillFollowersFromSource(@Param("sourceUserId") Long sourceUserId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM FeedEntry fe WHERE fe.user.id = :userId AND fe.sourceUser.id = :sourceUserId")
+    int deleteByUserIdAndSourceUserId(@Param("userId") Long userId, @Param("sourceUserId") Long sourceUserId);
+}
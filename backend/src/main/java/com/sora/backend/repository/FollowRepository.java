@@ -43,10 +43,19 @@ public interface FollowRepository extends JpaRepository<Follow, Long> {
     
     @Query("SELECT f.following.id FROM Follow f WHERE f.follower.id = :followerId")
     List<Long> findFollowingUserIds(@Param("followerId") Long followerId);
+
+    @Query("SELECT f.following.id FROM Follow f WHERE f.follower.id = :followerId AND f.following.id IN :userIds")
+    List<Long> findFollowingUserIdsIn(@Param("followerId") Long followerId, @Param("userIds") List<Long> userIds);
+
+    @Query("SELECT f.follower.id FROM Follow f WHERE f.following.id = :followingId AND f.follower.id IN :userIds")
+    List<Long> findFollowerUserIdsIn(@Param("followingId") Long followingId, @Param("userIds") List<Long> userIds);
     
     @Query("SELECT COUNT(f) FROM Follow f WHERE f.following.id = :userId")
     long countFollowersByUserId(@Param("userId") Long userId);
 
+    @Query("SELECT f.following.id FROM Follow f GROUP BY f.following.id HAVING COUNT(f) >= :minFollowers")
+    List<Long> findUserIdsWithMinFollowers(@Param("minFollowers") long minFollowers);
+
     @Query("""
         SELECT f.following.id FROM Follow f
         WHERE f.follower.id = :userId
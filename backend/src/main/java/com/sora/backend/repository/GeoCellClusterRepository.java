@@ -0,0 +1,39 @@
+package com.sora.backend.repository;
+
+import com.sora.backend.dto.GeoClusterDto;
+import com.sora.backend.model.GeoCellCluster;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GeoCellClusterRepository extends JpaRepository<GeoCellCluster, Long> {
+
+    @Query("SELECT new com.sora.backend.dto.GeoClusterDto(c.cell, c.postCount, c.latitudeSum / c.postCount, c.longitudeSum / c.postCount) " +
+           "FROM GeoCellCluster c WHERE c.level = :level AND c.cell IN :cells AND c.postCount > 0")
+    List<GeoClusterDto> findClusters(@Param("level") int level, @Param("cells") List<String> cells);
+
+    @Query("SELECT MAX(c.updatedAt) FROM GeoCellCluster c")
+    LocalDateTime findLastUpdatedAt();
+
+    // Applies one post to every enclosing cell from level 1 up to :levels
+    @Modifying
+    @Query(value = "INSERT INTO geo_cell_cluster (level, cell, post_count, latitude_sum, longitude_sum, created_at, updated_at) " +
+                   "SELECT l.level, LEFT(:geohash, l.level), :delta, :delta * :latitude, :delta * :longitude, NOW(), NOW() " +
+                   "FROM generate_series(1, :levels) AS l(level) " +
+                   "ON CONFLICT (level, cell) DO UPDATE SET " +
+                   "post_count = geo_cell_cluster.post_count + EXCLUDED.post_count, " +
+                   "latitude_sum = geo_cell_cluster.latitude_sum + EXCLUDED.latitude_sum, " +
+                   "longitude_sum = geo_cell_cluster.longitude_sum + EXCLUDED.longitude_sum, " +
+                   "updated_at = NOW()", nativeQuery = true)
+    int applyPost(@Param("geohash") String geohash, @Param("latitude") double latitude, @Param("longitude") double longitude, @Param("delta") int delta, @Param("levels") int levels);
+
+    @Modifying
+    @Query(value = "DELETE FROM geo_cell_cluster WHERE level <= :levels AND cell = LEFT(:geohash, level) AND post_count <= 0", nativeQuery = true)
+    int deleteEmpty(@Param("geohash") String geohash, @Param("levels") int levels);
+}
@@ -0,0 +1,46 @@
+package com.sora.backend.repository;
+
+import com.sora.backend.model.GlobeChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GlobeChangeRepository extends JpaRepository<GlobeChange, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO globe_change (owner_id, country_id, created_at, updated_at) VALUES (:ownerId, :countryId, NOW(), NOW())", nativeQuery = true)
+    int recordOwnerChange(@Param("ownerId") Long ownerId, @Param("countryId") Long countryId);
+
+    // Every country the followed user has posts in may appear on or disappear from the viewer's globe
+    @Modifying
+    @Query(value = "INSERT INTO globe_change (viewer_id, country_id, created_at, updated_at) " +
+                   "SELECT :viewerId, s.country_id, NOW(), NOW() FROM user_country_stats s WHERE s.user_id = :followedId", nativeQuery = true)
+    int recordFollowChange(@Param("viewerId") Long viewerId, @Param("followedId") Long followedId);
+
+    // The counter row lock is held until commit, so versions are handed out in commit order
+    @Modifying
+    @Query(value = "WITH next AS (UPDATE globe_version SET version = version + 1 WHERE id = 1 RETURNING version) " +
+                   "UPDATE globe_change SET version = (SELECT version FROM next) WHERE version IS NULL", nativeQuery = true)
+    int stampPendingChanges();
+
+    @Query("SELECT COALESCE(MAX(c.version), 0) FROM GlobeChange c WHERE c.ownerId IN :ownerIds OR c.viewerId = :viewerId")
+    long findLatestVersion(@Param("ownerIds") List<Long> ownerIds, @Param("viewerId") Long viewerId);
+
+    @Query("SELECT COALESCE(MIN(c.version), 0) FROM GlobeChange c")
+    long findOldestRetainedVersion();
+
+    @Query("SELECT DISTINCT c.countryId FROM GlobeChange c WHERE c.version > :since AND (c.ownerId IN :ownerIds OR c.viewerId = :viewerId)")
+    List<Long> findChangedCountryIds(@Param("ownerIds") List<Long> ownerIds, @Param("viewerId") Long viewerId, @Param("since") long since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM GlobeChange c WHERE c.createdAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
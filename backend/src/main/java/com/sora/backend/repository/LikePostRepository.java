@@ -1,5 +1,6 @@
 package com.sora.backend.repository;
 
+import com.sora.backend.dto.IdCountDto;
 import com.sora.backend.model.LikePost;
 import com.sora.backend.model.Post;
 import com.sora.backend.model.UserAccount;
@@ -11,6 +12,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -25,13 +28,35 @@ public interface LikePostRepository extends JpaRepository<LikePost, Long> {
     @Query("SELECT COUNT(lp) FROM LikePost lp WHERE lp.post.id = :postId")
     long countByPostId(@Param("postId") Long postId);
     
+    @Query("SELECT new com.sora.backend.dto.IdCountDto(lp.post.id, COUNT(lp)) FROM LikePost lp WHERE lp.post.id IN :postIds GROUP BY lp.post.id")
+    List<IdCountDto> countByPostIds(@Param("postIds") List<Long> postIds);
+    
+    @Query("SELECT lp.post.id FROM LikePost lp WHERE lp.user.id = :userId AND lp.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") List<Long> postIds);
+    
     @Query("SELECT lp FROM LikePost lp WHERE lp.post.id = :postId ORDER BY lp.createdAt DESC")
     Page<LikePost> findByPostId(@Param("postId") Long postId, Pageable pageable);
     
+    @Query("SELECT lp FROM LikePost lp WHERE lp.post.id = :postId AND (lp.createdAt < :createdAt OR (lp.createdAt = :createdAt AND lp.id < :id)) ORDER BY lp.createdAt DESC, lp.id DESC")
+    List<LikePost> findByPostIdBefore(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
     @Modifying
     @Query("DELETE FROM LikePost lp WHERE lp.user.id = :userId AND lp.post.id = :postId")
     void deleteByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
     
-    @Query("SELECT COUNT(lp) FROM LikePost lp WHERE lp.post.author.id = :userId")
-    long countLikesReceivedByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+    @Query(value = """
+        SELECT c.code AS countryCode, CAST(CAST(lp.created_at AS date) - DATE '1970-01-01' AS bigint) AS epochDay, COUNT(*) AS likeCount
+        FROM like_post lp
+        JOIN post p ON p.id = lp.post_id
+        JOIN country c ON c.id = p.country_id
+        WHERE lp.created_at >= :since
+        GROUP BY c.code, CAST(lp.created_at AS date)
+    """, nativeQuery = true)
+    List<DailyLikeActivityRow> findDailyLikeActivitySince(@Param("since") LocalDateTime since);
+
+    interface DailyLikeActivityRow {
+        String getCountryCode();
+        Long getEpochDay();
+        Long getLikeCount();
+    }
+}
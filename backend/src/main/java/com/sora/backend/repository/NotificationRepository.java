@@ -11,12 +11,18 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
     @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId ORDER BY n.createdAt DESC")
     Page<Notification> findByRecipientId(@Param("recipientId") Long recipientId, Pageable pageable);
 
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findByRecipientIdBefore(@Param("recipientId") Long recipientId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.recipient.id = :recipientId AND n.isRead = false")
     Long countUnreadByRecipientId(@Param("recipientId") Long recipientId);
 
@@ -1,5 +1,6 @@
 package com.sora.backend.repository;
 
+import com.sora.backend.dto.PostThumbnailDto;
 import com.sora.backend.model.Post;
 import com.sora.backend.model.PostMedia;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,6 +15,31 @@ import java.util.List;
 public interface PostMediaRepository extends JpaRepository<PostMedia, Long> {
     @Query("SELECT pm FROM PostMedia pm WHERE pm.post.id = :postId ORDER BY pm.sortOrder ASC")
     List<PostMedia> findByPostIdOrderBySortOrder(@Param("postId") Long postId);
+
+    @Query("SELECT pm FROM PostMedia pm WHERE pm.post.id IN :postIds ORDER BY pm.sortOrder ASC")
+    List<PostMedia> findByPostIdIn(@Param("postIds") List<Long> postIds);
+
+    @Query("SELECT new com.sora.backend.dto.PostThumbnailDto(pm.post.id, pm.cloudinaryUrl) FROM PostMedia pm WHERE pm.post.id IN :postIds " +
+           "AND pm.sortOrder = (SELECT MIN(pm2.sortOrder) FROM PostMedia pm2 WHERE pm2.post.id = pm.post.id)")
+    List<PostThumbnailDto> findThumbnailsByPostIdIn(@Param("postIds") List<Long> postIds);
+
+    // Image of each country's latest post for one profile owner
+    @Query(value = """
+        SELECT r.country_id AS countryId, r.cloudinary_url AS cloudinaryUrl FROM (
+            SELECT p.country_id, pm.cloudinary_url,
+                   ROW_NUMBER() OVER (PARTITION BY p.country_id ORDER BY p.created_at DESC, pm.sort_order ASC) AS rn
+            FROM post_media pm
+            JOIN post p ON p.id = pm.post_id
+            WHERE p.profile_owner_id = :userId AND pm.media_type = 'IMAGE'
+        ) r
+        WHERE r.rn = 1
+    """, nativeQuery = true)
+    List<CountryImageRow> findLatestImagePerCountryByProfileOwnerId(@Param("userId") Long userId);
+
+    interface CountryImageRow {
+        Long getCountryId();
+        String getCloudinaryUrl();
+    }
     
     @Modifying
     @Query("DELETE FROM PostMedia pm WHERE pm.post.id = :postId")
@@ -6,14 +6,22 @@ import com.sora.backend.model.Post;
 import com.sora.backend.model.UserAccount;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import com.sora.backend.dto.CityPointDto;
+import com.sora.backend.dto.CountryActivityDto;
+import com.sora.backend.dto.CountryCityDto;
 import com.sora.backend.dto.LastActiveCountryDto;
+import com.sora.backend.dto.PostPointDto;
+import com.sora.backend.dto.PostSummaryRowDto;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
@@ -25,31 +33,110 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     Page<Post> findByProfileOwnerIdAndCountryIdOrderByCreatedAtDesc(@Param("profileOwnerId") Long profileOwnerId, @Param("countryId") Long countryId, Pageable pageable);
 
     @Query("SELECT p FROM Post p WHERE p.profileOwner.id = :profileOwnerId AND p.country.id = :countryId ORDER BY p.createdAt DESC")
-    List<Post> findAllByProfileOwnerIdAndCountryIdOrderByCreatedAtDesc(@Param("profileOwnerId") Long profileOwnerId, @Param("countryId") Long countryId);
+    Slice<Post> findSliceByProfileOwnerIdAndCountryId(@Param("profileOwnerId") Long profileOwnerId, @Param("countryId") Long countryId, Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE p.profileOwner.id = :profileOwnerId AND p.country.id = :countryId AND p.collection.id = :collectionId ORDER BY p.createdAt DESC")
+    Slice<Post> findSliceByProfileOwnerIdAndCountryIdAndCollectionId(@Param("profileOwnerId") Long profileOwnerId, @Param("countryId") Long countryId, @Param("collectionId") Long collectionId, Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE p.profileOwner.id = :profileOwnerId AND p.country.id = :countryId AND p.cityName = :cityName ORDER BY p.createdAt DESC")
+    Slice<Post> findSliceByProfileOwnerIdAndCountryIdAndCityName(@Param("profileOwnerId") Long profileOwnerId, @Param("countryId") Long countryId, @Param("cityName") String cityName, Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE p.profileOwner.id = :profileOwnerId AND p.country.id = :countryId AND p.collection.id = :collectionId AND p.cityName = :cityName ORDER BY p.createdAt DESC")
+    Slice<Post> findSliceByProfileOwnerIdAndCountryIdAndCollectionIdAndCityName(@Param("profileOwnerId") Long profileOwnerId, @Param("countryId") Long countryId, @Param("collectionId") Long collectionId, @Param("cityName") String cityName, Pageable pageable);
 
     @Query("SELECT p FROM Post p WHERE p.profileOwner.id = :profileOwnerId AND p.country.id = :countryId AND p.collection.id = :collectionId ORDER BY p.createdAt DESC")
     Page<Post> findByProfileOwnerIdAndCountryIdAndCollectionIdOrderByCreatedAtDesc(@Param("profileOwnerId") Long profileOwnerId, @Param("countryId") Long countryId, @Param("collectionId") Long collectionId, Pageable pageable);
     
+    @Query("SELECT DISTINCT p FROM Post p JOIN FETCH p.author JOIN FETCH p.profileOwner JOIN FETCH p.country LEFT JOIN FETCH p.collection WHERE p.id IN :ids")
+    List<Post> findAllWithAssociationsByIdIn(@Param("ids") List<Long> ids);
+
+    @Query("SELECT new com.sora.backend.dto.PostSummaryRowDto(p.id, p.country.id, p.author.id, p.profileOwner.id, p.cityName, p.cityLatitude, p.cityLongitude, p.likesCount, p.createdAt) " +
+           "FROM Post p WHERE p.id IN :ids ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryRowDto> findSummaryRowsByIdIn(@Param("ids") List<Long> ids);
+
+    @Query(value = "SELECT new com.sora.backend.dto.PostSummaryRowDto(p.id, p.country.id, p.author.id, p.profileOwner.id, p.cityName, p.cityLatitude, p.cityLongitude, p.likesCount, p.createdAt) " +
+                   "FROM Post p WHERE p.profileOwner.id IN :userIds AND p.country.id = :countryId ORDER BY p.createdAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.profileOwner.id IN :userIds AND p.country.id = :countryId")
+    Page<PostSummaryRowDto> findSummaryRowsByProfileOwnerIdsAndCountryId(@Param("userIds") List<Long> userIds, @Param("countryId") Long countryId, Pageable pageable);
+
+    @Query(value = "SELECT new com.sora.backend.dto.PostSummaryRowDto(p.id, p.country.id, p.author.id, p.profileOwner.id, p.cityName, p.cityLatitude, p.cityLongitude, p.likesCount, p.createdAt) " +
+                   "FROM Post p WHERE p.country.id = :countryId AND p.createdAt >= :since ORDER BY p.likesCount DESC, p.createdAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.country.id = :countryId AND p.createdAt >= :since")
+    Page<PostSummaryRowDto> findPopularSummaryRowsByCountryIdSince(@Param("countryId") Long countryId, @Param("since") LocalDateTime since, Pageable pageable);
+
+    @Query("SELECT new com.sora.backend.dto.CountryActivityDto(p.country.id, COUNT(p), MAX(p.createdAt)) FROM Post p WHERE p.createdAt >= :since GROUP BY p.country.id")
+    List<CountryActivityDto> findCountryActivitySince(@Param("since") LocalDateTime since);
+
+    // Newest :limit posts per country across the given users, newest first. Each (user, country) pair
+    // contributes at most :limit candidates, so the ranking stays bounded by countries x :limit rows
+    @Query(value = """
+        SELECT r.id AS id, r.country_id AS countryId, r.author_id AS authorId, r.profile_owner_id AS profileOwnerId,
+               r.city_name AS cityName, r.city_latitude AS cityLatitude, r.city_longitude AS cityLongitude,
+               r.likes_count AS likesCount, r.created_at AS createdAt
+        FROM (
+            SELECT lp.*, ROW_NUMBER() OVER (PARTITION BY lp.country_id ORDER BY lp.created_at DESC, lp.id DESC) AS rn
+            FROM user_country_stats s
+            CROSS JOIN LATERAL (
+                SELECT p.id, p.country_id, p.author_id, p.profile_owner_id, p.city_name, p.city_latitude, p.city_longitude, p.likes_count, p.created_at
+                FROM post p
+                WHERE p.profile_owner_id = s.user_id AND p.country_id = s.country_id
+                ORDER BY p.created_at DESC, p.id DESC
+                LIMIT :limit
+            ) lp
+            WHERE s.user_id IN (:userIds)
+        ) r
+        WHERE r.rn <= :limit
+        ORDER BY r.created_at DESC, r.id DESC
+    """, nativeQuery = true)
+    List<SummaryRow> findLatestSummaryRowsPerCountry(@Param("userIds") List<Long> userIds, @Param("limit") int limit);
+
+    @Query(value = """
+        SELECT r.id FROM (
+            SELECT p.id, ROW_NUMBER() OVER (PARTITION BY p.country_id ORDER BY p.likes_count DESC, p.created_at DESC, p.id DESC) AS rn
+            FROM post p
+            WHERE p.created_at >= :since
+        ) r
+        WHERE r.rn <= :limit
+    """, nativeQuery = true)
+    List<Long> findTopLikedPostIdsPerCountrySince(@Param("since") LocalDateTime since, @Param("limit") int limit);
+
     @Query("SELECT p FROM Post p WHERE p.sharedPostGroupId = :sharedPostGroupId")
     List<Post> findBySharedPostGroupId(@Param("sharedPostGroupId") String sharedPostGroupId);
     
     @Query("SELECT p FROM Post p WHERE p.profileOwner.id IN :userIds ORDER BY p.createdAt DESC")
     Page<Post> findByProfileOwnerIdInOrderByCreatedAtDesc(@Param("userIds") List<Long> userIds, Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE p.profileOwner.id IN :userIds ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findRecentByProfileOwnerIds(@Param("userIds") List<Long> userIds, Pageable pageable);
+
+    @Query("SELECT p FROM Post p WHERE p.profileOwner.id IN :userIds AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findRecentByProfileOwnerIdsBefore(@Param("userIds") List<Long> userIds, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.profileOwner.id IN :userIds")
+    long countByProfileOwnerIds(@Param("userIds") List<Long> userIds);
     
-    @Query("SELECT p FROM Post p WHERE p.country.id = :countryId AND p.createdAt >= :since ORDER BY p.createdAt DESC")
-    List<Post> findByCountryIdAndCreatedAtAfterOrderByCreatedAtDesc(@Param("countryId") Long countryId, @Param("since") LocalDateTime since);
+    @Query("""
+        SELECT p FROM Post p
+        WHERE p.country.id = :countryId
+        AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+        ORDER BY p.createdAt DESC, p.id DESC
+    """)
+    List<Post> findByCountryIdBefore(@Param("countryId") Long countryId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 
     @Query("SELECT COUNT(p) FROM Post p WHERE p.author.id = :authorId")
     long countByAuthorId(@Param("authorId") Long authorId);
     
     @Query("SELECT COUNT(p) FROM Post p WHERE p.profileOwner.id = :profileOwnerId AND p.country.id = :countryId")
     long countByProfileOwnerIdAndCountryId(@Param("profileOwnerId") Long profileOwnerId, @Param("countryId") Long countryId);
-    
-    @Query("SELECT COUNT(DISTINCT p.country) FROM Post p WHERE p.profileOwner.id = :userId")
-    long countDistinctCountriesByProfileOwnerId(@Param("userId") Long userId);
-    
-    @Query("SELECT COUNT(DISTINCT p.cityName) FROM Post p WHERE p.profileOwner.id = :userId")
-    long countDistinctCitiesByProfileOwnerId(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.profileOwner.id = :profileOwnerId AND p.country.id = :countryId AND p.collection.id = :collectionId")
+    long countByProfileOwnerIdAndCountryIdAndCollectionId(@Param("profileOwnerId") Long profileOwnerId, @Param("countryId") Long countryId, @Param("collectionId") Long collectionId);
+
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.profileOwner.id = :profileOwnerId AND p.country.id = :countryId AND p.cityName = :cityName")
+    long countByProfileOwnerIdAndCountryIdAndCityName(@Param("profileOwnerId") Long profileOwnerId, @Param("countryId") Long countryId, @Param("cityName") String cityName);
+
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.profileOwner.id = :profileOwnerId AND p.country.id = :countryId AND p.collection.id = :collectionId AND p.cityName = :cityName")
+    long countByProfileOwnerIdAndCountryIdAndCollectionIdAndCityName(@Param("profileOwnerId") Long profileOwnerId, @Param("countryId") Long countryId, @Param("collectionId") Long collectionId, @Param("cityName") String cityName);
     
     @Query("SELECT c FROM Country c WHERE c.id IN (SELECT DISTINCT p.country.id FROM Post p WHERE p.profileOwner.id = :userId) ORDER BY (SELECT MAX(p2.createdAt) FROM Post p2 WHERE p2.profileOwner.id = :userId AND p2.country.id = c.id) DESC")
     List<Country> findDistinctCountriesByProfileOwnerId(@Param("userId") Long userId);
@@ -63,36 +150,18 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Post p WHERE p.profileOwner.id = :profileOwnerId AND p.country.id = :countryId")
     boolean existsByProfileOwnerIdAndCountryId(@Param("profileOwnerId") Long profileOwnerId, @Param("countryId") Long countryId);
     
-    @Query("SELECT COUNT(p) FROM Post p WHERE p.profileOwner.id = :userId")
-    long countByProfileOwnerId(@Param("userId") Long userId);
-    
-    @Query("SELECT DISTINCT c.code FROM Post p JOIN p.country c WHERE p.profileOwner.id IN (:userId1, :userId2) GROUP BY c.code HAVING COUNT(DISTINCT p.profileOwner.id) = 2")
-    List<String> findCommonCountriesBetweenUsers(@Param("userId1") Long userId1, @Param("userId2") Long userId2);
-    
     @Query("SELECT new com.sora.backend.dto.LastActiveCountryDto(c.code, c.nameKey, MAX(p.createdAt), CAST(COUNT(p) AS int)) FROM Post p JOIN p.country c WHERE p.profileOwner.id = :userId GROUP BY c.code, c.nameKey ORDER BY MAX(p.createdAt) DESC")
     List<LastActiveCountryDto> findLastActiveCountriesByUserId(@Param("userId") Long userId);
     
-    @Query("SELECT p FROM Post p WHERE p.profileOwner.id IN :userIds AND p.createdAt >= :since ORDER BY p.createdAt DESC")
-    List<Post> findRecentPostsByFollowedUsers(@Param("userIds") List<Long> userIds, @Param("since") LocalDateTime since);
-    
     @Query("SELECT p FROM Post p WHERE p.profileOwner.id IN :userIds AND p.country.code = :countryCode AND p.createdAt >= :since ORDER BY p.createdAt DESC")
     Page<Post> findRecentPostsByFollowedUsersInCountry(@Param("userIds") List<Long> userIds, @Param("countryCode") String countryCode, @Param("since") LocalDateTime since, Pageable pageable);
     
-    @Query("SELECT p FROM Post p WHERE p.createdAt >= :since ORDER BY p.createdAt DESC")
-    List<Post> findRecentPostsGlobally(@Param("since") LocalDateTime since);
-    
     @Query("SELECT c FROM Country c JOIN Post p ON p.country.id = c.id WHERE p.createdAt >= :since GROUP BY c.id ORDER BY COUNT(p) DESC")
     List<Country> findMostPopularCountriesByPosts(@Param("since") LocalDateTime since, Pageable pageable);
     
     @Query("SELECT DISTINCT p.cityName FROM Post p WHERE p.profileOwner.id = :userId AND p.country.id = :countryId")
     List<String> findDistinctCitiesByUserAndCountry(@Param("userId") Long userId, @Param("countryId") Long countryId);
     
-    @Query("SELECT COUNT(p) FROM Post p WHERE p.profileOwner.id = :userId AND p.country.id = :countryId AND p.createdAt >= :since")
-    long countByProfileOwnerIdAndCountryIdAndCreatedAtAfter(@Param("userId") Long userId, @Param("countryId") Long countryId, @Param("since") LocalDateTime since);
-    
-    @Query("SELECT p.cityName FROM Post p WHERE p.profileOwner.id = :userId AND p.country.id = :countryId ORDER BY p.createdAt DESC LIMIT 1")
-    String findLastCityVisitedInCountry(@Param("userId") Long userId, @Param("countryId") Long countryId);
-    
     @Query("SELECT p FROM Post p WHERE p.profileOwner.id = :profileOwnerId AND p.country.id = :countryId AND p.collection.id = :collectionId AND p.cityName = :cityName ORDER BY p.createdAt DESC")
     Page<Post> findByProfileOwnerIdAndCountryIdAndCollectionIdAndCityNameOrderByCreatedAtDesc(@Param("profileOwnerId") Long profileOwnerId, @Param("countryId") Long countryId, @Param("collectionId") Long collectionId, @Param("cityName") String cityName, Pageable pageable);
     
@@ -102,9 +171,112 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @Query("SELECT COUNT(p) FROM Post p WHERE p.author.id = :authorId AND p.country.id = :countryId AND p.profileOwner.id = :profileOwnerId AND p.createdAt >= :createdAt")
     long countByAuthorIdAndCountryIdAndProfileOwnerIdAndCreatedAtAfter(@Param("authorId") Long authorId, @Param("countryId") Long countryId, @Param("profileOwnerId") Long profileOwnerId, @Param("createdAt") LocalDateTime createdAt);
 
-    @Query("SELECT pm.cloudinaryUrl FROM PostMedia pm JOIN pm.post p WHERE p.profileOwner.id = :userId AND p.country.id = :countryId AND pm.mediaType = 'IMAGE' ORDER BY p.createdAt DESC, pm.sortOrder ASC LIMIT 1")
-    String findLatestPostImageUrlByUserAndCountry(@Param("userId") Long userId, @Param("countryId") Long countryId);
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.likesCount = GREATEST(p.likesCount + :likesDelta, 0), p.commentsCount = GREATEST(p.commentsCount + :commentsDelta, 0) WHERE p.id = :postId")
+    int applyCounterDeltas(@Param("postId") Long postId, @Param("likesDelta") int likesDelta, @Param("commentsDelta") int commentsDelta);
+
+    @Query(value = """
+        SELECT p.id AS id, p.created_at AS createdAt,
+               (:likeWeight * p.likes_count + :commentWeight * p.comments_count + 1)
+                   / POWER(GREATEST(EXTRACT(EPOCH FROM (NOW() - p.created_at)) / 3600.0, 0) + 2, :gravity) AS score
+        FROM post p
+        WHERE p.created_at >= :cutoffDate
+        ORDER BY score DESC, p.created_at DESC, p.id DESC
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<TrendingScoreRow> findTopTrendingScores(@Param("cutoffDate") LocalDateTime cutoffDate, @Param("likeWeight") double likeWeight, @Param("commentWeight") double commentWeight, @Param("gravity") double gravity, @Param("limit") int limit);
+
+    // Everything a trending snapshot left out, newest first, strictly after (createdAt, id)
+    @Query(value = """
+        SELECT p.* FROM post p
+        WHERE p.created_at >= :cutoffDate
+          AND p.id NOT IN (:excludedIds)
+          AND (p.created_at < :createdAt OR (p.created_at = :createdAt AND p.id < :id))
+        ORDER BY p.created_at DESC, p.id DESC
+        LIMIT :limit OFFSET :offset
+    """, nativeQuery = true)
+    List<Post> findTrendingTail(@Param("cutoffDate") LocalDateTime cutoffDate, @Param("excludedIds") List<Long> excludedIds, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, @Param("offset") long offset, @Param("limit") int limit);
+
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.createdAt >= :cutoffDate")
+    long countByCreatedAtSince(@Param("cutoffDate") LocalDateTime cutoffDate);
+
+    @Query(value = """
+        SELECT c.code AS countryCode, p.profile_owner_id AS userId,
+               CAST(CAST(p.created_at AS date) - DATE '1970-01-01' AS bigint) AS epochDay, COUNT(*) AS postCount
+        FROM post p
+        JOIN country c ON c.id = p.country_id
+        WHERE p.created_at >= :since
+        GROUP BY c.code, p.profile_owner_id, CAST(p.created_at AS date)
+    """, nativeQuery = true)
+    List<DailyPostActivityRow> findDailyPostActivitySince(@Param("since") LocalDateTime since);
+
+    // Every country a profile owner posted in, newest first, with its aggregates in one pass
+    @Query(value = """
+        SELECT r.country_id AS countryId,
+               COUNT(*) AS postCount,
+               COUNT(DISTINCT r.city_name) AS cityCount,
+               MIN(r.created_at) AS firstPostAt,
+               MAX(r.created_at) AS lastPostAt,
+               MAX(r.city_name) FILTER (WHERE r.rn = 1) AS lastCity,
+               COUNT(*) FILTER (WHERE r.created_at >= r.last_post_at - INTERVAL '30 days') AS recentPostsCount
+        FROM (
+            SELECT p.country_id, p.city_name, p.created_at,
+                   ROW_NUMBER() OVER (PARTITION BY p.country_id ORDER BY p.created_at DESC, p.id DESC) AS rn,
+                   MAX(p.created_at) OVER (PARTITION BY p.country_id) AS last_post_at
+            FROM post p
+            WHERE p.profile_owner_id = :userId
+        ) r
+        GROUP BY r.country_id
+        ORDER BY MAX(r.created_at) DESC
+    """, nativeQuery = true)
+    List<CountryVisitRow> findCountryVisitsByProfileOwnerId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.sora.backend.dto.CityPointDto(p.cityName, p.country.code, COUNT(p), AVG(p.cityLatitude), AVG(p.cityLongitude)) FROM Post p " +
+           "WHERE p.cityLatitude BETWEEN :minLat AND :maxLat AND p.cityLongitude BETWEEN :minLng AND :maxLng " +
+           "GROUP BY p.cityName, p.country.code")
+    List<CityPointDto> findCityPointsInBox(@Param("minLat") double minLat, @Param("minLng") double minLng, @Param("maxLat") double maxLat, @Param("maxLng") double maxLng);
+
+    @Query("SELECT new com.sora.backend.dto.PostPointDto(p.id, p.cityName, p.country.code, p.cityLatitude, p.cityLongitude) FROM Post p " +
+           "WHERE p.cityLatitude BETWEEN :minLat AND :maxLat AND p.cityLongitude BETWEEN :minLng AND :maxLng " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostPointDto> findPostPointsInBox(@Param("minLat") double minLat, @Param("minLng") double minLng, @Param("maxLat") double maxLat, @Param("maxLng") double maxLng, Pageable pageable);
+
+    @Query("SELECT DISTINCT new com.sora.backend.dto.CountryCityDto(p.country.id, p.cityName) FROM Post p WHERE p.profileOwner.id = :userId")
+    List<CountryCityDto> findDistinctCitiesByProfileOwnerId(@Param("userId") Long userId);
+
+    interface CountryVisitRow {
+        Long getCountryId();
+        Long getPostCount();
+        Long getCityCount();
+        LocalDateTime getFirstPostAt();
+        LocalDateTime getLastPostAt();
+        String getLastCity();
+        Long getRecentPostsCount();
+    }
+
+    interface DailyPostActivityRow {
+        String getCountryCode();
+        Long getUserId();
+        Long getEpochDay();
+        Long getPostCount();
+    }
+
+    interface SummaryRow {
+        Long getId();
+        Long getCountryId();
+        Long getAuthorId();
+        Long getProfileOwnerId();
+        String getCityName();
+        Double getCityLatitude();
+        Double getCityLongitude();
+        Integer getLikesCount();
+        LocalDateTime getCreatedAt();
+    }
 
-    @Query("SELECT p FROM Post p WHERE p.createdAt >= :cutoffDate ORDER BY (SIZE(p.likes) + SIZE(p.comments)) DESC, p.createdAt DESC")
-    Page<Post> findTrendingPosts(@Param("cutoffDate") LocalDateTime cutoffDate, Pageable pageable);
-}
\ No newline at end of file
+    interface TrendingScoreRow {
+        Long getId();
+        LocalDateTime getCreatedAt();
+        Double getScore();
+    }
+}
@@ -29,6 +29,9 @@ public interface TravelPermissionRepository extends JpaRepository<TravelPermissi
     @Query("SELECT CASE WHEN COUNT(tp) > 0 THEN true ELSE false END FROM TravelPermission tp WHERE tp.grantee.id = :granteeId AND tp.country.id = :countryId AND tp.status = :status")
     boolean existsByGranteeIdAndCountryIdAndStatus(@Param("granteeId") Long granteeId, @Param("countryId") Long countryId, @Param("status") TravelPermissionStatus status);
     
+    @Query("SELECT tp FROM TravelPermission tp JOIN FETCH tp.grantee WHERE tp.grantor.id = :grantorId AND tp.status = :status")
+    List<TravelPermission> findWithGranteeByGrantorIdAndStatus(@Param("grantorId") Long grantorId, @Param("status") TravelPermissionStatus status);
+    
     @Query("SELECT tp FROM TravelPermission tp WHERE tp.grantor.id = :grantorId AND tp.country.id = :countryId AND tp.status = :status")
     List<TravelPermission> findByGrantorIdAndCountryIdAndStatus(@Param("grantorId") Long grantorId, @Param("countryId") Long countryId, @Param("status") TravelPermissionStatus status);
 
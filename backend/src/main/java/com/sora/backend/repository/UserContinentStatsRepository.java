@@ -0,0 +1,60 @@
+package com.sora.backend.repository;
+
+import com.sora.backend.model.UserContinentStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserContinentStatsRepository extends JpaRepository<UserContinentStats, Long> {
+
+    List<UserContinentStats> findByUserId(Long userId);
+
+    // Incremental path for a new post; the country counts only on the owner's first post there
+    @Modifying
+    @Query(value = "INSERT INTO user_continent_stats (user_id, continent_code, countries_visited, posts_count, created_at, updated_at) " +
+                   "SELECT :userId, c.continent_code, " +
+                   "CASE WHEN EXISTS (SELECT 1 FROM post p WHERE p.profile_owner_id = :userId AND p.country_id = :countryId AND p.id <> :postId) THEN 0 ELSE 1 END, " +
+                   "1, NOW(), NOW() FROM country c WHERE c.id = :countryId AND c.continent_code IS NOT NULL " +
+                   "ON CONFLICT (user_id, continent_code) DO UPDATE SET " +
+                   "countries_visited = user_continent_stats.countries_visited + EXCLUDED.countries_visited, " +
+                   "posts_count = user_continent_stats.posts_count + 1, updated_at = NOW()", nativeQuery = true)
+    int recordPost(@Param("userId") Long userId, @Param("countryId") Long countryId, @Param("postId") Long postId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_continent_stats WHERE user_id = :userId", nativeQuery = true)
+    int deleteByUser(@Param("userId") Long userId);
+
+    // Recomputes one user's rows after deleteByUser, so continents left without posts disappear
+    @Modifying
+    @Query(value = "INSERT INTO user_continent_stats (user_id, continent_code, countries_visited, posts_count, created_at, updated_at) " +
+                   "SELECT :userId, c.continent_code, COUNT(DISTINCT p.country_id), COUNT(*), NOW(), NOW() " +
+                   "FROM post p JOIN country c ON c.id = p.country_id " +
+                   "WHERE p.profile_owner_id = :userId AND c.continent_code IS NOT NULL " +
+                   "GROUP BY c.continent_code", nativeQuery = true)
+    int insertForUser(@Param("userId") Long userId);
+
+    // Repair job: same pass as the V22 backfill, writing only the rows that drifted
+    @Modifying
+    @Query(value = "INSERT INTO user_continent_stats (user_id, continent_code, countries_visited, posts_count, created_at, updated_at) " +
+                   "SELECT f.user_id, f.continent_code, f.countries_visited, f.posts_count, NOW(), NOW() " +
+                   "FROM (SELECT p.profile_owner_id AS user_id, c.continent_code, COUNT(DISTINCT p.country_id) AS countries_visited, COUNT(*) AS posts_count " +
+                   "FROM post p JOIN country c ON c.id = p.country_id " +
+                   "WHERE c.continent_code IS NOT NULL " +
+                   "GROUP BY p.profile_owner_id, c.continent_code) f " +
+                   "LEFT JOIN user_continent_stats s ON s.user_id = f.user_id AND s.continent_code = f.continent_code " +
+                   "WHERE s.id IS NULL OR s.countries_visited <> f.countries_visited OR s.posts_count <> f.posts_count " +
+                   "ON CONFLICT (user_id, continent_code) DO UPDATE SET " +
+                   "countries_visited = EXCLUDED.countries_visited, posts_count = EXCLUDED.posts_count, updated_at = NOW()", nativeQuery = true)
+    int upsertChangedRows();
+
+    // Repair job: continents the user no longer has posts in
+    @Modifying
+    @Query(value = "DELETE FROM user_continent_stats s WHERE NOT EXISTS (SELECT 1 FROM post p JOIN country c ON c.id = p.country_id " +
+                   "WHERE p.profile_owner_id = s.user_id AND c.continent_code = s.continent_code)", nativeQuery = true)
+    int deleteEmptyRows();
+}
@@ -0,0 +1,57 @@
+package com.sora.backend.repository;
+
+import com.sora.backend.model.UserCountryStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserCountryStatsRepository extends JpaRepository<UserCountryStats, Long> {
+
+    @Query("SELECT s FROM UserCountryStats s JOIN FETCH s.country WHERE s.user.id = :userId ORDER BY s.lastPostAt DESC")
+    List<UserCountryStats> findByUserIdOrderByLastPostAtDesc(@Param("userId") Long userId);
+
+    @Query("SELECT s FROM UserCountryStats s JOIN FETCH s.country JOIN FETCH s.user WHERE s.user.id IN :userIds ORDER BY s.lastPostAt DESC")
+    List<UserCountryStats> findByUserIdIn(@Param("userIds") List<Long> userIds);
+
+    // Incremental path for a new post; the city counts only if no other post of the owner in this country has it
+    @Modifying
+    @Query(value = "INSERT INTO user_country_stats (user_id, country_id, post_count, city_count, first_post_at, last_post_at, latest_post_id, created_at, updated_at) " +
+                   "VALUES (:userId, :countryId, 1, CASE WHEN CAST(:cityName AS VARCHAR) IS NULL THEN 0 ELSE 1 END, :createdAt, :createdAt, :postId, NOW(), NOW()) " +
+                   "ON CONFLICT (user_id, country_id) DO UPDATE SET " +
+                   "post_count = user_country_stats.post_count + 1, " +
+                   "city_count = user_country_stats.city_count + CASE WHEN CAST(:cityName AS VARCHAR) IS NULL OR EXISTS (SELECT 1 FROM post p WHERE p.profile_owner_id = :userId " +
+                   "AND p.country_id = :countryId AND p.city_name IS NOT DISTINCT FROM :cityName AND p.id <> :postId) THEN 0 ELSE 1 END, " +
+                   "first_post_at = LEAST(user_country_stats.first_post_at, EXCLUDED.first_post_at), " +
+                   "last_post_at = GREATEST(user_country_stats.last_post_at, EXCLUDED.last_post_at), " +
+                   "latest_post_id = CASE WHEN user_country_stats.last_post_at IS NULL OR EXCLUDED.last_post_at >= user_country_stats.last_post_at " +
+                   "THEN EXCLUDED.latest_post_id ELSE user_country_stats.latest_post_id END, " +
+                   "latest_thumbnail_url = CASE WHEN user_country_stats.last_post_at IS NULL OR EXCLUDED.last_post_at >= user_country_stats.last_post_at " +
+                   "THEN NULL ELSE user_country_stats.latest_thumbnail_url END, " +
+                   "updated_at = NOW()", nativeQuery = true)
+    int recordPost(@Param("userId") Long userId, @Param("countryId") Long countryId, @Param("postId") Long postId, @Param("cityName") String cityName, @Param("createdAt") LocalDateTime createdAt);
+
+    // Full recompute of one (user, country) row, used when a post is removed or its media changes; the thumbnail is the latest post's first media
+    @Modifying
+    @Query(value = "INSERT INTO user_country_stats (user_id, country_id, post_count, city_count, first_post_at, last_post_at, latest_post_id, latest_thumbnail_url, created_at, updated_at) " +
+                   "SELECT p.profile_owner_id, p.country_id, COUNT(*), COUNT(DISTINCT p.city_name), MIN(p.created_at), MAX(p.created_at), lp.id, " +
+                   "(SELECT pm.cloudinary_url FROM post_media pm WHERE pm.post_id = lp.id ORDER BY pm.sort_order ASC LIMIT 1), NOW(), NOW() " +
+                   "FROM post p CROSS JOIN LATERAL (SELECT l.id FROM post l WHERE l.profile_owner_id = :userId AND l.country_id = :countryId " +
+                   "ORDER BY l.created_at DESC, l.id DESC LIMIT 1) lp " +
+                   "WHERE p.profile_owner_id = :userId AND p.country_id = :countryId GROUP BY p.profile_owner_id, p.country_id, lp.id " +
+                   "ON CONFLICT (user_id, country_id) DO UPDATE SET " +
+                   "post_count = EXCLUDED.post_count, city_count = EXCLUDED.city_count, first_post_at = EXCLUDED.first_post_at, " +
+                   "last_post_at = EXCLUDED.last_post_at, latest_post_id = EXCLUDED.latest_post_id, " +
+                   "latest_thumbnail_url = EXCLUDED.latest_thumbnail_url, updated_at = NOW()", nativeQuery = true)
+    int refresh(@Param("userId") Long userId, @Param("countryId") Long countryId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_country_stats s WHERE s.user_id = :userId AND s.country_id = :countryId " +
+                   "AND NOT EXISTS (SELECT 1 FROM post p WHERE p.profile_owner_id = :userId AND p.country_id = :countryId)", nativeQuery = true)
+    int deleteIfEmpty(@Param("userId") Long userId, @Param("countryId") Long countryId);
+}
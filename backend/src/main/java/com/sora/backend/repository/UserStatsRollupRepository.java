@@ -0,0 +1,115 @@
+package com.sora.backend.repository;
+
+import com.sora.backend.model.UserStatsRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserStatsRollupRepository extends JpaRepository<UserStatsRollup, Long> {
+
+    // Same shape as UserTravelStatsRepository.findLeaderboard, scored by summing the buckets since :since
+    @Query(value = """
+        SELECT r.user_id AS userId, r.score AS score, r.position AS position, r.countries_count AS countriesCount
+        FROM (
+            SELECT scored.*, ROW_NUMBER() OVER (ORDER BY scored.score DESC, scored.user_id) AS position
+            FROM (
+                SELECT u.id AS user_id,
+                       CAST(COALESCE(b.score, 0) AS INTEGER) AS score,
+                       COALESCE(s.countries_count, 0) AS countries_count
+                FROM user_account u
+                LEFT JOIN user_travel_stats s ON s.user_id = u.id
+                LEFT JOIN (
+                    SELECT a.user_id,
+                           SUM(CASE CAST(:metric AS text)
+                                   WHEN 'countries' THEN a.new_countries_count
+                                   WHEN 'cities' THEN a.new_cities_count
+                                   WHEN 'posts' THEN a.posts_count
+                                   ELSE 0 END) AS score
+                    FROM user_stats_rollup a
+                    WHERE a.user_id IN (:userIds) AND a.granularity = :granularity AND a.bucket_start >= :since
+                    GROUP BY a.user_id
+                ) b ON b.user_id = u.id
+                WHERE u.id IN (:userIds)
+            ) scored
+        ) r
+        WHERE r.position <= :limit OR r.user_id = :currentUserId
+        ORDER BY r.position
+        """, nativeQuery = true)
+    List<UserTravelStatsRepository.LeaderboardRow> findLeaderboard(@Param("userIds") List<Long> userIds, @Param("metric") String metric, @Param("granularity") String granularity,
+                                                                   @Param("since") LocalDate since, @Param("currentUserId") Long currentUserId, @Param("limit") int limit);
+
+    // Incremental path for a new post; adds to its day and month buckets, with the country or city new only on the owner's first post there
+    @Modifying
+    @Query(value = "INSERT INTO user_stats_rollup (user_id, granularity, bucket_start, posts_count, new_countries_count, new_cities_count, created_at, updated_at) " +
+                   "SELECT :userId, g.granularity, CAST(date_trunc(g.unit, CAST(:createdAt AS timestamp)) AS DATE), 1, " +
+                   "CASE WHEN EXISTS (SELECT 1 FROM post p WHERE p.profile_owner_id = :userId AND p.country_id = :countryId AND p.id <> :postId) THEN 0 ELSE 1 END, " +
+                   "CASE WHEN CAST(:cityName AS VARCHAR) IS NULL OR EXISTS (SELECT 1 FROM post p WHERE p.profile_owner_id = :userId " +
+                   "AND p.city_name IS NOT DISTINCT FROM :cityName AND p.id <> :postId) THEN 0 ELSE 1 END, " +
+                   "NOW(), NOW() " +
+                   "FROM (VALUES ('DAY', 'day'), ('MONTH', 'month')) AS g(granularity, unit) " +
+                   "ON CONFLICT (user_id, granularity, bucket_start) DO UPDATE SET " +
+                   "posts_count = user_stats_rollup.posts_count + EXCLUDED.posts_count, " +
+                   "new_countries_count = user_stats_rollup.new_countries_count + EXCLUDED.new_countries_count, " +
+                   "new_cities_count = user_stats_rollup.new_cities_count + EXCLUDED.new_cities_count, " +
+                   "updated_at = NOW()", nativeQuery = true)
+    int recordPost(@Param("userId") Long userId, @Param("countryId") Long countryId, @Param("postId") Long postId, @Param("cityName") String cityName, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_stats_rollup WHERE user_id = :userId", nativeQuery = true)
+    int deleteByUser(@Param("userId") Long userId);
+
+    // Recomputes one user's buckets; a delete can move a first visit into a later bucket, so it runs after deleteByUser
+    @Modifying
+    @Query(value = "INSERT INTO user_stats_rollup (user_id, granularity, bucket_start, posts_count, new_countries_count, new_cities_count, created_at, updated_at) " +
+                   "SELECT :userId, g.granularity, CAST(date_trunc(g.unit, p.created_at) AS DATE), COUNT(*), " +
+                   "COUNT(*) FILTER (WHERE p.country_rank = 1), COUNT(*) FILTER (WHERE p.city_rank = 1 AND p.city_name IS NOT NULL), NOW(), NOW() " +
+                   "FROM (SELECT created_at, city_name, " +
+                   "ROW_NUMBER() OVER (PARTITION BY country_id ORDER BY created_at, id) AS country_rank, " +
+                   "ROW_NUMBER() OVER (PARTITION BY city_name ORDER BY created_at, id) AS city_rank " +
+                   "FROM post WHERE profile_owner_id = :userId) p " +
+                   "CROSS JOIN (VALUES ('DAY', 'day'), ('MONTH', 'month')) AS g(granularity, unit) " +
+                   "GROUP BY g.granularity, CAST(date_trunc(g.unit, p.created_at) AS DATE)", nativeQuery = true)
+    int insertForUser(@Param("userId") Long userId);
+
+    // Repair job: recomputes the buckets still inside retention and writes only the ones that drifted.
+    // A country or city is new in the bucket holding the owner's first post there, as in the V20 backfill
+    @Modifying
+    @Query(value = "INSERT INTO user_stats_rollup (user_id, granularity, bucket_start, posts_count, new_countries_count, new_cities_count, created_at, updated_at) " +
+                   "SELECT f.user_id, f.granularity, f.bucket_start, f.posts_count, f.new_countries_count, f.new_cities_count, NOW(), NOW() " +
+                   "FROM (SELECT p.profile_owner_id AS user_id, g.granularity, CAST(date_trunc(g.unit, p.created_at) AS DATE) AS bucket_start, COUNT(*) AS posts_count, " +
+                   "COUNT(*) FILTER (WHERE p.first_country) AS new_countries_count, COUNT(*) FILTER (WHERE p.first_city) AS new_cities_count " +
+                   "FROM (SELECT r.profile_owner_id, r.created_at, " +
+                   "NOT EXISTS (SELECT 1 FROM post q WHERE q.profile_owner_id = r.profile_owner_id AND q.country_id = r.country_id AND (q.created_at, q.id) < (r.created_at, r.id)) AS first_country, " +
+                   "r.city_name IS NOT NULL AND NOT EXISTS (SELECT 1 FROM post q WHERE q.profile_owner_id = r.profile_owner_id AND q.city_name = r.city_name AND (q.created_at, q.id) < (r.created_at, r.id)) AS first_city " +
+                   "FROM post r WHERE r.created_at >= LEAST(CAST(:dayCutoff AS timestamp), CAST(:monthCutoff AS timestamp))) p " +
+                   "CROSS JOIN (VALUES ('DAY', 'day'), ('MONTH', 'month')) AS g(granularity, unit) " +
+                   "WHERE p.created_at >= CASE g.granularity WHEN 'DAY' THEN CAST(:dayCutoff AS timestamp) ELSE CAST(:monthCutoff AS timestamp) END " +
+                   "GROUP BY p.profile_owner_id, g.granularity, CAST(date_trunc(g.unit, p.created_at) AS DATE)) f " +
+                   "LEFT JOIN user_stats_rollup b ON b.user_id = f.user_id AND b.granularity = f.granularity AND b.bucket_start = f.bucket_start " +
+                   "WHERE b.id IS NULL OR b.posts_count <> f.posts_count OR b.new_countries_count <> f.new_countries_count OR b.new_cities_count <> f.new_cities_count " +
+                   "ON CONFLICT (user_id, granularity, bucket_start) DO UPDATE SET " +
+                   "posts_count = EXCLUDED.posts_count, new_countries_count = EXCLUDED.new_countries_count, " +
+                   "new_cities_count = EXCLUDED.new_cities_count, updated_at = NOW()", nativeQuery = true)
+    int upsertRecentBuckets(@Param("dayCutoff") LocalDate dayCutoff, @Param("monthCutoff") LocalDate monthCutoff);
+
+    // Repair job: buckets inside retention whose posts were all deleted or moved
+    @Modifying
+    @Query(value = "DELETE FROM user_stats_rollup b WHERE ((b.granularity = 'DAY' AND b.bucket_start >= :dayCutoff) " +
+                   "OR (b.granularity = 'MONTH' AND b.bucket_start >= :monthCutoff)) " +
+                   "AND NOT EXISTS (SELECT 1 FROM post p WHERE p.profile_owner_id = b.user_id AND p.created_at >= b.bucket_start " +
+                   "AND p.created_at < b.bucket_start + CASE b.granularity WHEN 'DAY' THEN INTERVAL '1 day' ELSE INTERVAL '1 month' END)", nativeQuery = true)
+    int deleteEmptyRecentBuckets(@Param("dayCutoff") LocalDate dayCutoff, @Param("monthCutoff") LocalDate monthCutoff);
+
+    // Day buckets only serve the week and month windows, month buckets the year window
+    @Modifying
+    @Query(value = "DELETE FROM user_stats_rollup WHERE (granularity = 'DAY' AND bucket_start < :dayCutoff) " +
+                   "OR (granularity = 'MONTH' AND bucket_start < :monthCutoff)", nativeQuery = true)
+    int deleteExpired(@Param("dayCutoff") LocalDate dayCutoff, @Param("monthCutoff") LocalDate monthCutoff);
+}
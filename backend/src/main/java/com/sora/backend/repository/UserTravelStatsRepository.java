@@ -0,0 +1,144 @@
+package com.sora.backend.repository;
+
+import com.sora.backend.model.UserTravelStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserTravelStatsRepository extends JpaRepository<UserTravelStats, Long> {
+
+    Optional<UserTravelStats> findByUserId(Long userId);
+
+    List<UserTravelStats> findByUserIdIn(List<Long> userIds);
+
+    // Top :limit of the set by one metric, plus the current user's row wherever it ranks
+    @Query(value = """
+        SELECT r.user_id AS userId, r.score AS score, r.position AS position, r.countries_count AS countriesCount
+        FROM (
+            SELECT scored.*, ROW_NUMBER() OVER (ORDER BY scored.score DESC, scored.user_id) AS position
+            FROM (
+                SELECT u.id AS user_id,
+                       CASE CAST(:metric AS text)
+                           WHEN 'countries' THEN COALESCE(s.countries_count, 0)
+                           WHEN 'cities' THEN COALESCE(s.cities_count, 0)
+                           WHEN 'posts' THEN COALESCE(s.posts_count, 0)
+                           ELSE 0 END AS score,
+                       COALESCE(s.countries_count, 0) AS countries_count
+                FROM user_account u
+                LEFT JOIN user_travel_stats s ON s.user_id = u.id
+                WHERE u.id IN (:userIds)
+            ) scored
+        ) r
+        WHERE r.position <= :limit OR r.user_id = :currentUserId
+        ORDER BY r.position
+        """, nativeQuery = true)
+    List<LeaderboardRow> findLeaderboard(@Param("userIds") List<Long> userIds, @Param("metric") String metric, @Param("currentUserId") Long currentUserId, @Param("limit") int limit);
+
+    // RANK() of a user within a set: one plus the members scoring strictly higher
+    @Query(value = """
+        SELECT 1 + COUNT(*) FILTER (WHERE COALESCE(s.countries_count, 0) > :countries) AS countriesRank,
+               1 + COUNT(*) FILTER (WHERE COALESCE(s.posts_count, 0) > :posts) AS postsRank
+        FROM user_account u
+        LEFT JOIN user_travel_stats s ON s.user_id = u.id
+        WHERE u.id IN (:userIds) AND u.id <> :userId
+        """, nativeQuery = true)
+    RankRow findRanks(@Param("userIds") List<Long> userIds, @Param("userId") Long userId, @Param("countries") int countries, @Param("posts") int posts);
+
+    // Incremental path for a new post; countries and cities count on the owner's first post there, the country also sets its mask bit
+    @Modifying
+    @Query(value = "INSERT INTO user_travel_stats (user_id, countries_count, cities_count, posts_count, likes_received, comments_received, countries_mask_0, countries_mask_1, countries_mask_2, countries_mask_3, created_at, updated_at) " +
+                   "SELECT :userId, 1, CASE WHEN CAST(:cityName AS VARCHAR) IS NULL THEN 0 ELSE 1 END, 1, 0, 0, " +
+                   "CASE WHEN c.bit_index / 64 = 0 THEN CAST(1 AS BIGINT) << (c.bit_index % 64) ELSE 0 END, " +
+                   "CASE WHEN c.bit_index / 64 = 1 THEN CAST(1 AS BIGINT) << (c.bit_index % 64) ELSE 0 END, " +
+                   "CASE WHEN c.bit_index / 64 = 2 THEN CAST(1 AS BIGINT) << (c.bit_index % 64) ELSE 0 END, " +
+                   "CASE WHEN c.bit_index / 64 = 3 THEN CAST(1 AS BIGINT) << (c.bit_index % 64) ELSE 0 END, " +
+                   "NOW(), NOW() FROM country c WHERE c.id = :countryId " +
+                   "ON CONFLICT (user_id) DO UPDATE SET " +
+                   "posts_count = user_travel_stats.posts_count + 1, " +
+                   "countries_count = user_travel_stats.countries_count + CASE WHEN EXISTS (SELECT 1 FROM post p WHERE p.profile_owner_id = :userId " +
+                   "AND p.country_id = :countryId AND p.id <> :postId) THEN 0 ELSE 1 END, " +
+                   "cities_count = user_travel_stats.cities_count + CASE WHEN CAST(:cityName AS VARCHAR) IS NULL OR EXISTS (SELECT 1 FROM post p WHERE p.profile_owner_id = :userId " +
+                   "AND p.city_name IS NOT DISTINCT FROM :cityName AND p.id <> :postId) THEN 0 ELSE 1 END, " +
+                   "countries_mask_0 = user_travel_stats.countries_mask_0 | EXCLUDED.countries_mask_0, " +
+                   "countries_mask_1 = user_travel_stats.countries_mask_1 | EXCLUDED.countries_mask_1, " +
+                   "countries_mask_2 = user_travel_stats.countries_mask_2 | EXCLUDED.countries_mask_2, " +
+                   "countries_mask_3 = user_travel_stats.countries_mask_3 | EXCLUDED.countries_mask_3, " +
+                   "updated_at = NOW()", nativeQuery = true)
+    int recordPost(@Param("userId") Long userId, @Param("countryId") Long countryId, @Param("postId") Long postId, @Param("cityName") String cityName);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_travel_stats (user_id, countries_count, cities_count, posts_count, likes_received, comments_received, created_at, updated_at) " +
+                   "VALUES (:userId, 0, 0, 0, GREATEST(:delta, 0), 0, NOW(), NOW()) " +
+                   "ON CONFLICT (user_id) DO UPDATE SET likes_received = GREATEST(user_travel_stats.likes_received + :delta, 0), updated_at = NOW()", nativeQuery = true)
+    int addLikesReceived(@Param("userId") Long userId, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_travel_stats (user_id, countries_count, cities_count, posts_count, likes_received, comments_received, created_at, updated_at) " +
+                   "VALUES (:userId, 0, 0, 0, 0, GREATEST(:delta, 0), NOW(), NOW()) " +
+                   "ON CONFLICT (user_id) DO UPDATE SET comments_received = GREATEST(user_travel_stats.comments_received + :delta, 0), updated_at = NOW()", nativeQuery = true)
+    int addCommentsReceived(@Param("userId") Long userId, @Param("delta") int delta);
+
+    // Full recompute of one user's row, used when a post and its likes and comments are removed
+    @Modifying
+    @Query(value = "INSERT INTO user_travel_stats (user_id, countries_count, cities_count, posts_count, likes_received, comments_received, countries_mask_0, countries_mask_1, countries_mask_2, countries_mask_3, created_at, updated_at) " +
+                   "SELECT :userId, " +
+                   "(SELECT COUNT(DISTINCT p.country_id) FROM post p WHERE p.profile_owner_id = :userId), " +
+                   "(SELECT COUNT(DISTINCT p.city_name) FROM post p WHERE p.profile_owner_id = :userId), " +
+                   "(SELECT COUNT(*) FROM post p WHERE p.profile_owner_id = :userId), " +
+                   "(SELECT COUNT(*) FROM like_post lp JOIN post p ON p.id = lp.post_id WHERE p.author_id = :userId), " +
+                   "(SELECT COUNT(*) FROM comment c JOIN post p ON p.id = c.post_id WHERE p.author_id = :userId), " +
+                   "m.mask_0, m.mask_1, m.mask_2, m.mask_3, NOW(), NOW() " +
+                   "FROM (SELECT COALESCE(BIT_OR(CASE WHEN c.bit_index / 64 = 0 THEN CAST(1 AS BIGINT) << (c.bit_index % 64) ELSE 0 END), 0) AS mask_0, " +
+                   "COALESCE(BIT_OR(CASE WHEN c.bit_index / 64 = 1 THEN CAST(1 AS BIGINT) << (c.bit_index % 64) ELSE 0 END), 0) AS mask_1, " +
+                   "COALESCE(BIT_OR(CASE WHEN c.bit_index / 64 = 2 THEN CAST(1 AS BIGINT) << (c.bit_index % 64) ELSE 0 END), 0) AS mask_2, " +
+                   "COALESCE(BIT_OR(CASE WHEN c.bit_index / 64 = 3 THEN CAST(1 AS BIGINT) << (c.bit_index % 64) ELSE 0 END), 0) AS mask_3 " +
+                   "FROM post p JOIN country c ON c.id = p.country_id WHERE p.profile_owner_id = :userId) m " +
+                   "ON CONFLICT (user_id) DO UPDATE SET " +
+                   "countries_count = EXCLUDED.countries_count, cities_count = EXCLUDED.cities_count, posts_count = EXCLUDED.posts_count, " +
+                   "likes_received = EXCLUDED.likes_received, comments_received = EXCLUDED.comments_received, " +
+                   "countries_mask_0 = EXCLUDED.countries_mask_0, countries_mask_1 = EXCLUDED.countries_mask_1, " +
+                   "countries_mask_2 = EXCLUDED.countries_mask_2, countries_mask_3 = EXCLUDED.countries_mask_3, updated_at = NOW()", nativeQuery = true)
+    int refresh(@Param("userId") Long userId);
+
+    // Repair job: recomputes every user's row with one grouped pass per source table
+    @Modifying
+    @Query(value = "INSERT INTO user_travel_stats (user_id, countries_count, cities_count, posts_count, likes_received, comments_received, countries_mask_0, countries_mask_1, countries_mask_2, countries_mask_3, created_at, updated_at) " +
+                   "SELECT u.id, COALESCE(p.countries_count, 0), COALESCE(p.cities_count, 0), COALESCE(p.posts_count, 0), " +
+                   "COALESCE(l.likes_received, 0), COALESCE(c.comments_received, 0), " +
+                   "COALESCE(p.mask_0, 0), COALESCE(p.mask_1, 0), COALESCE(p.mask_2, 0), COALESCE(p.mask_3, 0), NOW(), NOW() " +
+                   "FROM user_account u " +
+                   "LEFT JOIN (SELECT owned.profile_owner_id, COUNT(DISTINCT owned.country_id) AS countries_count, COUNT(DISTINCT owned.city_name) AS cities_count, COUNT(*) AS posts_count, " +
+                   "BIT_OR(CASE WHEN oc.bit_index / 64 = 0 THEN CAST(1 AS BIGINT) << (oc.bit_index % 64) ELSE 0 END) AS mask_0, " +
+                   "BIT_OR(CASE WHEN oc.bit_index / 64 = 1 THEN CAST(1 AS BIGINT) << (oc.bit_index % 64) ELSE 0 END) AS mask_1, " +
+                   "BIT_OR(CASE WHEN oc.bit_index / 64 = 2 THEN CAST(1 AS BIGINT) << (oc.bit_index % 64) ELSE 0 END) AS mask_2, " +
+                   "BIT_OR(CASE WHEN oc.bit_index / 64 = 3 THEN CAST(1 AS BIGINT) << (oc.bit_index % 64) ELSE 0 END) AS mask_3 " +
+                   "FROM post owned JOIN country oc ON oc.id = owned.country_id GROUP BY owned.profile_owner_id) p ON p.profile_owner_id = u.id " +
+                   "LEFT JOIN (SELECT lp_post.author_id, COUNT(*) AS likes_received FROM like_post lp JOIN post lp_post ON lp_post.id = lp.post_id " +
+                   "GROUP BY lp_post.author_id) l ON l.author_id = u.id " +
+                   "LEFT JOIN (SELECT c_post.author_id, COUNT(*) AS comments_received FROM comment cm JOIN post c_post ON c_post.id = cm.post_id " +
+                   "GROUP BY c_post.author_id) c ON c.author_id = u.id " +
+                   "ON CONFLICT (user_id) DO UPDATE SET " +
+                   "countries_count = EXCLUDED.countries_count, cities_count = EXCLUDED.cities_count, posts_count = EXCLUDED.posts_count, " +
+                   "likes_received = EXCLUDED.likes_received, comments_received = EXCLUDED.comments_received, " +
+                   "countries_mask_0 = EXCLUDED.countries_mask_0, countries_mask_1 = EXCLUDED.countries_mask_1, " +
+                   "countries_mask_2 = EXCLUDED.countries_mask_2, countries_mask_3 = EXCLUDED.countries_mask_3, updated_at = NOW()", nativeQuery = true)
+    int rebuildAll();
+
+    interface LeaderboardRow {
+        Long getUserId();
+        Integer getScore();
+        Long getPosition();
+        Integer getCountriesCount();
+    }
+
+    interface RankRow {
+        Long getCountriesRank();
+        Long getPostsRank();
+    }
+}
@@ -8,8 +8,10 @@ import com.sora.backend.repository.CommentRepository;
 import com.sora.backend.repository.PostRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import com.sora.backend.util.MessageUtil;
+import com.sora.backend.util.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,6 +31,12 @@ public class CommentService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private PostCounterService postCounterService;
+
+    @Autowired
+    private UserTravelStatsService userTravelStatsService;
+
 
     public Comment createComment(UserAccount author, Long postId, String content) {
         Post post = postRepository.findById(postId)
@@ -41,6 +49,8 @@ public class CommentService {
         comment.setCreatedAt(LocalDateTime.now());
 
         Comment savedComment = commentRepository.save(comment);
+        postCounterService.incrementComments(postId, 1);
+        userTravelStatsService.onCommentsChanged(post, 1);
 
         if (post.getAuthor() != null && !post.getAuthor().getId().equals(author.getId())) {
             notificationService.createCommentNotification(post.getAuthor(), author, post, savedComment);
@@ -65,6 +75,8 @@ public class CommentService {
         reply.setCreatedAt(LocalDateTime.now());
 
         Comment savedReply = commentRepository.save(reply);
+        postCounterService.incrementComments(reply.getPost().getId(), 1);
+        userTravelStatsService.onCommentsChanged(reply.getPost(), 1);
 
         if (!parentComment.getAuthor().getId().equals(author.getId())) {
             notificationService.createCommentReplyNotification(parentComment.getAuthor(), author, parentComment.getPost(), savedReply);
@@ -84,6 +96,12 @@ public class CommentService {
         return commentRepository.findByPostIdAndParentCommentIsNull(postId, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<Comment> getPostCommentsAfter(Long postId, PageCursor cursor, int size) {
+        List<Comment> rows = commentRepository.findTopLevelByPostIdBefore(postId, cursor.createdAt(), cursor.id(), PageCursor.window(size));
+        return PageCursor.toSlice(rows, size);
+    }
+
     @Transactional(readOnly = true)
     public List<Comment> getCommentReplies(Long commentId) {
         return commentRepository.findByParentCommentId(commentId);
@@ -127,6 +145,8 @@ public class CommentService {
         }
 
         commentRepository.delete(comment);
+        postCounterService.incrementComments(comment.getPost().getId(), -(replies.size() + 1));
+        userTravelStatsService.onCommentsChanged(comment.getPost(), -(replies.size() + 1));
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,69 @@
+package com.sora.backend.service;
+
+import com.sora.backend.dto.UserGamificationStatsResponseDto;
+import com.sora.backend.model.Continent;
+import com.sora.backend.model.UserContinentStats;
+import com.sora.backend.repository.CountryRepository;
+import com.sora.backend.repository.UserContinentStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Continent coverage per user: visited counts come from user_continent_stats, kept current by
+ * UserTravelStatsService, and the per-continent country totals are reference data held in memory.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ContinentStatsService {
+
+    @Autowired
+    private UserContinentStatsRepository userContinentStatsRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    private volatile Map<String, Integer> countriesPerContinent;
+
+    public List<UserGamificationStatsResponseDto.ContinentStatsDto> getContinentStats(Long userId) {
+        Map<String, Integer> totals = getCountriesPerContinent();
+        Map<String, UserContinentStats> visited = userContinentStatsRepository.findByUserId(userId).stream()
+                .collect(Collectors.toMap(UserContinentStats::getContinentCode, Function.identity()));
+
+        List<UserGamificationStatsResponseDto.ContinentStatsDto> continentStats = new ArrayList<>();
+        for (Continent continent : Continent.values()) {
+            int totalCountries = totals.getOrDefault(continent.getCode(), 0);
+            if (totalCountries == 0)
+                continue;
+
+            UserContinentStats stats = visited.get(continent.getCode());
+            int countriesVisited = stats != null ? stats.getCountriesVisited() : 0;
+            continentStats.add(new UserGamificationStatsResponseDto.ContinentStatsDto(
+                    continent.getCode(),
+                    continent.getNameKey(),
+                    countriesVisited,
+                    totalCountries,
+                    Math.round(countriesVisited * 1000.0 / totalCountries) / 10.0,
+                    stats != null ? stats.getPostsCount() : 0
+            ));
+        }
+        return continentStats;
+    }
+
+    // Countries only change through migrations, so the totals are loaded once
+    private Map<String, Integer> getCountriesPerContinent() {
+        Map<String, Integer> totals = countriesPerContinent;
+        if (totals == null) {
+            totals = countryRepository.countByContinent().stream()
+                    .collect(Collectors.toUnmodifiableMap(CountryRepository.ContinentCountRow::getContinentCode, row -> row.getCountriesCount().intValue()));
+            countriesPerContinent = totals;
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,50 @@
+package com.sora.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache for list totals that are only shown to the user, so count-free pages
+ * do not trade one COUNT(*) per request for another.
+ */
+@Service
+public class CountCacheService {
+
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    @Value("${pagination.count-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${pagination.count-cache.max-entries:10000}")
+    private int maxEntries;
+
+    public long getApproximateCount(String key, LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(key);
+        if (cached != null && cached.expiresAt() > now)
+            return cached.value();
+
+        long value = counter.getAsLong();
+        if (counts.size() >= maxEntries)
+            evictExpired(now);
+
+        counts.put(key, new CachedCount(value, now + ttlSeconds * 1000));
+        return value;
+    }
+
+    public void evict(String key) {
+        counts.remove(key);
+    }
+
+    private void evictExpired(long now) {
+        counts.values().removeIf(c -> c.expiresAt() <= now);
+        if (counts.size() >= maxEntries)
+            counts.clear();
+    }
+
+    private record CachedCount(long value, long expiresAt) {}
+}
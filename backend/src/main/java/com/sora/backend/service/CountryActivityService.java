@@ -0,0 +1,229 @@
+package com.sora.backend.service;
+
+import com.sora.backend.model.Post;
+import com.sora.backend.repository.LikePostRepository;
+import com.sora.backend.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Per-country ring buffers of daily buckets (posts, posting users, likes) covering the last
+ * window-days days. Any explore window is a sum over fixed buckets, so it never hits the database.
+ * Seeded from the database at startup and periodically to correct drift.
+ */
+@Service
+public class CountryActivityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CountryActivityService.class);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private LikePostRepository likePostRepository;
+
+    @Value("${globe.activity.window-days:366}")
+    private int windowDays;
+
+    private volatile Map<String, CountryWindow> windows = new ConcurrentHashMap<>();
+
+    private final Object seedLock = new Object();
+
+    // Updates committed while a seed is running, replayed onto the seeded windows; null when idle
+    private List<Consumer<Map<String, CountryWindow>>> pendingUpdates;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        seed();
+    }
+
+    @Scheduled(fixedDelayString = "${globe.activity.reseed-interval-ms:3600000}", initialDelayString = "${globe.activity.reseed-interval-ms:3600000}")
+    @Transactional(readOnly = true)
+    public synchronized void seed() {
+        long today = LocalDate.now().toEpochDay();
+        LocalDateTime since = LocalDate.ofEpochDay(today - windowDays + 1).atStartOfDay();
+        Map<String, CountryWindow> seeded = new ConcurrentHashMap<>();
+        synchronized (seedLock) {
+            pendingUpdates = new ArrayList<>();
+        }
+
+        try {
+            postRepository.findDailyPostActivitySince(since).forEach(row ->
+                    seeded.computeIfAbsent(row.getCountryCode(), code -> new CountryWindow(windowDays))
+                            .addPosts(row.getEpochDay(), row.getUserId(), row.getPostCount().intValue(), today));
+            likePostRepository.findDailyLikeActivitySince(since).forEach(row ->
+                    seeded.computeIfAbsent(row.getCountryCode(), code -> new CountryWindow(windowDays))
+                            .addLikes(row.getEpochDay(), row.getLikeCount().intValue(), today));
+
+            // Posts and likes that committed while the queries ran are replayed before the swap
+            synchronized (seedLock) {
+                pendingUpdates.forEach(update -> update.accept(seeded));
+                windows = seeded;
+            }
+        } finally {
+            synchronized (seedLock) {
+                pendingUpdates = null;
+            }
+        }
+        logger.debug("Seeded country activity windows for {} countries", seeded.size());
+    }
+
+    public void onPostCreated(Post post) {
+        String countryCode = post.getCountry().getCode();
+        Long userId = post.getProfileOwner().getId();
+        long day = epochDay(post.getCreatedAt());
+        apply(countryCode, window -> window.addPosts(day, userId, 1, today()));
+    }
+
+    public void onPostDeleted(Post post) {
+        String countryCode = post.getCountry().getCode();
+        Long userId = post.getProfileOwner().getId();
+        long day = epochDay(post.getCreatedAt());
+        apply(countryCode, window -> window.addPosts(day, userId, -1, today()));
+    }
+
+    public void onLikeChanged(Post post, LocalDateTime likedAt, int delta) {
+        String countryCode = post.getCountry().getCode();
+        long day = epochDay(likedAt);
+        apply(countryCode, window -> window.addLikes(day, delta, today()));
+    }
+
+    public int getPostCount(String countryCode, int days) {
+        return totals(countryCode, days).posts();
+    }
+
+    public WindowTotals totals(String countryCode, int days) {
+        CountryWindow window = windows.get(countryCode);
+        return window != null ? window.sum(Math.min(days, windowDays), today()) : new WindowTotals(0, 0, 0);
+    }
+
+    private void apply(String countryCode, Consumer<CountryWindow> update) {
+        afterCommit(() -> {
+            synchronized (seedLock) {
+                update.accept(windowFor(windows, countryCode));
+                if (pendingUpdates != null)
+                    pendingUpdates.add(seeded -> update.accept(windowFor(seeded, countryCode)));
+            }
+        });
+    }
+
+    private CountryWindow windowFor(Map<String, CountryWindow> target, String countryCode) {
+        return target.computeIfAbsent(countryCode, code -> new CountryWindow(windowDays));
+    }
+
+    private void afterCommit(Runnable update) {
+        // Rolled back posts and likes never reach the buffers
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+            return;
+        }
+        update.run();
+    }
+
+    private static long epochDay(LocalDateTime dateTime) {
+        return (dateTime != null ? dateTime.toLocalDate() : LocalDate.now()).toEpochDay();
+    }
+
+    private static long today() {
+        return LocalDate.now().toEpochDay();
+    }
+
+    public record WindowTotals(int posts, int activeUsers, int likes) {}
+
+    private static final class CountryWindow {
+
+        private final long[] days;
+        private final int[] posts;
+        private final int[] likes;
+        private final Map<Long, Integer>[] users;
+
+        @SuppressWarnings("unchecked")
+        CountryWindow(int size) {
+            this.days = new long[size];
+            this.posts = new int[size];
+            this.likes = new int[size];
+            this.users = new Map[size];
+            Arrays.fill(days, Long.MIN_VALUE);
+        }
+
+        synchronized void addPosts(long day, Long userId, int delta, long today) {
+            int slot = slotFor(day, today);
+            if (slot < 0)
+                return;
+            posts[slot] = Math.max(0, posts[slot] + delta);
+            if (users[slot] == null)
+                users[slot] = new HashMap<>();
+            users[slot].compute(userId, (id, current) -> {
+                int remaining = (current != null ? current : 0) + delta;
+                return remaining > 0 ? remaining : null;
+            });
+        }
+
+        synchronized void addLikes(long day, int delta, long today) {
+            int slot = slotFor(day, today);
+            if (slot < 0)
+                return;
+            likes[slot] = Math.max(0, likes[slot] + delta);
+        }
+
+        synchronized WindowTotals sum(int window, long today) {
+            int postTotal = 0;
+            int likeTotal = 0;
+            Set<Long> activeUsers = new HashSet<>();
+            for (long day = today - window + 1; day <= today; day++) {
+                int slot = slot(day);
+                if (days[slot] != day)
+                    continue;
+                postTotal += posts[slot];
+                likeTotal += likes[slot];
+                if (users[slot] != null)
+                    activeUsers.addAll(users[slot].keySet());
+            }
+            return new WindowTotals(postTotal, activeUsers.size(), likeTotal);
+        }
+
+        // Reuses the slot of a day that has fallen out of the window; days outside the window are ignored
+        private int slotFor(long day, long today) {
+            if (day > today || day <= today - days.length)
+                return -1;
+            int slot = slot(day);
+            if (days[slot] != day) {
+                days[slot] = day;
+                posts[slot] = 0;
+                likes[slot] = 0;
+                users[slot] = null;
+            }
+            return slot;
+        }
+
+        private int slot(long day) {
+            return (int) Math.floorMod(day, (long) days.length);
+        }
+    }
+}
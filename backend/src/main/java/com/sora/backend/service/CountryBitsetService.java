@@ -0,0 +1,162 @@
+package com.sora.backend.service;
+
+import com.sora.backend.model.Country;
+import com.sora.backend.model.UserTravelStats;
+import com.sora.backend.repository.CountryRepository;
+import com.sora.backend.repository.UserTravelStatsRepository;
+import com.sora.backend.util.CountryBitset;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Visited countries per user as CountryBitset, read from the masks on user_travel_stats and kept
+ * in memory for a short TTL, which bounds how stale a set written through another instance can get.
+ * Counts are a popcount, common countries a bitwise AND and has-visited a bit test.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CountryBitsetService {
+
+    private final Map<Long, CachedBitset> bitsets = new ConcurrentHashMap<>();
+
+    private volatile Map<Integer, String> countryCodes;
+
+    @Autowired
+    private UserTravelStatsRepository userTravelStatsRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Value("${travel-stats.bitset-cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${travel-stats.bitset-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    public CountryBitset getVisitedCountries(Long userId) {
+        CountryBitset cached = getCached(userId, System.currentTimeMillis());
+        if (cached != null)
+            return cached;
+
+        CountryBitset loaded = userTravelStatsRepository.findByUserId(userId).map(this::toBitset).orElse(CountryBitset.EMPTY);
+        cache(userId, loaded);
+        return loaded;
+    }
+
+    public Map<Long, CountryBitset> getVisitedCountries(List<Long> userIds) {
+        Map<Long, CountryBitset> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Long userId : userIds) {
+            CountryBitset cached = getCached(userId, now);
+            if (cached != null)
+                result.put(userId, cached);
+            else
+                missing.add(userId);
+        }
+
+        if (!missing.isEmpty()) {
+            for (UserTravelStats stats : userTravelStatsRepository.findByUserIdIn(missing))
+                result.put(stats.getUser().getId(), toBitset(stats));
+            for (Long userId : missing) {
+                CountryBitset loaded = result.computeIfAbsent(userId, id -> CountryBitset.EMPTY);
+                cache(userId, loaded);
+            }
+        }
+        return result;
+    }
+
+    public Map<Long, Long> countCountries(List<Long> userIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        getVisitedCountries(userIds).forEach((userId, bitset) -> counts.put(userId, (long) bitset.count()));
+        return counts;
+    }
+
+    public boolean hasVisited(Long userId, String countryCode) {
+        return countryRepository.findByCode(countryCode)
+                .map(country -> getVisitedCountries(userId).contains(country.getBitIndex()))
+                .orElse(false);
+    }
+
+    public List<String> findCommonCountryCodes(Long userId1, Long userId2) {
+        CountryBitset common = getVisitedCountries(userId1).and(getVisitedCountries(userId2));
+        List<String> codes = new ArrayList<>();
+        for (int bitIndex : common.bitIndexes()) {
+            String code = getCountryCodes(bitIndex).get(bitIndex);
+            if (code != null)
+                codes.add(code);
+        }
+        return codes;
+    }
+
+    public void evict(Long userId) {
+        evictNowAndAfterCompletion(() -> bitsets.remove(userId));
+    }
+
+    public void evictAll() {
+        evictNowAndAfterCompletion(bitsets::clear);
+    }
+
+    // Dropped now and again once the writing transaction ends, so a read during it cannot keep the old set cached
+    private void evictNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private CountryBitset getCached(Long userId, long now) {
+        CachedBitset cached = bitsets.get(userId);
+        return cached != null && cached.expiresAt() > now ? cached.bitset() : null;
+    }
+
+    private void cache(Long userId, CountryBitset bitset) {
+        long now = System.currentTimeMillis();
+        if (bitsets.size() >= maxEntries)
+            evictExpired(now);
+        bitsets.put(userId, new CachedBitset(bitset, now + ttlSeconds * 1000));
+    }
+
+    private void evictExpired(long now) {
+        bitsets.values().removeIf(cached -> cached.expiresAt() <= now);
+        if (bitsets.size() >= maxEntries)
+            bitsets.clear();
+    }
+
+    private CountryBitset toBitset(UserTravelStats stats) {
+        return new CountryBitset(stats.getCountriesMask0(), stats.getCountriesMask1(), stats.getCountriesMask2(), stats.getCountriesMask3());
+    }
+
+    // Countries are reference data; the codes are reloaded only when an unknown bit shows up
+    private Map<Integer, String> getCountryCodes(int bitIndex) {
+        Map<Integer, String> codes = countryCodes;
+        if (codes == null || !codes.containsKey(bitIndex))
+            codes = loadCountryCodes();
+        return codes;
+    }
+
+    private Map<Integer, String> loadCountryCodes() {
+        Map<Integer, String> codes = new HashMap<>();
+        for (Country country : countryRepository.findAll())
+            codes.put(country.getBitIndex().intValue(), country.getCode());
+        countryCodes = Map.copyOf(codes);
+        return countryCodes;
+    }
+
+    private record CachedBitset(CountryBitset bitset, long expiresAt) {}
+}
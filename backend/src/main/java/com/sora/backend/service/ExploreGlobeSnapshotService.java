@@ -0,0 +1,86 @@
+package com.sora.backend.service;
+
+import com.sora.backend.dto.CountryMarkerDto;
+import com.sora.backend.dto.GlobeDataResponseDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds an immutable explore globe per timeframe. The globe is identical for every user, so it
+ * is rebuilt in the background and swapped in whole; requests never touch the database.
+ */
+@Service
+public class ExploreGlobeSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExploreGlobeSnapshotService.class);
+
+    public static final List<String> TIMEFRAMES = List.of("week", "month", "year");
+
+    @Autowired
+    private GlobeService globeService;
+
+    @Autowired
+    private CountryActivityService countryActivityService;
+
+    private volatile Map<String, GlobeDataResponseDto> snapshots = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${globe.explore-snapshot.refresh-interval-ms:60000}", initialDelayString = "${globe.explore-snapshot.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        Map<String, GlobeDataResponseDto> rebuilt = new HashMap<>();
+        for (String timeframe : TIMEFRAMES)
+            rebuilt.put(timeframe, globeService.buildExploreGlobeData(timeframe));
+
+        snapshots = Map.copyOf(rebuilt);
+        logger.debug("Refreshed explore globe snapshots for {}", TIMEFRAMES);
+    }
+
+    public GlobeDataResponseDto getExploreGlobeData(String timeframe, int minPosts) {
+        GlobeDataResponseDto snapshot = snapshots.get(normalize(timeframe));
+        if (snapshot == null)
+            snapshot = awaitSnapshot(normalize(timeframe));
+
+        if (minPosts <= 1)
+            return snapshot;
+
+        // Filtered on the live daily buckets so the threshold tracks posts made since the snapshot
+        int days = GlobeService.exploreDays(normalize(timeframe));
+        List<CountryMarkerDto> countryMarkers = snapshot.countryMarkers().stream()
+                .filter(marker -> countryActivityService.getPostCount(marker.countryCode(), days) >= minPosts)
+                .toList();
+
+        return new GlobeDataResponseDto(
+                snapshot.globeType(),
+                countryMarkers.size(),
+                countryMarkers.stream().mapToInt(CountryMarkerDto::recentPostsCount).sum(),
+                snapshot.lastUpdated(),
+                snapshot.generatedAt(),
+                countryMarkers
+        );
+    }
+
+    // Requests arriving before the first refresh wait on it instead of each building their own
+    private synchronized GlobeDataResponseDto awaitSnapshot(String timeframe) {
+        if (!snapshots.containsKey(timeframe))
+            refresh();
+        return snapshots.get(timeframe);
+    }
+
+    public static String normalize(String timeframe) {
+        String key = timeframe != null ? timeframe.toLowerCase() : "month";
+        return TIMEFRAMES.contains(key) ? key : "month";
+    }
+}
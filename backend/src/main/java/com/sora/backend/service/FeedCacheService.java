@@ -0,0 +1,119 @@
+package com.sora.backend.service;
+
+import com.sora.backend.dto.PostResponseDto;
+import com.sora.backend.repository.FollowRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Keeps the hydrated first feed page of recently active users in memory. Entries are dropped
+ * once a feed change commits (new post from a followed account, follow, unfollow, post edit or
+ * deletion) and otherwise expire after a short TTL so engagement counts do not drift far.
+ */
+@Service
+public class FeedCacheService {
+
+    private final Map<Long, CachedFeed> feeds = new ConcurrentHashMap<>();
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Value("${feed.cache.first-page-size:20}")
+    private int firstPageSize;
+
+    @Value("${feed.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${feed.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${feed.cache.eviction-batch-size:500}")
+    private int evictionBatchSize;
+
+    public boolean isCacheable(int page, int size) {
+        return page == 0 && size > 0 && size <= firstPageSize;
+    }
+
+    public Page<PostResponseDto> getFirstPage(Long userId, int size, IntFunction<Page<PostResponseDto>> loader) {
+        long now = System.currentTimeMillis();
+        CachedFeed cached = feeds.get(userId);
+        if (cached == null || cached.expiresAt() <= now) {
+            Page<PostResponseDto> loaded = loader.apply(firstPageSize);
+            cached = new CachedFeed(List.copyOf(loaded.getContent()), loaded.getTotalElements(), now + ttlSeconds * 1000);
+
+            if (feeds.size() >= maxEntries)
+                evictExpired(now);
+            feeds.put(userId, cached);
+        }
+
+        List<PostResponseDto> content = cached.content().subList(0, Math.min(size, cached.content().size()));
+        return new PageImpl<>(new ArrayList<>(content), PageRequest.of(0, size), cached.total());
+    }
+
+    public void evict(Long userId) {
+        afterCommit(() -> feeds.remove(userId));
+    }
+
+    public void onPostCreated(Long profileOwnerId) {
+        afterCommit(() -> evictFollowers(profileOwnerId));
+    }
+
+    public void onPostUpdated(Long postId) {
+        afterCommit(() -> evictContaining(postId));
+    }
+
+    public void onPostDeleted(Long postId) {
+        afterCommit(() -> evictContaining(postId));
+    }
+
+    private void evictFollowers(Long profileOwnerId) {
+        feeds.remove(profileOwnerId);
+        if (feeds.isEmpty())
+            return;
+
+        // Only followers that currently hold a cached page need to be looked up, a batch at a time
+        List<Long> cachedUserIds = new ArrayList<>(feeds.keySet());
+        for (int from = 0; from < cachedUserIds.size(); from += evictionBatchSize) {
+            List<Long> batch = cachedUserIds.subList(from, Math.min(from + evictionBatchSize, cachedUserIds.size()));
+            followRepository.findFollowerUserIdsIn(profileOwnerId, batch).forEach(feeds::remove);
+        }
+    }
+
+    private void evictContaining(Long postId) {
+        feeds.values().removeIf(feed -> feed.content().stream().anyMatch(post -> post.id().equals(postId)));
+    }
+
+    private void afterCommit(Runnable eviction) {
+        // Evicting before commit lets a concurrent read cache the old feed again until the TTL runs out
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+            return;
+        }
+        eviction.run();
+    }
+
+    private void evictExpired(long now) {
+        feeds.values().removeIf(feed -> feed.expiresAt() <= now);
+        if (feeds.size() >= maxEntries)
+            feeds.clear();
+    }
+
+    private record CachedFeed(List<PostResponseDto> content, long total, long expiresAt) {}
+}
@@ -0,0 +1,243 @@
+package com.sora.backend.service;
+
+import com.sora.backend.model.Post;
+import com.sora.backend.model.UserAccount;
+import com.sora.backend.repository.FeedEntryRepository;
+import com.sora.backend.repository.FollowRepository;
+import com.sora.backend.repository.PostRepository;
+import com.sora.backend.util.PageCursor;
+import com.sora.backend.util.PageUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+@Service
+@Transactional
+public class FeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedService.class);
+
+    private static final Comparator<Post> NEWEST_FIRST = Comparator.comparing(Post::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Post::getId, Comparator.reverseOrder());
+
+    @Autowired
+    private FeedEntryRepository feedEntryRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CountCacheService countCacheService;
+
+    @Autowired
+    private FeedCacheService feedCacheService;
+
+    @Value("${feed.follow-backfill-size:200}")
+    private int followBackfillSize;
+
+    @Value("${feed.celebrity-follower-threshold:10000}")
+    private long celebrityFollowerThreshold;
+
+    // Accounts at or above the threshold, so neither fan-out nor feed reads count followers per request.
+    // Null until first loaded, so nothing is fanned out to every follower of a high-follower account meanwhile
+    private volatile Set<Long> celebrityIds;
+
+    @Scheduled(fixedDelayString = "${feed.celebrity-refresh-ms:300000}", initialDelayString = "${feed.celebrity-refresh-ms:300000}")
+    public synchronized void refreshCelebrityIds() {
+        Set<Long> previous = celebrityIds;
+        Set<Long> next = Set.copyOf(followRepository.findUserIdsWithMinFollowers(celebrityFollowerThreshold));
+
+        // Posts of a demoted account were pulled at read time and never pushed; push them before reads stop pulling
+        if (previous != null) {
+            for (Long demotedId : previous) {
+                if (next.contains(demotedId))
+                    continue;
+                int delivered = feedEntryRepository.backfillFollowersFromSource(demotedId, followBackfillSize);
+                logger.debug("Backfilled {} feed entries for demoted high-follower account {}", delivered, demotedId);
+            }
+        }
+
+        afterCommit(() -> celebrityIds = next);
+        logger.debug("Refreshed {} high-follower accounts", next.size());
+    }
+
+    public void fanOutPost(Post post) {
+        Long ownerId = post.getProfileOwner().getId();
+        feedEntryRepository.insertEntry(ownerId, post.getId(), ownerId, post.getCreatedAt());
+        feedCacheService.onPostCreated(ownerId);
+
+        // Posts from high-follower accounts are pulled at read time instead
+        if (isCelebrity(ownerId)) {
+            logger.debug("Skipping fan-out of post {} for high-follower account {}", post.getId(), ownerId);
+            return;
+        }
+
+        int delivered = feedEntryRepository.fanOutToFollowers(post.getId(), ownerId, post.getCreatedAt());
+        logger.debug("Post {} fanned out to {} follower feeds", post.getId(), delivered);
+    }
+
+    public void onFollow(Long followerId, Long followingId) {
+        feedCacheService.evict(followerId);
+        if (isCelebrity(followingId))
+            return;
+
+        feedEntryRepository.backfillFromSource(followerId, followingId, followBackfillSize);
+    }
+
+    public void onUnfollow(Long followerId, Long followingId) {
+        feedEntryRepository.deleteByUserIdAndSourceUserId(followerId, followingId);
+        feedCacheService.evict(followerId);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Post> getFeedPosts(UserAccount user, Pageable pageable) {
+        // Ordering is fixed by the feed index, ignore any client supplied sort
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        List<Long> celebrityIds = findFollowedCelebrityIds(user.getId());
+
+        if (celebrityIds.isEmpty())
+            return feedEntryRepository.findFeedPostsByUserId(user.getId(), unsorted);
+
+        // Each source only needs enough rows to fill everything up to the end of the requested page
+        int window = (int) Math.min(Integer.MAX_VALUE, unsorted.getOffset() + unsorted.getPageSize());
+        Pageable head = PageRequest.of(0, window);
+
+        List<List<Post>> sources = List.of(
+                feedEntryRepository.findRecentFeedPostsByUserId(user.getId(), head),
+                postRepository.findRecentByProfileOwnerIds(celebrityIds, head)
+        );
+
+        List<Post> merged = mergeNewestFirst(sources, window);
+        int from = (int) Math.min(unsorted.getOffset(), merged.size());
+        List<Post> content = merged.subList(from, merged.size());
+
+        return new PageImpl<>(new ArrayList<>(content), unsorted, countFeed(user.getId(), celebrityIds));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Post> getFeedPostsWithApproximateTotal(UserAccount user, Pageable pageable) {
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        List<Long> celebrityIds = findFollowedCelebrityIds(user.getId());
+
+        Slice<Post> slice;
+        if (celebrityIds.isEmpty()) {
+            slice = feedEntryRepository.findFeedSliceByUserId(user.getId(), unsorted);
+        } else {
+            int window = (int) Math.min(Integer.MAX_VALUE - 1, unsorted.getOffset() + unsorted.getPageSize());
+            Pageable head = PageRequest.of(0, window + 1);
+            List<Post> merged = mergeNewestFirst(List.of(
+                    feedEntryRepository.findRecentFeedPostsByUserId(user.getId(), head),
+                    postRepository.findRecentByProfileOwnerIds(celebrityIds, head)
+            ), window + 1);
+            int from = (int) Math.min(unsorted.getOffset(), merged.size());
+            int to = Math.min(window, merged.size());
+            slice = new SliceImpl<>(new ArrayList<>(merged.subList(from, to)), unsorted, merged.size() > window);
+        }
+
+        long total = countCacheService.getApproximateCount("feed:" + user.getId(), () -> countFeed(user.getId(), celebrityIds));
+        return PageUtil.withApproximateTotal(slice, total);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<Post> getFeedPostsAfter(UserAccount user, PageCursor cursor, int size) {
+        Pageable window = PageCursor.window(size);
+        List<Post> rows = feedEntryRepository.findFeedPostsBefore(user.getId(), cursor.createdAt(), cursor.id(), window);
+
+        List<Long> celebrityIds = findFollowedCelebrityIds(user.getId());
+        if (!celebrityIds.isEmpty()) {
+            List<Post> pulled = postRepository.findRecentByProfileOwnerIdsBefore(celebrityIds, cursor.createdAt(), cursor.id(), window);
+            rows = mergeNewestFirst(List.of(rows, pulled), window.getPageSize());
+        }
+
+        return PageCursor.toSlice(rows, size);
+    }
+
+    // Entries pushed before an account crossed the threshold are also among its pulled posts, so they are counted once
+    private long countFeed(Long userId, List<Long> celebrityIds) {
+        if (celebrityIds.isEmpty())
+            return feedEntryRepository.countByUserId(userId);
+        return feedEntryRepository.countByUserIdExcludingSources(userId, celebrityIds) + postRepository.countByProfileOwnerIds(celebrityIds);
+    }
+
+    private List<Long> findFollowedCelebrityIds(Long userId) {
+        Set<Long> celebrities = getCelebrityIds();
+        return celebrities.isEmpty() ? List.of() : followRepository.findFollowingUserIdsIn(userId, new ArrayList<>(celebrities));
+    }
+
+    private boolean isCelebrity(Long userId) {
+        return getCelebrityIds().contains(userId);
+    }
+
+    private Set<Long> getCelebrityIds() {
+        Set<Long> celebrities = celebrityIds;
+        if (celebrities != null)
+            return celebrities;
+
+        synchronized (this) {
+            if (celebrityIds == null)
+                celebrityIds = Set.copyOf(followRepository.findUserIdsWithMinFollowers(celebrityFollowerThreshold));
+            return celebrityIds;
+        }
+    }
+
+    private void afterCommit(Runnable update) {
+        // Reads keep pulling a demoted account until its backfilled entries are visible
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+            return;
+        }
+        update.run();
+    }
+
+    private List<Post> mergeNewestFirst(List<List<Post>> sources, int limit) {
+        // Heap entries are {sourceIndex, positionInSource}
+        PriorityQueue<int[]> heap = new PriorityQueue<>((a, b) -> NEWEST_FIRST.compare(sources.get(a[0]).get(a[1]), sources.get(b[0]).get(b[1])));
+        for (int i = 0; i < sources.size(); i++) {
+            if (!sources.get(i).isEmpty())
+                heap.add(new int[]{i, 0});
+        }
+
+        List<Post> merged = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        while (!heap.isEmpty() && merged.size() < limit) {
+            int[] head = heap.poll();
+            List<Post> source = sources.get(head[0]);
+            Post post = source.get(head[1]);
+
+            // An account that crossed the threshold can still have pushed entries
+            if (seen.add(post.getId()))
+                merged.add(post);
+
+            if (head[1] + 1 < source.size())
+                heap.add(new int[]{head[0], head[1] + 1});
+        }
+        return merged;
+    }
+}
@@ -29,6 +29,11 @@ public class FollowService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private GlobeChangeService globeChangeService;
 
     public Follow followUser(UserAccount follower, Long followingUserId) {
         UserAccount following = userAccountRepository.findById(followingUserId)
@@ -46,6 +51,8 @@ public class FollowService {
         follow.setCreatedAt(LocalDateTime.now());
 
         Follow savedFollow = followRepository.save(follow);
+        feedService.onFollow(follower.getId(), following.getId());
+        globeChangeService.onFollowChanged(follower.getId(), following.getId());
         notificationService.createFollowNotification(following, follower);
         
         return savedFollow;
@@ -60,6 +67,8 @@ public class FollowService {
             throw new ServiceException(MessageUtil.getMessage("follow.not.following"));
 
         followRepository.deleteByFollowerIdAndFollowingId(follower.getId(), following.getId());
+        feedService.onUnfollow(follower.getId(), following.getId());
+        globeChangeService.onFollowChanged(follower.getId(), following.getId());
     }
 
     @Transactional(readOnly = true)
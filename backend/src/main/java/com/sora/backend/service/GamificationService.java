@@ -2,6 +2,7 @@ package com.sora.backend.service;
 
 import com.sora.backend.dto.*;
 import com.sora.backend.model.Country;
+import com.sora.backend.model.StatsRollupGranularity;
 import com.sora.backend.model.UserAccount;
 import com.sora.backend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +12,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,6 +41,15 @@ public class GamificationService {
     @Autowired
     private UserTravelService userTravelService;
 
+    @Autowired
+    private UserTravelStatsRepository userTravelStatsRepository;
+
+    @Autowired
+    private UserStatsRollupRepository userStatsRollupRepository;
+
+    @Autowired
+    private ContinentStatsService continentStatsService;
+
     public UserGamificationStatsResponseDto getUserTravelStats(Long userId) {
         UserAccount user = userAccountRepository.findById(userId).orElse(null);
         if (user == null) return null;
@@ -69,7 +81,7 @@ public class GamificationService {
 
         UserGamificationStatsResponseDto.RankingsDto rankings = getUserRankings(userId, user);
         List<UserGamificationStatsResponseDto.AchievementDto> achievements = getUserAchievements(travelStats);
-        List<UserGamificationStatsResponseDto.ContinentStatsDto> continentStats = getContinentStats(userId);
+        List<UserGamificationStatsResponseDto.ContinentStatsDto> continentStats = continentStatsService.getContinentStats(userId);
 
         return new UserGamificationStatsResponseDto(
                 userDto,
@@ -87,7 +99,7 @@ public class GamificationService {
         return buildLeaderboard(currentUser, mutualUserIds, metric, timeframe, limit);
     }
 
-    public LeaderboardResponseDto getFollowersLeaderboard(UserAccount currentUser, String metric, int limit) {
+    public LeaderboardResponseDto getFollowersLeaderboard(UserAccount currentUser, String metric, String timeframe, int limit) {
         List<Long> followerIds = followRepository.findByFollowingId(currentUser.getId(), org.springframework.data.domain.PageRequest.of(0, 1000))
                 .stream()
                 .map(follow -> follow.getFollower().getId())
@@ -95,10 +107,10 @@ public class GamificationService {
 
         followerIds.add(currentUser.getId());
 
-        return buildLeaderboard(currentUser, followerIds, metric, "all", limit);
+        return buildLeaderboard(currentUser, followerIds, metric, timeframe, limit);
     }
 
-    public LeaderboardResponseDto getFollowingLeaderboard(UserAccount currentUser, String metric, int limit) {
+    public LeaderboardResponseDto getFollowingLeaderboard(UserAccount currentUser, String metric, String timeframe, int limit) {
         List<Long> followingIds = followRepository.findByFollowerId(currentUser.getId(), org.springframework.data.domain.PageRequest.of(0, 1000))
                 .stream()
                 .map(follow -> follow.getFollowing().getId())
@@ -106,53 +118,38 @@ public class GamificationService {
 
         followingIds.add(currentUser.getId());
 
-        return buildLeaderboard(currentUser, followingIds, metric, "all", limit);
+        return buildLeaderboard(currentUser, followingIds, metric, timeframe, limit);
     }
 
+    // One ranked read: the top entries plus the current user's position
     private LeaderboardResponseDto buildLeaderboard(UserAccount currentUser, List<Long> userIds, String metric, String timeframe, int limit) {
-        List<UserAccount> users = userAccountRepository.findAllById(userIds);
-        List<LeaderboardResponseDto.LeaderboardEntryDto> entries = new ArrayList<>();
-
-        for (UserAccount user : users) {
-            int score = getScoreForMetric(user.getId(), metric, timeframe);
+        List<UserTravelStatsRepository.LeaderboardRow> rows = findLeaderboardRows(currentUser, userIds, metric.toLowerCase(), timeframe, limit);
+        Map<Long, UserAccount> users = userAccountRepository.findAllById(rows.stream().map(UserTravelStatsRepository.LeaderboardRow::getUserId).toList()).stream()
+                .collect(Collectors.toMap(UserAccount::getId, Function.identity()));
 
-            LeaderboardResponseDto.LeaderboardEntryDto entry = new LeaderboardResponseDto.LeaderboardEntryDto(
-                    0,
-                    mapToUserSummaryDto(user),
-                    score,
+        List<LeaderboardResponseDto.LeaderboardEntryDto> entries = new ArrayList<>();
+        Integer currentUserPosition = null;
+        for (UserTravelStatsRepository.LeaderboardRow row : rows) {
+            boolean isCurrentUser = row.getUserId().equals(currentUser.getId());
+            if (isCurrentUser)
+                currentUserPosition = row.getPosition().intValue();
+            if (row.getPosition() > limit)
+                continue;
+
+            entries.add(new LeaderboardResponseDto.LeaderboardEntryDto(
+                    row.getPosition().intValue(),
+                    mapToUserSummaryDto(users.get(row.getUserId()), row.getCountriesCount()),
+                    row.getScore(),
                     getScoreName(metric),
-                    user.getId().equals(currentUser.getId())
-            );
-
-            entries.add(entry);
-        }
-
-        entries.sort((a, b) -> Integer.compare(b.score(), a.score()));
-
-        List<LeaderboardResponseDto.LeaderboardEntryDto> limitedEntries = new ArrayList<>();
-        for (int i = 0; i < Math.min(entries.size(), limit); i++) {
-            limitedEntries.add(new LeaderboardResponseDto.LeaderboardEntryDto(
-                    i + 1,
-                    entries.get(i).user(),
-                    entries.get(i).score(),
-                    entries.get(i).scoreName(),
-                    entries.get(i).isCurrentUser()
+                    isCurrentUser
             ));
         }
 
-        Integer currentUserPosition = null;
-        for (int i = 0; i < entries.size(); i++) {
-            if (entries.get(i).isCurrentUser()) {
-                currentUserPosition = i + 1;
-                break;
-            }
-        }
-
         return new LeaderboardResponseDto(
                 metric,
                 timeframe,
                 currentUserPosition,
-                limitedEntries
+                entries
         );
     }
 
@@ -162,8 +159,10 @@ public class GamificationService {
 
         int totalUsers = mutualUserIds.size();
 
-        int countriesRank = calculateRankForMetric(userId, mutualUserIds, "countries");
-        int postsRank = calculateRankForMetric(userId, mutualUserIds, "posts");
+        UserTravelStatsDto userStats = userTravelService.getUserTravelStatistics(userId);
+        UserTravelStatsRepository.RankRow ranks = userTravelStatsRepository.findRanks(mutualUserIds, userId, userStats.countriesVisitedCount(), userStats.totalPostsCount());
+        int countriesRank = ranks.getCountriesRank().intValue();
+        int postsRank = ranks.getPostsRank().intValue();
 
         UserGamificationStatsResponseDto.RankingPositionDto countriesRanking = new UserGamificationStatsResponseDto.RankingPositionDto(
                 countriesRank,
@@ -187,29 +186,20 @@ public class GamificationService {
         UserAccount user = userAccountRepository.findById(userId).orElse(null);
         if (user == null) return null;
 
-        List<Country> countriesVisited = postRepository.findDistinctCountriesByProfileOwnerId(userId);
-        
-        List<CountryVisitedListResponseDto.CountryVisitedDetailDto> countryDetails = countriesVisited.stream()
-                .map(country -> {
-                    List<String> cities = postRepository.findDistinctCitiesByUserAndCountry(userId, country.getId());
-                    CountryDto countryDto = mapToCountryDto(country);
-                    
-                    java.time.LocalDateTime firstPostDate = postRepository.findFirstPostDateInCountryByIds(userId, country.getId());
-                    java.time.LocalDateTime lastPostDate = postRepository.findLastPostDateInCountryByIds(userId, country.getId());
-                    
-                    LocalDate firstVisitDate = firstPostDate != null ? firstPostDate.toLocalDate() : null;
-                    LocalDate lastVisitDate = lastPostDate != null ? lastPostDate.toLocalDate() : null;
-                    int visitCount = cities.size();
-                    
-                    return new CountryVisitedListResponseDto.CountryVisitedDetailDto(
-                            countryDto,
-                            firstVisitDate,
-                            lastVisitDate,
-                            visitCount,
-                            (int) postRepository.countByProfileOwnerIdAndCountryId(userId, country.getId()),
-                            cities
-                    );
-                })
+        List<PostRepository.CountryVisitRow> visits = postRepository.findCountryVisitsByProfileOwnerId(userId);
+        Map<Long, Country> countries = loadCountries(visits);
+        Map<Long, List<String>> citiesByCountry = postRepository.findDistinctCitiesByProfileOwnerId(userId).stream()
+                .collect(Collectors.groupingBy(CountryCityDto::countryId, Collectors.mapping(CountryCityDto::cityName, Collectors.toList())));
+
+        List<CountryVisitedListResponseDto.CountryVisitedDetailDto> countryDetails = visits.stream()
+                .map(visit -> new CountryVisitedListResponseDto.CountryVisitedDetailDto(
+                        mapToCountryDto(countries.get(visit.getCountryId())),
+                        visit.getFirstPostAt() != null ? visit.getFirstPostAt().toLocalDate() : null,
+                        visit.getLastPostAt() != null ? visit.getLastPostAt().toLocalDate() : null,
+                        visit.getCityCount().intValue(),
+                        visit.getPostCount().intValue(),
+                        citiesByCountry.getOrDefault(visit.getCountryId(), List.of())
+                ))
                 .collect(Collectors.toList());
 
         return new CountryVisitedListResponseDto(
@@ -224,30 +214,19 @@ public class GamificationService {
         UserAccount user = userAccountRepository.findById(userId).orElse(null);
         if (user == null) return null;
 
-        List<LastActiveCountryDto> recentCountries = postRepository.findLastActiveCountriesByUserId(userId);
-        
-        List<RecentDestinationsResponseDto.RecentDestinationDto> destinations = recentCountries.stream()
+        List<PostRepository.CountryVisitRow> visits = postRepository.findCountryVisitsByProfileOwnerId(userId).stream()
                 .limit(limit)
-                .map(countryDto -> {
-                    Country country = countryRepository.findByCode(countryDto.countryCode()).orElse(null);
-                    if (country == null) return null;
-                    
-                    String lastCity = postRepository.findLastCityVisitedInCountry(userId, country.getId());
-                    java.time.LocalDateTime lastPostDate = postRepository.findLastPostDateInCountryByIds(userId, country.getId());
-                    int recentPostsCount = (int) postRepository.countByProfileOwnerIdAndCountryIdAndCreatedAtAfter(
-                            userId, 
-                            country.getId(), 
-                            lastPostDate != null ? lastPostDate.minusDays(30) : java.time.LocalDateTime.now().minusDays(30)
-                    );
-                    
-                    return new RecentDestinationsResponseDto.RecentDestinationDto(
-                            mapToCountryDto(country),
-                            lastCity,
-                            lastPostDate,
-                            recentPostsCount
-                    );
-                })
-                .filter(dest -> dest != null)
+                .toList();
+        Map<Long, Country> countries = loadCountries(visits);
+
+        // recentPostsCount covers the 30 days up to the last post in each country
+        List<RecentDestinationsResponseDto.RecentDestinationDto> destinations = visits.stream()
+                .map(visit -> new RecentDestinationsResponseDto.RecentDestinationDto(
+                        mapToCountryDto(countries.get(visit.getCountryId())),
+                        visit.getLastCity(),
+                        visit.getLastPostAt(),
+                        visit.getRecentPostsCount().intValue()
+                ))
                 .collect(Collectors.toList());
 
         return new RecentDestinationsResponseDto(
@@ -257,14 +236,21 @@ public class GamificationService {
         );
     }
 
-    private int getScoreForMetric(Long userId, String metric, String timeframe) {
-        UserTravelStatsDto stats = userTravelService.getUserTravelStatistics(userId);
+    private Map<Long, Country> loadCountries(List<PostRepository.CountryVisitRow> visits) {
+        if (visits.isEmpty())
+            return Map.of();
+        return countryRepository.findAllById(visits.stream().map(PostRepository.CountryVisitRow::getCountryId).toList()).stream()
+                .collect(Collectors.toMap(Country::getId, Function.identity()));
+    }
 
-        return switch (metric.toLowerCase()) {
-            case "countries" -> stats.countriesVisitedCount();
-            case "cities" -> stats.citiesVisitedCount();
-            case "posts" -> stats.totalPostsCount();
-            default -> 0;
+    // Windowed timeframes sum at most 30 day or 12 month buckets from user_stats_rollup; "all" reads user_travel_stats
+    private List<UserTravelStatsRepository.LeaderboardRow> findLeaderboardRows(UserAccount currentUser, List<Long> userIds, String metric, String timeframe, int limit) {
+        LocalDate today = LocalDate.now();
+        return switch (timeframe.toLowerCase()) {
+            case "week" -> userStatsRollupRepository.findLeaderboard(userIds, metric, StatsRollupGranularity.DAY.name(), today.minusDays(6), currentUser.getId(), limit);
+            case "month" -> userStatsRollupRepository.findLeaderboard(userIds, metric, StatsRollupGranularity.DAY.name(), today.minusDays(29), currentUser.getId(), limit);
+            case "year" -> userStatsRollupRepository.findLeaderboard(userIds, metric, StatsRollupGranularity.MONTH.name(), today.withDayOfMonth(1).minusMonths(11), currentUser.getId(), limit);
+            default -> userTravelStatsRepository.findLeaderboard(userIds, metric, currentUser.getId(), limit);
         };
     }
 
@@ -277,22 +263,6 @@ public class GamificationService {
         };
     }
 
-    private int calculateRankForMetric(Long userId, List<Long> userIds, String metric) {
-        int userScore = getScoreForMetric(userId, metric, "all");
-        int rank = 1;
-        
-        for (Long otherId : userIds) {
-            if (!otherId.equals(userId)) {
-                int otherScore = getScoreForMetric(otherId, metric, "all");
-                if (otherScore > userScore) {
-                    rank++;
-                }
-            }
-        }
-        
-        return rank;
-    }
-
     private List<UserGamificationStatsResponseDto.AchievementDto> getUserAchievements(UserTravelStatsDto stats) {
         List<UserGamificationStatsResponseDto.AchievementDto> achievements = new ArrayList<>();
         
@@ -321,24 +291,7 @@ public class GamificationService {
         return achievements;
     }
 
-    private List<UserGamificationStatsResponseDto.ContinentStatsDto> getContinentStats(Long userId) {
-        List<UserGamificationStatsResponseDto.ContinentStatsDto> continentStats = new ArrayList<>();
-        
-        continentStats.add(new UserGamificationStatsResponseDto.ContinentStatsDto(
-                "SA",
-                "continent.south_america",
-                0,
-                12,
-                0.0,
-                0
-        ));
-        
-        return continentStats;
-    }
-
-    private UserSummaryDto mapToUserSummaryDto(UserAccount user) {
-        int countriesCount = (int) userTravelService.getTotalCountriesVisited(user.getId());
-        
+    private UserSummaryDto mapToUserSummaryDto(UserAccount user, int countriesCount) {
         return new UserSummaryDto(
                 user.getId(),
                 user.getUsername(),
@@ -0,0 +1,88 @@
+package com.sora.backend.service;
+
+import com.sora.backend.dto.GeoClusterDto;
+import com.sora.backend.dto.GeoClusterResponseDto;
+import com.sora.backend.exception.ServiceException;
+import com.sora.backend.model.Post;
+import com.sora.backend.repository.GeoCellClusterRepository;
+import com.sora.backend.util.Geohash;
+import com.sora.backend.util.MessageUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@Transactional
+public class GeoClusterService {
+
+    // Levels precomputed in geo_cell_cluster, see V15
+    public static final int MAX_LEVEL = 7;
+
+    @Autowired
+    private GeoCellClusterRepository geoCellClusterRepository;
+
+    @Autowired
+    private TileCacheService tileCacheService;
+
+    @Value("${globe.clusters.max-cells:512}")
+    private int maxCells;
+
+    public void onPostCreated(Post post) {
+        if (post.getGeohash() == null)
+            return;
+        geoCellClusterRepository.applyPost(post.getGeohash(), post.getCityLatitude(), post.getCityLongitude(), 1, MAX_LEVEL);
+        tileCacheService.onDataChanged();
+    }
+
+    public void onPostDeleted(Post post) {
+        if (post.getGeohash() == null)
+            return;
+        geoCellClusterRepository.applyPost(post.getGeohash(), post.getCityLatitude(), post.getCityLongitude(), -1, MAX_LEVEL);
+        geoCellClusterRepository.deleteEmpty(post.getGeohash(), MAX_LEVEL);
+        tileCacheService.onDataChanged();
+    }
+
+    @Transactional(readOnly = true)
+    public GeoClusterResponseDto getClusters(double minLat, double minLng, double maxLat, double maxLng, int zoom) {
+        // NaN slips through every comparison below and would never terminate the cell walk
+        if (!Double.isFinite(minLat) || !Double.isFinite(minLng) || !Double.isFinite(maxLat) || !Double.isFinite(maxLng))
+            throw new ServiceException(MessageUtil.getMessage("globe.viewport.invalid"));
+        if (minLat < -90 || maxLat > 90 || minLat > maxLat || Math.abs(minLng) > 180 || Math.abs(maxLng) > 180 || zoom < 0 || zoom > 22)
+            throw new ServiceException(MessageUtil.getMessage("globe.viewport.invalid"));
+
+        // Coarsen until the viewport is covered by a bounded number of cell lookups
+        int level = levelForZoom(zoom);
+        while (level > 1 && Geohash.coverSize(minLat, minLng, maxLat, maxLng, level) > maxCells)
+            level--;
+
+        List<String> cells = new ArrayList<>(Geohash.cover(minLat, minLng, maxLat, maxLng, level));
+        List<GeoClusterDto> clusters = geoCellClusterRepository.findClusters(level, cells).stream()
+                .sorted(Comparator.comparing(GeoClusterDto::postCount).reversed())
+                .toList();
+
+        return new GeoClusterResponseDto(level, clusters.stream().mapToInt(GeoClusterDto::postCount).sum(), clusters);
+    }
+
+    // Finest level whose cells are no wider than targetCellWidth, coarsened to stay within maxCells; minLng > maxLng crosses the antimeridian
+    @Transactional(readOnly = true)
+    public List<GeoClusterDto> findClustersInBox(double minLat, double minLng, double maxLat, double maxLng, double targetCellWidth, int maxCells) {
+        int level = 1;
+        while (level < MAX_LEVEL && Geohash.cellWidth(level) > targetCellWidth)
+            level++;
+        while (level > 1 && Geohash.coverSize(minLat, minLng, maxLat, maxLng, level) > maxCells)
+            level--;
+
+        List<String> cells = new ArrayList<>(Geohash.cover(minLat, minLng, maxLat, maxLng, level));
+        return geoCellClusterRepository.findClusters(level, cells);
+    }
+
+    // Roughly one geohash level per three map zoom steps
+    private int levelForZoom(int zoom) {
+        return Math.max(1, Math.min(MAX_LEVEL, (zoom + 3) / 3));
+    }
+}
@@ -0,0 +1,88 @@
+package com.sora.backend.service;
+
+import com.sora.backend.repository.GlobeChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records which country aggregates changed for whom, so clients holding a main globe version
+ * can fetch only the markers that changed since. Versions come from a single counter bumped just
+ * before the writing transaction commits, so a client never holds a version that a change still in
+ * flight could later land below.
+ */
+@Service
+@Transactional
+public class GlobeChangeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobeChangeService.class);
+
+    private static final Object PENDING_STAMP = new Object();
+
+    @Autowired
+    private GlobeChangeRepository globeChangeRepository;
+
+    @Value("${globe.changes.retention-days:30}")
+    private int retentionDays;
+
+    public void onCountryAggregateChanged(Long profileOwnerId, Long countryId) {
+        globeChangeRepository.recordOwnerChange(profileOwnerId, countryId);
+        stampBeforeCommit();
+    }
+
+    public void onFollowChanged(Long followerId, Long followingId) {
+        globeChangeRepository.recordFollowChange(followerId, followingId);
+        stampBeforeCommit();
+    }
+
+    @Transactional(readOnly = true)
+    public long getVersion(List<Long> globeUserIds, Long viewerId) {
+        return globeChangeRepository.findLatestVersion(globeUserIds, viewerId);
+    }
+
+    // Null when the client's version can no longer be diffed and it needs the full globe
+    @Transactional(readOnly = true)
+    public List<Long> findChangedCountryIds(List<Long> globeUserIds, Long viewerId, long since, long currentVersion) {
+        if (since <= 0 || since > currentVersion || since < globeChangeRepository.findOldestRetainedVersion())
+            return null;
+        return globeChangeRepository.findChangedCountryIds(globeUserIds, viewerId, since);
+    }
+
+    // Stamped once per transaction, as late as possible so the counter row is locked only briefly
+    private void stampBeforeCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            globeChangeRepository.stampPendingChanges();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(PENDING_STAMP))
+            return;
+
+        TransactionSynchronizationManager.bindResource(PENDING_STAMP, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                globeChangeRepository.stampPendingChanges();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_STAMP);
+            }
+        });
+    }
+
+    @Scheduled(cron = "${globe.changes.prune-cron:0 30 3 * * *}")
+    public void prune() {
+        int deleted = globeChangeRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+        logger.debug("Pruned {} globe changes older than {} days", deleted, retentionDays);
+    }
+}
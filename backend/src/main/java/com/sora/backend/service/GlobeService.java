@@ -6,23 +6,33 @@ import com.sora.backend.model.*;
 import com.sora.backend.repository.*;
 import com.sora.backend.util.MessageUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class GlobeService {
 
+    private static final Comparator<PostSummaryRowDto> POPULAR_FIRST = Comparator.comparing(PostSummaryRowDto::likesCount, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(PostSummaryRowDto::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(PostSummaryRowDto::id, Comparator.reverseOrder());
+
     @Autowired
     private PostRepository postRepository;
     
@@ -36,183 +46,170 @@ public class GlobeService {
     private UserAccountRepository userAccountRepository;
     
     @Autowired
-    private LikePostRepository likePostRepository;
+    private PostMediaRepository postMediaRepository;
     
     @Autowired
-    private LikePostService likePostService;
+    private PostHydrationService postHydrationService;
     
     @Autowired
-    private CommentService commentService;
+    private UserCountryStatsService userCountryStatsService;
+
+    @Autowired
+    private GlobeChangeService globeChangeService;
 
-    public GlobeDataResponseDto getMainGlobeData(UserAccount currentUser) {
+    @Autowired
+    private CountryBitsetService countryBitsetService;
+
+    @Value("${globe.marker-posts-limit:5}")
+    private int markerPostsLimit;
+
+    // With a version from an earlier response, only markers of countries changed since then are returned
+    public GlobeDataResponseDto getMainGlobeData(UserAccount currentUser, Long since) {
         List<Long> followedUserIds = followRepository.findFollowingUserIds(currentUser.getId());
         followedUserIds.add(currentUser.getId());
 
-        LocalDateTime since = LocalDateTime.of(2000, 1, 1, 0, 0);
-        List<Post> recentPosts = postRepository.findRecentPostsByFollowedUsers(followedUserIds, since);
-        
-        Map<String, List<Post>> postsByCountry = recentPosts.stream()
-                .collect(Collectors.groupingBy(post -> post.getCountry().getCode()));
-        
-        List<CountryMarkerDto> countryMarkers = postsByCountry.entrySet().stream()
-                .map(entry -> {
-                    String countryCode = entry.getKey();
-                    List<Post> countryPosts = entry.getValue();
-                    
-                    if (countryPosts.isEmpty()) return null;
-                    
-                    Country country = countryPosts.getFirst().getCountry();
-                    
-                    Map<Long, List<Post>> postsByUser = countryPosts.stream()
-                            .collect(Collectors.groupingBy(post -> post.getProfileOwner().getId()));
-                    
-                    List<UserSummaryDto> activeUsers = postsByUser.values().stream()
-                            .map(posts -> {
-                                UserAccount user = posts.getFirst().getProfileOwner();
-                                return mapToUserSummaryDto(user);
-                            })
-                            .collect(Collectors.toList());
-                    
-                    List<PostSummaryDto> recentPostSummaries = countryPosts.stream()
-                            .map(this::mapToPostSummaryDto)
-                            .collect(Collectors.toList());
-                    
-                    return new CountryMarkerDto(
-                            countryCode,
-                            country.getNameKey(),
-                            country.getLatitude(),
-                            country.getLongitude(),
-                            countryPosts.size(),
-                            countryPosts.getFirst().getCreatedAt(),
-                            activeUsers,
-                            recentPostSummaries
-                    );
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-        
+        // Read before the stats so a concurrent change is sent again on the next refresh
+        long version = globeChangeService.getVersion(followedUserIds, currentUser.getId());
+        List<UserCountryStats> stats = userCountryStatsService.getStatsForUsers(followedUserIds);
+        List<Long> changedCountryIds = since != null ? globeChangeService.findChangedCountryIds(followedUserIds, currentUser.getId(), since, version) : null;
+        boolean delta = changedCountryIds != null;
+
+        List<UserCountryStats> markerStats = stats;
+        List<String> removedCountryCodes = List.of();
+        if (delta) {
+            Set<Long> changed = new HashSet<>(changedCountryIds);
+            Set<Long> present = stats.stream().map(stat -> stat.getCountry().getId()).collect(Collectors.toSet());
+            markerStats = stats.stream().filter(stat -> changed.contains(stat.getCountry().getId())).toList();
+            List<Long> removedIds = changedCountryIds.stream().filter(countryId -> !present.contains(countryId)).toList();
+            removedCountryCodes = removedIds.isEmpty() ? List.of() : countryRepository.findAllById(removedIds).stream().map(Country::getCode).toList();
+        }
+
+        List<CountryMarkerDto> countryMarkers = mapStatsToCountryMarkers(markerStats, true);
+        LocalDateTime generatedAt = LocalDateTime.now();
+
         return new GlobeDataResponseDto(
                 "MAIN",
-                countryMarkers.size(),
-                recentPosts.size(),
-                LocalDateTime.now(),
-                countryMarkers
+                (int) stats.stream().map(stat -> stat.getCountry().getId()).distinct().count(),
+                stats.stream().mapToInt(UserCountryStats::getPostCount).sum(),
+                generatedAt,
+                generatedAt,
+                countryMarkers,
+                version,
+                delta,
+                removedCountryCodes
         );
     }
 
     public GlobeDataResponseDto getProfileGlobeData(Long userId) {
-        UserAccount user = userAccountRepository.findById(userId)
-                .orElseThrow(() -> new ServiceException(MessageUtil.getMessage("user.not.found")));
-        
-        List<Country> countriesVisited = postRepository.findDistinctCountriesByProfileOwnerId(userId);
-        
-        List<CountryMarkerDto> countryMarkers = countriesVisited.stream()
-                .map(country -> {
-                    List<Post> countryPosts = postRepository.findAllByProfileOwnerIdAndCountryIdOrderByCreatedAtDesc(
-                            userId, country.getId()
-                    );
-                    
-                    List<UserSummaryDto> activeUsers = List.of();
-                    
-                    List<PostSummaryDto> recentPostSummaries = countryPosts.stream()
-                            .map(this::mapToPostSummaryDto)
-                            .collect(Collectors.toList());
-                    
-                    LocalDateTime lastPostDate = countryPosts.isEmpty() ? 
-                            postRepository.findLastPostDateInCountryByIds(userId, country.getId()) : 
-                            countryPosts.getFirst().getCreatedAt();
-                    
-                    return new CountryMarkerDto(
-                            country.getCode(),
-                            country.getNameKey(),
-                            country.getLatitude(),
-                            country.getLongitude(),
-                            (int) postRepository.countByProfileOwnerIdAndCountryId(userId, country.getId()),
-                            lastPostDate,
-                            activeUsers,
-                            recentPostSummaries
-                    );
-                })
-                .collect(Collectors.toList());
-        
-        int totalPosts = countryMarkers.stream()
-                .mapToInt(CountryMarkerDto::recentPostsCount)
-                .sum();
-        
+        if (!userAccountRepository.existsById(userId))
+            throw new ServiceException(MessageUtil.getMessage("user.not.found"));
+
+        List<UserCountryStats> stats = userCountryStatsService.getUserStats(userId);
+        List<CountryMarkerDto> countryMarkers = mapStatsToCountryMarkers(stats, false);
+        LocalDateTime generatedAt = LocalDateTime.now();
+
         return new GlobeDataResponseDto(
                 "PROFILE",
                 countryMarkers.size(),
-                totalPosts,
-                LocalDateTime.now(),
+                countryMarkers.stream().mapToInt(CountryMarkerDto::recentPostsCount).sum(),
+                generatedAt,
+                generatedAt,
                 countryMarkers
         );
     }
 
-    public GlobeDataResponseDto getExploreGlobeData(String timeframe, int minPosts) {
-        int days = switch (timeframe.toLowerCase()) {
-            case "week" -> 7;
-            case "month" -> 30;
-            case "year" -> 365;
-            default -> 30;
-        };
-        
-        LocalDateTime since = LocalDateTime.now().minusDays(days);
-        List<Post> recentPosts = postRepository.findRecentPostsGlobally(since);
-        
-        Map<String, List<Post>> postsByCountry = recentPosts.stream()
-                .collect(Collectors.groupingBy(post -> post.getCountry().getCode()));
-        
-        List<CountryMarkerDto> countryMarkers = postsByCountry.entrySet().stream()
-                .map(entry -> {
-                    String countryCode = entry.getKey();
-                    List<Post> countryPosts = entry.getValue();
-                    
-                    if (countryPosts.isEmpty()) return null;
-                    
-                    Country country = countryPosts.getFirst().getCountry();
-                    
-                    Map<Long, List<Post>> postsByUser = countryPosts.stream()
-                            .collect(Collectors.groupingBy(post -> post.getProfileOwner().getId()));
-                    
-                    List<UserSummaryDto> activeUsers = postsByUser.entrySet().stream()
-                            .map(userEntry -> {
-                                UserAccount user = userEntry.getValue().getFirst().getProfileOwner();
-                                return mapToUserSummaryDto(user);
-                            })
-                            .collect(Collectors.toList());
-
-                    List<PostSummaryDto> popularPosts = countryPosts.stream()
-                            .sorted((p1, p2) -> Integer.compare(p2.getLikesCount(), p1.getLikesCount()))
-                            .map(this::mapToPostSummaryDto)
-                            .collect(Collectors.toList());
-                    
-                    return new CountryMarkerDto(
-                            countryCode,
-                            country.getNameKey(),
-                            country.getLatitude(),
-                            country.getLongitude(),
-                            countryPosts.size(),
-                            countryPosts.stream()
-                                    .max((p1, p2) -> p1.getCreatedAt().compareTo(p2.getCreatedAt()))
-                                    .map(Post::getCreatedAt)
-                                    .orElse(LocalDateTime.now()),
-                            activeUsers,
-                            popularPosts
-                    );
+    // Built for every user at once; served through ExploreGlobeSnapshotService rather than per request
+    @Transactional(readOnly = true)
+    public GlobeDataResponseDto buildExploreGlobeData(String timeframe) {
+        LocalDateTime generatedAt = LocalDateTime.now();
+        LocalDateTime since = generatedAt.minusDays(exploreDays(timeframe));
+        List<CountryActivityDto> activity = postRepository.findCountryActivitySince(since);
+        List<Long> topPostIds = postRepository.findTopLikedPostIdsPerCountrySince(since, markerPostsLimit);
+        List<PostSummaryRowDto> topPosts = topPostIds.isEmpty() ? List.of() : postRepository.findSummaryRowsByIdIn(topPostIds);
+        SummaryContext context = loadSummaryContext(topPosts, List.of());
+        Map<Long, List<PostSummaryRowDto>> topByCountry = groupByCountry(topPosts);
+
+        List<CountryMarkerDto> countryMarkers = activity.stream()
+                .filter(country -> context.countries().containsKey(country.countryId()))
+                .map(country -> {
+                    List<PostSummaryRowDto> popularPosts = topByCountry.getOrDefault(country.countryId(), List.of()).stream()
+                            .sorted(POPULAR_FIRST)
+                            .toList();
+                    return mapToCountryMarkerDto(context.countries().get(country.countryId()), country.postCount().intValue(), country.lastPostAt(),
+                            activeUsers(popularPosts, context), popularPosts, context);
                 })
-                .filter(Objects::nonNull)
                 .sorted((m1, m2) -> Integer.compare(m2.recentPostsCount(), m1.recentPostsCount()))
-                .collect(Collectors.toList());
+                .toList();
         
         return new GlobeDataResponseDto(
                 "EXPLORE",
                 countryMarkers.size(),
-                recentPosts.size(),
-                LocalDateTime.now(),
+                countryMarkers.stream().mapToInt(CountryMarkerDto::recentPostsCount).sum(),
+                generatedAt,
+                generatedAt,
                 countryMarkers
         );
     }
 
+    public NormalizedGlobeResponseDto normalize(GlobeDataResponseDto globe) {
+        Map<Long, UserSummaryDto> users = new LinkedHashMap<>();
+        List<NormalizedCountryMarkerDto> countryMarkers = globe.countryMarkers().stream()
+                .map(marker -> new NormalizedCountryMarkerDto(
+                        marker.countryCode(),
+                        marker.countryNameKey(),
+                        marker.latitude(),
+                        marker.longitude(),
+                        marker.recentPostsCount(),
+                        marker.lastPostDate(),
+                        marker.activeUsers().stream().map(user -> referenceUser(user, users)).toList(),
+                        marker.recentPosts().stream()
+                                .map(post -> new NormalizedPostSummaryDto(
+                                        post.id(),
+                                        referenceUser(post.author(), users),
+                                        post.cityName(),
+                                        post.cityLatitude(),
+                                        post.cityLongitude(),
+                                        post.thumbnailUrl(),
+                                        post.likesCount(),
+                                        post.createdAt()))
+                                .toList()))
+                .toList();
+
+        return new NormalizedGlobeResponseDto(
+                globe.globeType(),
+                globe.totalCountriesWithActivity(),
+                globe.totalRecentPosts(),
+                globe.lastUpdated(),
+                globe.generatedAt(),
+                countryMarkers,
+                users,
+                globe.version(),
+                globe.delta(),
+                globe.removedCountryCodes()
+        );
+    }
+
+    public Page<PostSummaryDto> getMainCountryPosts(UserAccount currentUser, String countryCode, Pageable pageable) {
+        List<Long> followedUserIds = followRepository.findFollowingUserIds(currentUser.getId());
+        followedUserIds.add(currentUser.getId());
+
+        Country country = findCountry(countryCode);
+        return mapToPostSummaryPage(postRepository.findSummaryRowsByProfileOwnerIdsAndCountryId(followedUserIds, country.getId(), pageable));
+    }
+
+    public Page<PostSummaryDto> getProfileCountryPosts(Long userId, String countryCode, Pageable pageable) {
+        if (!userAccountRepository.existsById(userId))
+            throw new ServiceException(MessageUtil.getMessage("user.not.found"));
+
+        Country country = findCountry(countryCode);
+        return mapToPostSummaryPage(postRepository.findSummaryRowsByProfileOwnerIdsAndCountryId(List.of(userId), country.getId(), pageable));
+    }
+
+    public Page<PostSummaryDto> getExploreCountryPosts(String countryCode, String timeframe, Pageable pageable) {
+        Country country = findCountry(countryCode);
+        return mapToPostSummaryPage(postRepository.findPopularSummaryRowsByCountryIdSince(country.getId(), LocalDateTime.now().minusDays(exploreDays(timeframe)), pageable));
+    }
+
     public Page<PostResponseDto> getCountryRecentPosts(UserAccount currentUser, String countryCode, int days, Pageable pageable) {
         List<Long> followedUserIds = followRepository.findFollowingUserIds(currentUser.getId());
         followedUserIds.add(currentUser.getId());
@@ -223,96 +220,143 @@ public class GlobeService {
                 followedUserIds, countryCode, since, pageable
         );
         
-        List<PostResponseDto> postDtos = posts.getContent().stream()
-                .map(post -> mapToPostResponseDto(post, currentUser))
-                .collect(Collectors.toList());
-        
-        return new PageImpl<>(postDtos, pageable, posts.getTotalElements());
+        return postHydrationService.hydratePage(posts, currentUser);
     }
     
-    private UserSummaryDto mapToUserSummaryDto(UserAccount user) {
-        int countriesCount = (int) postRepository.countDistinctCountriesByProfileOwnerId(user.getId());
-        
-        return new UserSummaryDto(
-                user.getId(),
-                user.getUsername(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getProfilePicture(),
-                countriesCount,
-                false
-        );
+    private Map<Long, List<PostSummaryRowDto>> groupByCountry(List<PostSummaryRowDto> posts) {
+        return posts.stream().collect(Collectors.groupingBy(PostSummaryRowDto::countryId, LinkedHashMap::new, Collectors.toList()));
     }
-    
-    private PostSummaryDto mapToPostSummaryDto(Post post) {
-        String thumbnailUrl = post.getMedia().stream()
-                .findFirst()
-                .map(media -> generateThumbnailUrl(media.getCloudinaryUrl()))
-                .orElse(null);
-        
-        return new PostSummaryDto(
-                post.getId(),
-                mapToUserSummaryDto(post.getAuthor()),
-                post.getCityName(),
-                post.getCityLatitude(),
-                post.getCityLongitude(),
-                thumbnailUrl,
-                (int) likePostService.getPostLikesCount(post.getId()),
-                post.getCreatedAt()
+
+    // Countries, users, visited-country counts and thumbnails for a whole globe in four queries
+    private SummaryContext loadSummaryContext(List<PostSummaryRowDto> posts, List<Long> extraUserIds) {
+        if (posts.isEmpty() && extraUserIds.isEmpty())
+            return new SummaryContext(Map.of(), Map.of(), Map.of(), Map.of());
+
+        Set<Long> countryIds = posts.stream().map(PostSummaryRowDto::countryId).collect(Collectors.toSet());
+        Set<Long> userIdSet = new HashSet<>(extraUserIds);
+        posts.forEach(post -> {
+            userIdSet.add(post.authorId());
+            userIdSet.add(post.profileOwnerId());
+        });
+        List<Long> userIds = new ArrayList<>(userIdSet);
+        List<Long> postIds = posts.stream().map(PostSummaryRowDto::id).toList();
+
+        Map<Long, Country> countries = countryRepository.findAllById(countryIds).stream()
+                .collect(Collectors.toMap(Country::getId, Function.identity()));
+        Map<Long, UserAccount> users = userAccountRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(UserAccount::getId, Function.identity()));
+        Map<Long, Long> countriesVisited = countryBitsetService.countCountries(userIds);
+        Map<Long, String> thumbnails = postMediaRepository.findThumbnailsByPostIdIn(postIds).stream()
+                .collect(Collectors.toMap(PostThumbnailDto::postId, PostThumbnailDto::cloudinaryUrl, (first, second) -> first));
+
+        return new SummaryContext(countries, users, countriesVisited, thumbnails);
+    }
+
+    // Stats rows arrive newest first, so markers come out ordered by each country's last post
+    private List<CountryMarkerDto> mapStatsToCountryMarkers(List<UserCountryStats> stats, boolean includeActiveUsers) {
+        List<Long> userIds = stats.stream().map(stat -> stat.getUser().getId()).distinct().toList();
+        // Already ranked per country in SQL, newest first
+        List<PostSummaryRowDto> candidates = userIds.isEmpty() ? List.of() : postRepository.findLatestSummaryRowsPerCountry(userIds, markerPostsLimit).stream()
+                .map(row -> new PostSummaryRowDto(row.getId(), row.getCountryId(), row.getAuthorId(), row.getProfileOwnerId(), row.getCityName(),
+                        row.getCityLatitude(), row.getCityLongitude(), row.getLikesCount(), row.getCreatedAt()))
+                .toList();
+        SummaryContext context = loadSummaryContext(candidates, includeActiveUsers ? userIds : List.of());
+        Map<Long, List<PostSummaryRowDto>> candidatesByCountry = groupByCountry(candidates);
+
+        Map<Long, List<UserCountryStats>> statsByCountry = stats.stream()
+                .collect(Collectors.groupingBy(stat -> stat.getCountry().getId(), LinkedHashMap::new, Collectors.toList()));
+
+        return statsByCountry.values().stream()
+                .map(countryStats -> {
+                    Country country = countryStats.getFirst().getCountry();
+                    List<PostSummaryRowDto> shownPosts = candidatesByCountry.getOrDefault(country.getId(), List.of()).stream()
+                            .limit(markerPostsLimit)
+                            .toList();
+                    List<UserSummaryDto> activeUsers = includeActiveUsers
+                            ? countryStats.stream().map(stat -> mapToUserSummaryDto(stat.getUser().getId(), context)).toList()
+                            : List.of();
+                    return mapToCountryMarkerDto(country,
+                            countryStats.stream().mapToInt(UserCountryStats::getPostCount).sum(),
+                            countryStats.getFirst().getLastPostAt(),
+                            activeUsers,
+                            shownPosts,
+                            context);
+                })
+                .collect(Collectors.toList());
+    }
+
+    private Page<PostSummaryDto> mapToPostSummaryPage(Page<PostSummaryRowDto> rows) {
+        SummaryContext context = loadSummaryContext(rows.getContent(), List.of());
+        return rows.map(post -> mapToPostSummaryDto(post, context));
+    }
+
+    private Country findCountry(String countryCode) {
+        return countryRepository.findByCode(countryCode)
+                .orElseThrow(() -> new ServiceException(MessageUtil.getMessage("country.not.found")));
+    }
+
+    public static int exploreDays(String timeframe) {
+        return switch (timeframe.toLowerCase()) {
+            case "week" -> 7;
+            case "month" -> 30;
+            case "year" -> 365;
+            default -> 30;
+        };
+    }
+
+    private CountryMarkerDto mapToCountryMarkerDto(Country country, int postCount, LocalDateTime lastPostDate, List<UserSummaryDto> activeUsers, List<PostSummaryRowDto> shownPosts, SummaryContext context) {
+        return new CountryMarkerDto(
+                country.getCode(),
+                country.getNameKey(),
+                country.getLatitude(),
+                country.getLongitude(),
+                postCount,
+                lastPostDate,
+                activeUsers,
+                shownPosts.stream().map(post -> mapToPostSummaryDto(post, context)).toList()
         );
     }
-    
-    private PostResponseDto mapToPostResponseDto(Post post, UserAccount currentUser) {
-        List<MediaDto> mediaDtos = post.getMedia().stream()
-                .map(media -> new MediaDto(
-                        media.getId(),
-                        media.getFileName(),
-                        media.getCloudinaryPublicId(),
-                        media.getCloudinaryUrl(),
-                        generateThumbnailUrl(media.getCloudinaryUrl()),
-                        media.getMediaType(),
-                        media.getFileSize(),
-                        media.getWidth(),
-                        media.getHeight(),
-                        media.getSortOrder(),
-                        media.getUploadedAt()
-                ))
+
+    private List<UserSummaryDto> activeUsers(List<PostSummaryRowDto> countryPosts, SummaryContext context) {
+        return countryPosts.stream()
+                .map(PostSummaryRowDto::profileOwnerId)
+                .distinct()
+                .map(userId -> mapToUserSummaryDto(userId, context))
                 .collect(Collectors.toList());
-        
-        boolean isLiked = likePostRepository.existsByUserIdAndPostId(currentUser.getId(), post.getId());
-        
-        return new PostResponseDto(
-                post.getId(),
-                mapToUserSummaryDto(post.getAuthor()),
-                mapToUserSummaryDto(post.getProfileOwner()),
-                new CountryDto(
-                        post.getCountry().getId(),
-                        post.getCountry().getCode(),
-                        post.getCountry().getNameKey(),
-                        post.getCountry().getLatitude(),
-                        post.getCountry().getLongitude(),
-                        post.getCountry().getTimezone()
-                ),
-                new CollectionDto(
-                        post.getCollection().getId(),
-                        post.getCollection().getCode(),
-                        post.getCollection().getNameKey(),
-                        post.getCollection().getIconName(),
-                        post.getCollection().getSortOrder(),
-                        post.getCollection().getIsDefault()
-                ),
-                post.getCityName(),
-                post.getCityLatitude(),
-                post.getCityLongitude(),
-                post.getCaption(),
-                mediaDtos,
-                (int) likePostService.getPostLikesCount(post.getId()),
-                (int) commentService.getPostCommentsCount(post.getId()),
-                isLiked,
-                post.getVisibilityType(),
-                post.getSharedPostGroupId(),
-                post.getCreatedAt(),
-                post.getUpdatedAt()
+    }
+
+    // One summary instance per user and response, shared by every marker and post that references it
+    private UserSummaryDto mapToUserSummaryDto(Long userId, SummaryContext context) {
+        return context.userSummaries().computeIfAbsent(userId, id -> {
+            UserAccount user = context.users().get(id);
+
+            return new UserSummaryDto(
+                    user.getId(),
+                    user.getUsername(),
+                    user.getFirstName(),
+                    user.getLastName(),
+                    user.getProfilePicture(),
+                    context.countriesVisited().getOrDefault(id, 0L).intValue(),
+                    false
+            );
+        });
+    }
+
+    private Long referenceUser(UserSummaryDto user, Map<Long, UserSummaryDto> users) {
+        users.putIfAbsent(user.id(), user);
+        return user.id();
+    }
+    
+    private PostSummaryDto mapToPostSummaryDto(PostSummaryRowDto post, SummaryContext context) {
+        return new PostSummaryDto(
+                post.id(),
+                mapToUserSummaryDto(post.authorId(), context),
+                post.cityName(),
+                post.cityLatitude(),
+                post.cityLongitude(),
+                generateThumbnailUrl(context.thumbnails().get(post.id())),
+                post.likesCount(),
+                post.createdAt()
         );
     }
     
@@ -326,4 +370,11 @@ public class GlobeService {
         
         return baseUrl + "c_fill,w_150,h_150/" + filename;
     }
-}
\ No newline at end of file
+
+    private record SummaryContext(Map<Long, Country> countries, Map<Long, UserAccount> users, Map<Long, Long> countriesVisited, Map<Long, String> thumbnails, Map<Long, UserSummaryDto> userSummaries) {
+
+        SummaryContext(Map<Long, Country> countries, Map<Long, UserAccount> users, Map<Long, Long> countriesVisited, Map<Long, String> thumbnails) {
+            this(countries, users, countriesVisited, thumbnails, new HashMap<>());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.sora.backend.service;
+
+import com.sora.backend.dto.GeoClusterDto;
+import com.sora.backend.exception.ServiceException;
+import com.sora.backend.util.MessageUtil;
+import com.sora.backend.util.WebMercator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.LinearGradientPaint;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Renders 256px Web Mercator post density tiles from the geohash cell centroids in geo_cell_cluster.
+ * PNGs are cached by TileCacheService under the current data version.
+ */
+@Service
+public class HeatmapTileService {
+
+    public static final int TILE_SIZE = 256;
+
+    // Served for every tile without clusters, so ocean tiles are neither drawn nor written to disk
+    private static final byte[] EMPTY_TILE = toPng(new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB));
+
+    // Finest cell is about 1/16 of the tile width so blobs stay smooth at every zoom
+    private static final int CELLS_PER_TILE = 16;
+
+    @Autowired
+    private GeoClusterService geoClusterService;
+
+    @Autowired
+    private TileCacheService tileCacheService;
+
+    @Value("${globe.tiles.max-zoom:12}")
+    private int maxZoom;
+
+    @Value("${globe.tiles.max-cells:2048}")
+    private int maxCells;
+
+    @Value("${globe.tiles.radius-px:16}")
+    private int radiusPx;
+
+    @Value("${globe.tiles.saturation:6.0}")
+    private double saturation;
+
+    private final int[] palette = buildPalette();
+
+    public TileCacheService.CachedTile getTile(int zoom, int x, int y) throws IOException {
+        if (!WebMercator.isValidTile(zoom, x, y, maxZoom))
+            throw new ServiceException(MessageUtil.getMessage("globe.tile.invalid"));
+        return tileCacheService.getOrRender("heatmap", zoom, x, y, EMPTY_TILE, () -> render(zoom, x, y));
+    }
+
+    private byte[] render(int zoom, int x, int y) throws IOException {
+        float[] density = new float[TILE_SIZE * TILE_SIZE];
+        float[] kernel = buildKernel(radiusPx);
+        int kernelSize = radiusPx * 2 + 1;
+
+        // Padded by the blob radius so blobs centred in neighbouring tiles bleed across the seam
+        WebMercator.Bounds bounds = WebMercator.tileBounds(zoom, x, y, (double) radiusPx / TILE_SIZE);
+        double targetCellWidth = 360.0 / (1 << zoom) / CELLS_PER_TILE;
+        List<GeoClusterDto> clusters = geoClusterService.findClustersInBox(bounds.minLat(), bounds.minLng(), bounds.maxLat(), bounds.maxLng(), targetCellWidth, maxCells);
+        if (clusters.isEmpty())
+            return null;
+
+        for (GeoClusterDto cluster : clusters) {
+            double px = WebMercator.pixelX(cluster.longitude(), zoom, x, TILE_SIZE);
+            double py = WebMercator.pixelY(cluster.latitude(), zoom, y, TILE_SIZE);
+
+            int cx = (int) Math.round(px);
+            int cy = (int) Math.round(py);
+            float weight = (float) Math.log1p(cluster.postCount());
+            for (int ky = 0; ky < kernelSize; ky++) {
+                int ty = cy + ky - radiusPx;
+                if (ty < 0 || ty >= TILE_SIZE)
+                    continue;
+                for (int kx = 0; kx < kernelSize; kx++) {
+                    int tx = cx + kx - radiusPx;
+                    if (tx < 0 || tx >= TILE_SIZE)
+                        continue;
+                    density[ty * TILE_SIZE + tx] += weight * kernel[ky * kernelSize + kx];
+                }
+            }
+        }
+
+        // Fixed saturation rather than per-tile normalisation, so neighbouring tiles share one scale
+        BufferedImage image = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = new int[TILE_SIZE * TILE_SIZE];
+        for (int i = 0; i < pixels.length; i++) {
+            if (density[i] <= 0)
+                continue;
+            double level = Math.min(1.0, density[i] / saturation);
+            int color = palette[(int) Math.round(level * (palette.length - 1))];
+            int alpha = (int) Math.round(Math.sqrt(level) * 220);
+            pixels[i] = (alpha << 24) | (color & 0x00FFFFFF);
+        }
+        image.setRGB(0, 0, TILE_SIZE, TILE_SIZE, pixels, 0, TILE_SIZE);
+        return toPng(image);
+    }
+
+    private static byte[] toPng(BufferedImage image) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static float[] buildKernel(int radius) {
+        int size = radius * 2 + 1;
+        float[] kernel = new float[size * size];
+        double sigma = radius / 2.0;
+        for (int ky = 0; ky < size; ky++) {
+            for (int kx = 0; kx < size; kx++) {
+                double dx = kx - radius;
+                double dy = ky - radius;
+                kernel[ky * size + kx] = (float) Math.exp(-(dx * dx + dy * dy) / (2 * sigma * sigma));
+            }
+        }
+        return kernel;
+    }
+
+    private static int[] buildPalette() {
+        BufferedImage ramp = new BufferedImage(256, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = ramp.createGraphics();
+        graphics.setPaint(new LinearGradientPaint(0, 0, 255, 0,
+                new float[] {0f, 0.35f, 0.6f, 0.8f, 1f},
+                new Color[] {new Color(0, 0, 255), new Color(0, 255, 255), new Color(0, 255, 0), new Color(255, 255, 0), new Color(255, 0, 0)}));
+        graphics.fillRect(0, 0, 256, 1);
+        graphics.dispose();
+        return ramp.getRGB(0, 0, 256, 1, null, 0, 256);
+    }
+}
@@ -8,12 +8,15 @@ import com.sora.backend.repository.LikePostRepository;
 import com.sora.backend.repository.PostRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import com.sora.backend.util.MessageUtil;
+import com.sora.backend.util.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -29,6 +32,18 @@ public class LikePostService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private PostCounterService postCounterService;
+
+    @Autowired
+    private FeedCacheService feedCacheService;
+
+    @Autowired
+    private CountryActivityService countryActivityService;
+
+    @Autowired
+    private UserTravelStatsService userTravelStatsService;
+
 
     public LikePost likePost(UserAccount user, Long postId) {
         Post post = postRepository.findById(postId).orElseThrow(() -> new ServiceException(MessageUtil.getMessage("post.not.found")));
@@ -45,6 +60,10 @@ public class LikePostService {
         like.setCreatedAt(LocalDateTime.now());
 
         LikePost savedLike = likePostRepository.save(like);
+        postCounterService.incrementLikes(postId, 1);
+        countryActivityService.onLikeChanged(post, savedLike.getCreatedAt(), 1);
+        userTravelStatsService.onLikeChanged(post, 1);
+        feedCacheService.evict(user.getId());
 
         if (post.getAuthor() != null && !post.getAuthor().getId().equals(user.getId())) {
             notificationService.createLikeNotification(post.getAuthor(), user, post);
@@ -59,6 +78,10 @@ public class LikePostService {
 
         if (likeOpt.isPresent()) {
             likePostRepository.deleteByUserIdAndPostId(user.getId(), postId);
+            postCounterService.incrementLikes(postId, -1);
+            countryActivityService.onLikeChanged(post, likeOpt.get().getCreatedAt(), -1);
+            userTravelStatsService.onLikeChanged(post, -1);
+            feedCacheService.evict(user.getId());
         }
     }
 
@@ -69,8 +92,8 @@ public class LikePostService {
 
     @Transactional(readOnly = true)
     public long getPostLikesCount(Long postId) {
-        // Verify post exists first
-        postRepository.findById(postId).orElseThrow(() -> new ServiceException(MessageUtil.getMessage("post.not.found")));
+        if (!postRepository.existsById(postId))
+            throw new ServiceException(MessageUtil.getMessage("post.not.found"));
         return likePostRepository.countByPostId(postId);
     }
 
@@ -80,6 +103,15 @@ public class LikePostService {
         postRepository.findById(postId).orElseThrow(() -> new ServiceException(MessageUtil.getMessage("post.not.found")));
         return likePostRepository.findByPostId(postId, pageable);
     }
+
+    @Transactional(readOnly = true)
+    public Slice<LikePost> getPostLikesAfter(Long postId, PageCursor cursor, int size) {
+        if (!postRepository.existsById(postId))
+            throw new ServiceException(MessageUtil.getMessage("post.not.found"));
+
+        List<LikePost> rows = likePostRepository.findByPostIdBefore(postId, cursor.createdAt(), cursor.id(), PageCursor.window(size));
+        return PageCursor.toSlice(rows, size);
+    }
     
     public LikePost likePost(Long postId, UserAccount user) {
         return likePost(user, postId);
@@ -8,14 +8,18 @@ import com.sora.backend.model.Post;
 import com.sora.backend.model.UserAccount;
 import com.sora.backend.repository.NotificationRepository;
 import com.sora.backend.util.MessageUtil;
+import com.sora.backend.util.PageCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @Transactional
 public class NotificationService {
@@ -85,6 +89,13 @@ public class NotificationService {
         return notificationRepository.findByRecipientId(userId, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<Notification> getUserNotificationsAfter(Long userId, PageCursor cursor, int size) {
+        log.debug("Fetching notifications for user {} after cursor", userId);
+        List<Notification> rows = notificationRepository.findByRecipientIdBefore(userId, cursor.createdAt(), cursor.id(), PageCursor.window(size));
+        return PageCursor.toSlice(rows, size);
+    }
+
     @Transactional(readOnly = true)
     public Long getUnreadCount(Long userId) {
         log.debug("Counting unread notifications for user {}", userId);
@@ -0,0 +1,101 @@
+package com.sora.backend.service;
+
+import com.sora.backend.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Buffers like/comment counter increments in memory and flushes coalesced deltas to the
+ * post counters on a short interval, so bursts on one post become a single row update.
+ */
+@Service
+public class PostCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostCounterService.class);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    private final Stripe[] stripes;
+
+    public PostCounterService(@Value("${counters.stripes:16}") int stripeCount) {
+        this.stripes = new Stripe[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++)
+            stripes[i] = new Stripe();
+    }
+
+    public void incrementLikes(Long postId, int delta) {
+        record(postId, delta, 0);
+    }
+
+    public void incrementComments(Long postId, int delta) {
+        record(postId, 0, delta);
+    }
+
+    @Scheduled(fixedDelayString = "${counters.flush-interval-ms:2000}")
+    public void flush() {
+        for (Stripe stripe : stripes) {
+            Map<Long, int[]> drained = stripe.drain();
+            drained.forEach((postId, delta) -> {
+                if (delta[0] == 0 && delta[1] == 0)
+                    return;
+                try {
+                    postRepository.applyCounterDeltas(postId, delta[0], delta[1]);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to flush counters for post {}, retrying on next flush", postId, e);
+                    stripe.add(postId, delta[0], delta[1]);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void record(Long postId, int likesDelta, int commentsDelta) {
+        // Only committed writes reach the counters; a rolled back like or comment never existed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stripeFor(postId).add(postId, likesDelta, commentsDelta);
+                }
+            });
+            return;
+        }
+        stripeFor(postId).add(postId, likesDelta, commentsDelta);
+    }
+
+    private Stripe stripeFor(Long postId) {
+        return stripes[(Long.hashCode(postId) & Integer.MAX_VALUE) % stripes.length];
+    }
+
+    private static final class Stripe {
+
+        private Map<Long, int[]> pending = new HashMap<>();
+
+        synchronized void add(Long postId, int likesDelta, int commentsDelta) {
+            int[] delta = pending.computeIfAbsent(postId, id -> new int[2]);
+            delta[0] += likesDelta;
+            delta[1] += commentsDelta;
+        }
+
+        synchronized Map<Long, int[]> drain() {
+            Map<Long, int[]> drained = pending;
+            pending = new HashMap<>();
+            return drained;
+        }
+    }
+}
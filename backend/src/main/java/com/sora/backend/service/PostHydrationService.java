@@ -0,0 +1,182 @@
+package com.sora.backend.service;
+
+import com.sora.backend.dto.*;
+import com.sora.backend.model.Collection;
+import com.sora.backend.model.Country;
+import com.sora.backend.model.Post;
+import com.sora.backend.model.PostMedia;
+import com.sora.backend.model.UserAccount;
+import com.sora.backend.repository.CommentRepository;
+import com.sora.backend.repository.FollowRepository;
+import com.sora.backend.repository.LikePostRepository;
+import com.sora.backend.repository.PostMediaRepository;
+import com.sora.backend.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds PostResponseDto lists with a fixed number of grouped queries per page instead of
+ * several lookups per post.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PostHydrationService {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostMediaRepository postMediaRepository;
+
+    @Autowired
+    private LikePostRepository likePostRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private CountryBitsetService countryBitsetService;
+
+    public PostResponseDto hydrate(Post post, UserAccount viewer) {
+        return hydrate(List.of(post), viewer).getFirst();
+    }
+
+    public Page<PostResponseDto> hydratePage(Page<Post> posts, UserAccount viewer) {
+        return new PageImpl<>(hydrate(posts.getContent(), viewer), posts.getPageable(), posts.getTotalElements());
+    }
+
+    public List<PostResponseDto> hydrate(List<Post> posts, UserAccount viewer) {
+        if (posts.isEmpty())
+            return List.of();
+
+        List<Long> postIds = posts.stream().map(Post::getId).distinct().toList();
+
+        // Initializes author, profile owner, country and collection of the already managed posts in one pass
+        postRepository.findAllWithAssociationsByIdIn(postIds);
+
+        Map<Long, List<PostMedia>> mediaByPost = postMediaRepository.findByPostIdIn(postIds).stream()
+                .collect(Collectors.groupingBy(media -> media.getPost().getId()));
+        Map<Long, Long> likesByPost = toCountMap(likePostRepository.countByPostIds(postIds));
+        Map<Long, Long> commentsByPost = toCountMap(commentRepository.countByPostIds(postIds));
+        Set<Long> likedByViewer = viewer != null
+                ? new HashSet<>(likePostRepository.findLikedPostIds(viewer.getId(), postIds))
+                : Set.of();
+
+        Set<Long> userIdSet = new LinkedHashSet<>();
+        for (Post post : posts) {
+            userIdSet.add(post.getAuthor().getId());
+            userIdSet.add(post.getProfileOwner().getId());
+        }
+        List<Long> userIds = new ArrayList<>(userIdSet);
+        Map<Long, Long> countriesByUser = countryBitsetService.countCountries(userIds);
+        Set<Long> followedByViewer = viewer != null
+                ? new HashSet<>(followRepository.findFollowingUserIdsIn(viewer.getId(), userIds))
+                : Set.of();
+
+        Map<Long, UserSummaryDto> users = new HashMap<>();
+        for (Post post : posts) {
+            for (UserAccount user : List.of(post.getAuthor(), post.getProfileOwner())) {
+                users.computeIfAbsent(user.getId(), id -> mapToUserSummaryDto(user,
+                        countriesByUser.getOrDefault(id, 0L).intValue(),
+                        followedByViewer.contains(id)));
+            }
+        }
+
+        return posts.stream()
+                .map(post -> new PostResponseDto(
+                        post.getId(),
+                        users.get(post.getAuthor().getId()),
+                        users.get(post.getProfileOwner().getId()),
+                        mapToCountryDto(post.getCountry()),
+                        mapToCollectionDto(post.getCollection()),
+                        post.getCityName(),
+                        post.getCityLatitude(),
+                        post.getCityLongitude(),
+                        post.getCaption(),
+                        mediaByPost.getOrDefault(post.getId(), List.of()).stream().map(this::mapToMediaDto).toList(),
+                        likesByPost.getOrDefault(post.getId(), 0L).intValue(),
+                        commentsByPost.getOrDefault(post.getId(), 0L).intValue(),
+                        likedByViewer.contains(post.getId()),
+                        post.getVisibilityType(),
+                        post.getSharedPostGroupId(),
+                        post.getCreatedAt(),
+                        post.getUpdatedAt()
+                ))
+                .toList();
+    }
+
+    public MediaDto mapToMediaDto(PostMedia media) {
+        String thumbnailUrl = media.getCloudinaryUrl() != null ?
+                media.getCloudinaryUrl().replace("/upload/", "/upload/c_fill,w_300,h_300/") : null;
+
+        return new MediaDto(
+                media.getId(),
+                media.getFileName(),
+                media.getCloudinaryPublicId(),
+                media.getCloudinaryUrl(),
+                thumbnailUrl,
+                media.getMediaType(),
+                media.getFileSize(),
+                media.getWidth(),
+                media.getHeight(),
+                media.getSortOrder(),
+                media.getUploadedAt()
+        );
+    }
+
+    private Map<Long, Long> toCountMap(List<IdCountDto> counts) {
+        return counts.stream().collect(Collectors.toMap(IdCountDto::id, IdCountDto::count));
+    }
+
+    private UserSummaryDto mapToUserSummaryDto(UserAccount user, int countriesVisitedCount, boolean isFollowed) {
+        return new UserSummaryDto(
+                user.getId(),
+                user.getUsername(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getProfilePicture(),
+                countriesVisitedCount,
+                isFollowed
+        );
+    }
+
+    private CountryDto mapToCountryDto(Country country) {
+        return new CountryDto(
+                country.getId(),
+                country.getCode(),
+                country.getNameKey(),
+                country.getLatitude(),
+                country.getLongitude(),
+                country.getTimezone()
+        );
+    }
+
+    private CollectionDto mapToCollectionDto(Collection collection) {
+        if (collection == null)
+            return null;
+
+        return new CollectionDto(
+                collection.getId(),
+                collection.getCode(),
+                collection.getNameKey(),
+                collection.getIconName(),
+                collection.getSortOrder(),
+                collection.getIsDefault()
+        );
+    }
+}
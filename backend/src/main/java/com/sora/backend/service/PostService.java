@@ -18,11 +18,16 @@ import com.sora.backend.repository.PostRepository;
 import com.sora.backend.repository.TravelPermissionRepository;
 import com.sora.backend.repository.UserAccountRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.sora.backend.util.Geohash;
 import com.sora.backend.util.MessageUtil;
+import com.sora.backend.util.PageCursor;
+import com.sora.backend.util.PageUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -30,7 +35,11 @@ import org.springframework.web.multipart.MultipartFile;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -66,11 +75,31 @@ public class PostService {
     private LikePostRepository likePostRepository;
 
     @Autowired
-    private LikePostService likePostService;
+    private FeedService feedService;
 
     @Autowired
-    private CommentService commentService;
+    private CountCacheService countCacheService;
 
+    @Autowired
+    private TrendingRankingService trendingRankingService;
+
+    @Autowired
+    private FeedCacheService feedCacheService;
+
+    @Autowired
+    private UserCountryStatsService userCountryStatsService;
+
+    @Autowired
+    private CountryActivityService countryActivityService;
+
+    @Autowired
+    private UserTravelStatsService userTravelStatsService;
+
+    @Autowired
+    private GeoClusterService geoClusterService;
+
+    @Autowired
+    private PostHydrationService postHydrationService;
 
     public List<Post> createPost(UserAccount author, String countryCode, String collectionCode, String cityName, Double cityLatitude, Double cityLongitude, String caption, String collaborationOption, Long collaboratorUserId, String sharingOption) {
         Country country = countryRepository.findByCode(countryCode).orElseThrow(() -> new ServiceException(MessageUtil.getMessage("country.not.found")));
@@ -111,12 +140,20 @@ public class PostService {
         post.setCityName(cityName);
         post.setCityLatitude(cityLatitude);
         post.setCityLongitude(cityLongitude);
+        if (cityLatitude != null && cityLongitude != null)
+            post.setGeohash(Geohash.encode(cityLatitude, cityLongitude, Geohash.POST_PRECISION));
         post.setCaption(caption);
         post.setVisibilityType(visibilityType);
         post.setSharedPostGroupId(sharedPostGroupId);
         post.setCreatedAt(LocalDateTime.now());
         post.setUpdatedAt(LocalDateTime.now());
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        feedService.fanOutPost(savedPost);
+        userCountryStatsService.onPostCreated(savedPost);
+        userTravelStatsService.onPostCreated(savedPost);
+        countryActivityService.onPostCreated(savedPost);
+        geoClusterService.onPostCreated(savedPost);
+        return savedPost;
     }
 
     private void validateCollaborationPermission(UserAccount author, UserAccount collaborator, Country country) {
@@ -148,6 +185,7 @@ public class PostService {
                 throw new ServiceException(MessageUtil.getMessage("file.upload.failed"), e);
             }
         }
+        userCountryStatsService.onPostMediaChanged(post);
         return mediaList;
     }
 
@@ -189,7 +227,10 @@ public class PostService {
         }
         if (caption != null) post.setCaption(caption);
         post.setUpdatedAt(LocalDateTime.now());
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        // Feed entries reference the post, so an edit only has to drop cached pages rendering the old caption
+        feedCacheService.onPostUpdated(postId);
+        return savedPost;
     }
 
     public void deletePost(Long postId, UserAccount currentUser) {
@@ -205,6 +246,11 @@ public class PostService {
         }
         postMediaRepository.deleteByPostId(postId);
         postRepository.delete(post);
+        feedCacheService.onPostDeleted(postId);
+        userCountryStatsService.onPostDeleted(post.getProfileOwner().getId(), post.getCountry().getId());
+        userTravelStatsService.onPostDeleted(post);
+        countryActivityService.onPostDeleted(post);
+        geoClusterService.onPostDeleted(post);
     }
 
     private void validatePostEditPermission(Post post, UserAccount currentUser) {
@@ -222,30 +268,96 @@ public class PostService {
     }
 
     @Transactional(readOnly = true)
-    public Page<Post> getFeedPosts(List<Long> followedUserIds, Pageable pageable) {
-        return postRepository.findByProfileOwnerIdInOrderByCreatedAtDesc(followedUserIds, pageable);
+    public Page<Post> getFeedPosts(UserAccount user, Pageable pageable) {
+        return feedService.getFeedPosts(user, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Post> getFeedPostsWithApproximateTotal(UserAccount user, Pageable pageable) {
+        return feedService.getFeedPostsWithApproximateTotal(user, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<Post> getFeedPostsAfter(UserAccount user, PageCursor cursor, int size) {
+        return feedService.getFeedPostsAfter(user, cursor, size);
     }
 
     @Transactional(readOnly = true)
     public Page<Post> getExplorePosts(String timeframe, Pageable pageable) {
-        LocalDateTime cutoffDate = calculateCutoffDate(timeframe);
-        return postRepository.findTrendingPosts(cutoffDate, pageable);
+        TrendingRankingService.Snapshot snapshot = trendingRankingService.getSnapshot(timeframe, null);
+        return getExplorePage(snapshot, pageable, postRepository.countByCreatedAtSince(snapshot.cutoffDate()));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Post> getExplorePostsWithApproximateTotal(String timeframe, Pageable pageable) {
+        TrendingRankingService.Snapshot snapshot = trendingRankingService.getSnapshot(timeframe, null);
+        long total = countCacheService.getApproximateCount("explore:" + TrendingRankingService.normalize(timeframe), () -> postRepository.countByCreatedAtSince(snapshot.cutoffDate()));
+        return getExplorePage(snapshot, pageable, total);
+    }
+
+    // Offsets inside the snapshot read the ranking; beyond it they continue into the live tail
+    private Page<Post> getExplorePage(TrendingRankingService.Snapshot snapshot, Pageable pageable, long total) {
+        List<TrendingRankingService.RankedPost> ranking = snapshot.entries();
+        long offset = pageable.getOffset();
+        int from = (int) Math.min(offset, ranking.size());
+        int to = (int) Math.min(offset + pageable.getPageSize(), ranking.size());
+
+        List<Post> posts = new ArrayList<>(loadRanked(ranking.subList(from, to)));
+        int remaining = pageable.getPageSize() - (to - from);
+        if (remaining > 0) {
+            PageCursor start = PageCursor.first();
+            posts.addAll(postRepository.findTrendingTail(snapshot.cutoffDate(), excludedIds(snapshot), start.createdAt(), start.id(), Math.max(offset - ranking.size(), 0), remaining));
+        }
+        return new PageImpl<>(posts, pageable, total);
+    }
+
+    public TrendingRankingService.Snapshot getExploreSnapshot(String timeframe, PageCursor cursor) {
+        return trendingRankingService.getSnapshot(timeframe, cursor.version());
+    }
+
+    // Pages through the snapshot the cursor was taken from, so rebuilds in between neither repeat nor skip posts,
+    // then through the posts that snapshot left out
+    @Transactional(readOnly = true)
+    public Slice<Post> getExplorePostsAfter(TrendingRankingService.Snapshot snapshot, PageCursor cursor, int size) {
+        List<TrendingRankingService.RankedPost> ranking = snapshot.entries();
+        List<Post> posts = new ArrayList<>();
+        PageCursor tailStart = cursor;
+
+        if (cursor.score() != null) {
+            int from = Math.min(trendingRankingService.positionAfter(snapshot, cursor), ranking.size());
+            // Keep reading past posts deleted since the rebuild so pages stay full
+            while (posts.size() <= size && from < ranking.size()) {
+                int to = Math.min(from + size + 1 - posts.size(), ranking.size());
+                posts.addAll(loadRanked(ranking.subList(from, to)));
+                from = to;
+            }
+            tailStart = PageCursor.first();
+        }
+
+        if (posts.size() <= size)
+            posts.addAll(postRepository.findTrendingTail(snapshot.cutoffDate(), excludedIds(snapshot), tailStart.createdAt(), tailStart.id(), 0, size + 1 - posts.size()));
+        return PageCursor.toSlice(posts, size);
+    }
+
+    // Post ids start at 1, so 0 keeps the NOT IN list valid for an empty snapshot
+    private List<Long> excludedIds(TrendingRankingService.Snapshot snapshot) {
+        return snapshot.entries().isEmpty() ? List.of(0L) : List.copyOf(snapshot.positions().keySet());
     }
 
-    private LocalDateTime calculateCutoffDate(String timeframe) {
-        return switch (timeframe.toLowerCase()) {
-            case "week" -> LocalDateTime.now().minusWeeks(1);
-            case "month" -> LocalDateTime.now().minusMonths(1);
-            case "all" -> LocalDateTime.of(2000, 1, 1, 0, 0);
-            default -> LocalDateTime.now().minusWeeks(1);
-        };
+    private List<Post> loadRanked(List<TrendingRankingService.RankedPost> ranked) {
+        List<Long> ids = ranked.stream().map(TrendingRankingService.RankedPost::postId).toList();
+        Map<Long, Post> postsById = postRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        // Posts deleted since the last rebuild are skipped
+        return ids.stream().map(postsById::get).filter(Objects::nonNull).toList();
     }
 
     @Transactional(readOnly = true)
-    public List<Post> getRecentPostsByCountry(String countryCode, int daysSince) {
+    public Slice<Post> getCountryTimeline(String countryCode, PageCursor cursor, int size) {
         Country country = countryRepository.findByCode(countryCode).orElseThrow(() -> new ServiceException(MessageUtil.getMessage("country.not.found")));
-        LocalDateTime since = LocalDateTime.now().minusDays(daysSince);
-        return postRepository.findByCountryIdAndCreatedAtAfterOrderByCreatedAtDesc(country.getId(), since);
+        List<Post> rows = postRepository.findByCountryIdBefore(country.getId(), cursor.createdAt(), cursor.id(), PageCursor.window(size));
+        return PageCursor.toSlice(rows, size);
     }
 
     public List<Post> createPost(UserAccount author, com.sora.backend.dto.PostCreateRequestDto request) {
@@ -277,13 +389,20 @@ public class PostService {
     }
 
     public com.sora.backend.dto.CountryPostsResponseDto getCountryPosts(Long userId, String countryCode, String collectionCode, String cityName, org.springframework.data.domain.Pageable pageable, UserAccount currentUser) {
+        return getCountryPosts(userId, countryCode, collectionCode, cityName, pageable, currentUser, true);
+    }
+
+    @Transactional(readOnly = true)
+    public com.sora.backend.dto.CountryPostsResponseDto getCountryPosts(Long userId, String countryCode, String collectionCode, String cityName, org.springframework.data.domain.Pageable pageable, UserAccount currentUser, boolean exactTotal) {
         UserAccount user = userAccountRepository.findById(userId)
                 .orElseThrow(() -> new ServiceException(MessageUtil.getMessage("user.not.found")));
         Country country = countryRepository.findByCode(countryCode)
                 .orElseThrow(() -> new ServiceException(MessageUtil.getMessage("country.not.found")));
 
         Page<Post> posts;
-        if (collectionCode != null && cityName != null) {
+        if (!exactTotal) {
+            posts = getCountryPostsWithApproximateTotal(userId, country, collectionCode, cityName, pageable);
+        } else if (collectionCode != null && cityName != null) {
             Collection collection = collectionRepository.findByCode(collectionCode).orElseThrow(() -> new ServiceException(MessageUtil.getMessage("collection.not.found")));
             posts = postRepository.findByProfileOwnerIdAndCountryIdAndCollectionIdAndCityNameOrderByCreatedAtDesc(userId, country.getId(), collection.getId(), cityName, pageable);
         } else if (collectionCode != null) {
@@ -331,105 +450,35 @@ public class PostService {
                 countryDto,
                 userDto,
                 visitInfo,
-                posts.map(post -> mapToPostResponseDto(post, currentUser))
-        );
-    }
-
-    private com.sora.backend.dto.PostResponseDto mapToPostResponseDto(Post post) {
-        return new com.sora.backend.dto.PostResponseDto(
-                post.getId(),
-                mapToUserSummaryDto(post.getAuthor()),
-                mapToUserSummaryDto(post.getProfileOwner()),
-                mapToCountryDto(post.getCountry()),
-                mapToCollectionDto(post.getCollection()),
-                post.getCityName(),
-                post.getCityLatitude(),
-                post.getCityLongitude(),
-                post.getCaption(),
-                post.getMedia().stream().map(this::mapToMediaDto).toList(),
-                (int) likePostService.getPostLikesCount(post.getId()),
-                (int) commentService.getPostCommentsCount(post.getId()),
-                false,
-                post.getVisibilityType(),
-                post.getSharedPostGroupId(),
-                post.getCreatedAt(),
-                post.getUpdatedAt()
-        );
-    }
-
-    private com.sora.backend.dto.PostResponseDto mapToPostResponseDto(Post post, UserAccount currentUser) {
-        boolean isLikedByCurrentUser = currentUser != null && likePostService.isPostLikedByUser(currentUser, post.getId());
-        return new com.sora.backend.dto.PostResponseDto(
-                post.getId(),
-                mapToUserSummaryDto(post.getAuthor()),
-                mapToUserSummaryDto(post.getProfileOwner()),
-                mapToCountryDto(post.getCountry()),
-                mapToCollectionDto(post.getCollection()),
-                post.getCityName(),
-                post.getCityLatitude(),
-                post.getCityLongitude(),
-                post.getCaption(),
-                post.getMedia().stream().map(this::mapToMediaDto).toList(),
-                (int) likePostService.getPostLikesCount(post.getId()),
-                (int) commentService.getPostCommentsCount(post.getId()),
-                isLikedByCurrentUser,
-                post.getVisibilityType(),
-                post.getSharedPostGroupId(),
-                post.getCreatedAt(),
-                post.getUpdatedAt()
-        );
-    }
-
-    private com.sora.backend.dto.UserSummaryDto mapToUserSummaryDto(UserAccount user) {
-        return new com.sora.backend.dto.UserSummaryDto(
-                user.getId(),
-                user.getUsername(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getProfilePicture(),
-                0,
-                false
+                postHydrationService.hydratePage(posts, currentUser)
         );
     }
 
-    private com.sora.backend.dto.CountryDto mapToCountryDto(Country country) {
-        return new com.sora.backend.dto.CountryDto(
-                country.getId(),
-                country.getCode(),
-                country.getNameKey(),
-                country.getLatitude(),
-                country.getLongitude(),
-                country.getTimezone()
-        );
-    }
-
-    private com.sora.backend.dto.CollectionDto mapToCollectionDto(Collection collection) {
-        return new com.sora.backend.dto.CollectionDto(
-                collection.getId(),
-                collection.getCode(),
-                collection.getNameKey(),
-                collection.getIconName(),
-                collection.getSortOrder(),
-                collection.getIsDefault()
-        );
-    }
-
-    private com.sora.backend.dto.MediaDto mapToMediaDto(PostMedia media) {
-        String thumbnailUrl = media.getCloudinaryUrl() != null ? 
-                media.getCloudinaryUrl().replace("/upload/", "/upload/c_fill,w_300,h_300/") : null;
-        
-        return new com.sora.backend.dto.MediaDto(
-                media.getId(),
-                media.getFileName(),
-                media.getCloudinaryPublicId(),
-                media.getCloudinaryUrl(),
-                thumbnailUrl,
-                media.getMediaType(),
-                media.getFileSize(),
-                media.getWidth(),
-                media.getHeight(),
-                media.getSortOrder(),
-                media.getUploadedAt()
-        );
+    private Page<Post> getCountryPostsWithApproximateTotal(Long userId, Country country, String collectionCode, String cityName, Pageable pageable) {
+        Collection collection = collectionCode != null
+                ? collectionRepository.findByCode(collectionCode).orElseThrow(() -> new ServiceException(MessageUtil.getMessage("collection.not.found")))
+                : null;
+
+        Slice<Post> slice;
+        if (collection != null && cityName != null)
+            slice = postRepository.findSliceByProfileOwnerIdAndCountryIdAndCollectionIdAndCityName(userId, country.getId(), collection.getId(), cityName, pageable);
+        else if (collection != null)
+            slice = postRepository.findSliceByProfileOwnerIdAndCountryIdAndCollectionId(userId, country.getId(), collection.getId(), pageable);
+        else if (cityName != null)
+            slice = postRepository.findSliceByProfileOwnerIdAndCountryIdAndCityName(userId, country.getId(), cityName, pageable);
+        else
+            slice = postRepository.findSliceByProfileOwnerIdAndCountryId(userId, country.getId(), pageable);
+
+        String key = "country-posts:" + userId + ":" + country.getId() + ":" + (collection != null ? collection.getId() : "") + ":" + (cityName != null ? cityName : "");
+        long total = countCacheService.getApproximateCount(key, () -> {
+            if (collection != null && cityName != null)
+                return postRepository.countByProfileOwnerIdAndCountryIdAndCollectionIdAndCityName(userId, country.getId(), collection.getId(), cityName);
+            if (collection != null)
+                return postRepository.countByProfileOwnerIdAndCountryIdAndCollectionId(userId, country.getId(), collection.getId());
+            if (cityName != null)
+                return postRepository.countByProfileOwnerIdAndCountryIdAndCityName(userId, country.getId(), cityName);
+            return postRepository.countByProfileOwnerIdAndCountryId(userId, country.getId());
+        });
+        return PageUtil.withApproximateTotal(slice, total);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,206 @@
+package com.sora.backend.service;
+
+import com.sora.backend.repository.GeoCellClusterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache for rendered map tiles, keyed by (data version, kind, z, x, y). Post location changes
+ * are batched into one new data version per refresh interval, so a busy globe re-renders tiles at most
+ * once per interval. A tile is never invalidated; superseded versions are pruned after a grace period.
+ * Within a version the cache holds at most cache-max-bytes, evicting the least recently served tiles.
+ * Empty tiles and tiles past cache-max-zoom are rendered on every request and never written.
+ */
+@Service
+public class TileCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TileCacheService.class);
+
+    @Autowired
+    private GeoCellClusterRepository geoCellClusterRepository;
+
+    @Value("${globe.tiles.cache-dir:${java.io.tmpdir}/sora-tiles}")
+    private String cacheDir;
+
+    @Value("${globe.tiles.prune-grace-ms:300000}")
+    private long pruneGraceMs;
+
+    @Value("${globe.tiles.cache-max-bytes:268435456}")
+    private long cacheMaxBytes;
+
+    @Value("${globe.tiles.cache-max-zoom:10}")
+    private int cacheMaxZoom;
+
+    private volatile long version;
+
+    private volatile boolean changedLocally;
+
+    // When each superseded version stopped being current, so a tile still being sent is not deleted under it
+    private final Map<String, Long> supersededAt = new ConcurrentHashMap<>();
+
+    // Cached tile files and their sizes in access order, guarded by this
+    private final LinkedHashMap<Path, Long> cachedFiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cachedBytes;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshVersionOnStartup() {
+        refreshVersion();
+    }
+
+    // Cuts at most one version per interval, covering local writes and cluster changes committed by other instances
+    @Scheduled(fixedDelayString = "${globe.tiles.version-refresh-ms:60000}", initialDelayString = "${globe.tiles.version-refresh-ms:60000}")
+    public void refreshVersion() {
+        LocalDateTime lastUpdatedAt = geoCellClusterRepository.findLastUpdatedAt();
+        long databaseVersion = lastUpdatedAt != null ? lastUpdatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+        boolean pending = changedLocally;
+        changedLocally = false;
+        bumpVersion(pending ? Math.max(databaseVersion, System.currentTimeMillis()) : databaseVersion);
+    }
+
+    public void onDataChanged() {
+        // Deleted cells never show up in MAX(updated_at), so local writes are flagged for the next cut
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changedLocally = true;
+                }
+            });
+            return;
+        }
+        changedLocally = true;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // The renderer returns null for a tile without data, which is answered with the shared emptyTile
+    public CachedTile getOrRender(String kind, int zoom, int x, int y, byte[] emptyTile, TileRenderer renderer) throws IOException {
+        if (zoom > cacheMaxZoom)
+            return renderUncached(emptyTile, renderer);
+
+        long tileVersion = version;
+        Path tile = Paths.get(cacheDir).resolve(Long.toString(tileVersion)).resolve(kind)
+                .resolve(Integer.toString(zoom)).resolve(Integer.toString(x)).resolve(Integer.toString(y));
+        if (Files.exists(tile)) {
+            touch(tile);
+            return new CachedTile(tile, null, tileVersion);
+        }
+
+        byte[] content = renderer.render();
+        if (content == null)
+            return new CachedTile(null, emptyTile, tileVersion);
+
+        Files.createDirectories(tile.getParent());
+        // Concurrent renders of the same tile write identical bytes; the move keeps readers off partial files
+        Path temp = Files.createTempFile(tile.getParent(), y + "-", ".tmp");
+        Files.write(temp, content);
+        Files.move(temp, tile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        track(tile, content.length);
+        return new CachedTile(tile, null, tileVersion);
+    }
+
+    public CachedTile renderUncached(byte[] emptyTile, TileRenderer renderer) throws IOException {
+        long tileVersion = version;
+        byte[] content = renderer.render();
+        return new CachedTile(null, content != null ? content : emptyTile, tileVersion);
+    }
+
+    @Scheduled(fixedDelayString = "${globe.tiles.version-refresh-ms:60000}", initialDelayString = "${globe.tiles.version-refresh-ms:60000}")
+    public void pruneStaleVersions() {
+        Path root = Paths.get(cacheDir);
+        if (!Files.isDirectory(root))
+            return;
+
+        String current = Long.toString(version);
+        long now = System.currentTimeMillis();
+        try (Stream<Path> versions = Files.list(root)) {
+            for (Path dir : versions.filter(dir -> !dir.getFileName().toString().equals(current)).toList()) {
+                // Versions left over from before a restart start their grace period when first seen
+                String name = dir.getFileName().toString();
+                if (now - supersededAt.computeIfAbsent(name, stale -> now) < pruneGraceMs)
+                    continue;
+                FileSystemUtils.deleteRecursively(dir);
+                supersededAt.remove(name);
+                untrackUnder(dir);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to prune stale tiles in {}", root, e);
+        }
+    }
+
+    // Files left over from before a restart are adopted into the budget when first served
+    private synchronized void touch(Path tile) throws IOException {
+        if (cachedFiles.get(tile) == null)
+            track(tile, Files.size(tile));
+    }
+
+    private synchronized void track(Path tile, long size) {
+        Long previous = cachedFiles.put(tile, size);
+        cachedBytes += size - (previous != null ? previous : 0);
+
+        Iterator<Map.Entry<Path, Long>> eldest = cachedFiles.entrySet().iterator();
+        while (cachedBytes > cacheMaxBytes && eldest.hasNext()) {
+            Map.Entry<Path, Long> entry = eldest.next();
+            if (entry.getKey().equals(tile))
+                break;
+            try {
+                Files.deleteIfExists(entry.getKey());
+            } catch (IOException e) {
+                logger.warn("Failed to evict cached tile {}", entry.getKey(), e);
+            }
+            cachedBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    private synchronized void untrackUnder(Path dir) {
+        Iterator<Map.Entry<Path, Long>> entries = cachedFiles.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Path, Long> entry = entries.next();
+            if (entry.getKey().startsWith(dir)) {
+                cachedBytes -= entry.getValue();
+                entries.remove();
+            }
+        }
+    }
+
+    private synchronized void bumpVersion(long candidate) {
+        if (candidate <= version)
+            return;
+        supersededAt.putIfAbsent(Long.toString(version), System.currentTimeMillis());
+        version = candidate;
+    }
+
+    @FunctionalInterface
+    public interface TileRenderer {
+        byte[] render() throws IOException;
+    }
+
+    // Either a cached file or, for empty and uncached tiles, the bytes to send
+    public record CachedTile(Path path, byte[] content, long version) {}
+}
@@ -0,0 +1,164 @@
+package com.sora.backend.service;
+
+import com.sora.backend.repository.PostRepository;
+import com.sora.backend.util.PageCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a presorted explore ranking per timeframe. Scores decay with post age:
+ * (likeWeight * likes + commentWeight * comments + 1) / (ageHours + 2) ^ gravity.
+ * Every rebuild is a new versioned snapshot; the last few are retained so that cursors keep
+ * paging through the order they started in even though the scores have since decayed.
+ * A snapshot only holds the top ranking.max-entries posts; readers continue past it with the
+ * remaining posts of the timeframe, newest first.
+ */
+@Service
+public class TrendingRankingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingRankingService.class);
+
+    public static final List<String> TIMEFRAMES = List.of("week", "month", "all");
+
+    private static final Comparator<RankedPost> RANK_ORDER = Comparator.comparingDouble(RankedPost::score).reversed()
+            .thenComparing(RankedPost::createdAt, Comparator.reverseOrder())
+            .thenComparing(RankedPost::postId, Comparator.reverseOrder());
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Value("${ranking.like-weight:1.0}")
+    private double likeWeight;
+
+    @Value("${ranking.comment-weight:2.0}")
+    private double commentWeight;
+
+    @Value("${ranking.gravity:1.5}")
+    private double gravity;
+
+    @Value("${ranking.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${ranking.retained-snapshots:3}")
+    private int retainedSnapshots;
+
+    // Newest snapshot first
+    private final Map<String, List<Snapshot>> snapshots = new ConcurrentHashMap<>();
+
+    private final AtomicLong lastVersion = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${ranking.rebuild-interval-ms:300000}", initialDelayString = "${ranking.rebuild-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        for (String timeframe : TIMEFRAMES)
+            rebuild(timeframe);
+    }
+
+    @Transactional(readOnly = true)
+    public void rebuild(String timeframe) {
+        String key = normalize(timeframe);
+        LocalDateTime cutoffDate = cutoffDate(key);
+        List<RankedPost> entries = postRepository.findTopTrendingScores(cutoffDate, likeWeight, commentWeight, gravity, maxEntries).stream()
+                .map(row -> new RankedPost(row.getId(), row.getScore(), row.getCreatedAt()))
+                .sorted(RANK_ORDER)
+                .toList();
+
+        Map<Long, Integer> positions = new HashMap<>(entries.size() * 2);
+        for (int i = 0; i < entries.size(); i++)
+            positions.put(entries.get(i).postId(), i);
+
+        // Wall clock versions keep cursors from colliding across restarts
+        long version = lastVersion.updateAndGet(previous -> Math.max(previous + 1, System.currentTimeMillis()));
+        Snapshot snapshot = new Snapshot(version, cutoffDate, entries, positions);
+        snapshots.compute(key, (k, retained) -> {
+            List<Snapshot> updated = new ArrayList<>();
+            updated.add(snapshot);
+            if (retained != null)
+                updated.addAll(retained.subList(0, Math.min(retained.size(), Math.max(retainedSnapshots - 1, 0))));
+            return List.copyOf(updated);
+        });
+        logger.debug("Rebuilt {} trending ranking version {} with {} posts", key, version, entries.size());
+    }
+
+    // The snapshot a cursor was taken from while it is retained, otherwise the current one
+    public Snapshot getSnapshot(String timeframe, Long version) {
+        String key = normalize(timeframe);
+        List<Snapshot> retained = snapshots.get(key);
+        if (retained == null || retained.isEmpty())
+            return new Snapshot(0, cutoffDate(key), List.of(), Map.of());
+        if (version != null) {
+            for (Snapshot snapshot : retained) {
+                if (snapshot.version() == version)
+                    return snapshot;
+            }
+        }
+        return retained.getFirst();
+    }
+
+    // Index of the first entry ranked strictly after the cursor position
+    public int positionAfter(Snapshot snapshot, PageCursor cursor) {
+        // Exact within the cursor's own snapshot; in a newer one the post is still the best anchor
+        Integer position = snapshot.positions().get(cursor.id());
+        if (position != null)
+            return position + 1;
+
+        List<RankedPost> entries = snapshot.entries();
+        RankedPost key = new RankedPost(cursor.id(), cursor.score() != null ? cursor.score() : Double.MAX_VALUE, cursor.createdAt());
+
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (RANK_ORDER.compare(entries.get(mid), key) <= 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    public static String normalize(String timeframe) {
+        String key = timeframe != null ? timeframe.toLowerCase() : "week";
+        return TIMEFRAMES.contains(key) ? key : "week";
+    }
+
+    private LocalDateTime cutoffDate(String timeframe) {
+        return switch (timeframe) {
+            case "month" -> LocalDateTime.now().minusMonths(1);
+            case "all" -> LocalDateTime.of(2000, 1, 1, 0, 0);
+            default -> LocalDateTime.now().minusWeeks(1);
+        };
+    }
+
+    public record RankedPost(Long postId, double score, LocalDateTime createdAt) {}
+
+    public record Snapshot(long version, LocalDateTime cutoffDate, List<RankedPost> entries, Map<Long, Integer> positions) {
+
+        // Posts past the snapshot are paged by recency, which a cursor without a score marks
+        public PageCursor cursorFor(Long postId, LocalDateTime createdAt) {
+            Integer position = positions.get(postId);
+            return position != null ? PageCursor.ofRanking(version, entries.get(position).score(), createdAt, postId) : PageCursor.ofRankingTail(version, createdAt, postId);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.sora.backend.service;
+
+import com.sora.backend.model.Post;
+import com.sora.backend.model.UserCountryStats;
+import com.sora.backend.repository.PostRepository;
+import com.sora.backend.repository.UserCountryStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Transactional
+public class UserCountryStatsService {
+
+    @Autowired
+    private UserCountryStatsRepository userCountryStatsRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private GlobeChangeService globeChangeService;
+
+    public void onPostCreated(Post post) {
+        userCountryStatsRepository.recordPost(post.getProfileOwner().getId(), post.getCountry().getId(), post.getId(), post.getCityName(), post.getCreatedAt());
+        globeChangeService.onCountryAggregateChanged(post.getProfileOwner().getId(), post.getCountry().getId());
+    }
+
+    public void onPostMediaChanged(Post post) {
+        userCountryStatsRepository.refresh(post.getProfileOwner().getId(), post.getCountry().getId());
+        globeChangeService.onCountryAggregateChanged(post.getProfileOwner().getId(), post.getCountry().getId());
+    }
+
+    public void onPostDeleted(Long profileOwnerId, Long countryId) {
+        // The delete must reach the database before the row is recomputed from the remaining posts
+        postRepository.flush();
+        userCountryStatsRepository.refresh(profileOwnerId, countryId);
+        userCountryStatsRepository.deleteIfEmpty(profileOwnerId, countryId);
+        globeChangeService.onCountryAggregateChanged(profileOwnerId, countryId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserCountryStats> getUserStats(Long userId) {
+        return userCountryStatsRepository.findByUserIdOrderByLastPostAtDesc(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserCountryStats> getStatsForUsers(List<Long> userIds) {
+        return userCountryStatsRepository.findByUserIdIn(userIds);
+    }
+}
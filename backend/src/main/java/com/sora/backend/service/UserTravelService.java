@@ -1,5 +1,6 @@
 package com.sora.backend.service;
 
+import com.sora.backend.dto.CountryCityDto;
 import com.sora.backend.dto.CountryCollectionResponseDto;
 import com.sora.backend.dto.CountryCollectionsResponseDto;
 import com.sora.backend.dto.LastActiveCountryDto;
@@ -14,9 +15,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,21 +38,24 @@ public class UserTravelService {
     private UserAccountRepository userAccountRepository;
 
     @Autowired
-    private LikePostRepository likePostRepository;
+    private PostMediaRepository postMediaRepository;
 
     @Autowired
-    private CommentRepository commentRepository;
+    private UserTravelStatsService userTravelStatsService;
+
+    @Autowired
+    private CountryBitsetService countryBitsetService;
 
     public List<Country> getCountriesVisitedByUser(Long userId) {
         return postRepository.findDistinctCountriesByProfileOwnerId(userId);
     }
 
     public long getTotalCountriesVisited(Long userId) {
-        return postRepository.countDistinctCountriesByProfileOwnerId(userId);
+        return userTravelStatsService.getStats(userId).countriesVisitedCount();
     }
 
     public long getTotalCitiesVisited(Long userId) {
-        return postRepository.countDistinctCitiesByProfileOwnerId(userId);
+        return userTravelStatsService.getStats(userId).citiesVisitedCount();
     }
 
     public LocalDateTime getFirstVisitToCountry(Long userId, Long countryId) {
@@ -66,18 +71,12 @@ public class UserTravelService {
     }
 
     public boolean hasVisitedCountry(Long userId, String countryCode) {
-        return countryRepository.findByCode(countryCode)
-                .map(country -> postRepository.existsByProfileOwnerIdAndCountryId(userId, country.getId()))
-                .orElse(false);
+        return countryBitsetService.hasVisited(userId, countryCode);
     }
 
+    // Single lookup of the row kept current by UserTravelStatsService
     public UserTravelStatsDto getUserTravelStatistics(Long userId) {
-        int countriesCount = (int) postRepository.countDistinctCountriesByProfileOwnerId(userId);
-        int citiesCount = (int) postRepository.countDistinctCitiesByProfileOwnerId(userId);
-        int postsCount = (int) postRepository.countByProfileOwnerId(userId);
-        int likesReceived = (int) likePostRepository.countLikesReceivedByUserId(userId);
-        int commentsReceived = (int) commentRepository.countCommentsReceivedByUserId(userId);
-        return new UserTravelStatsDto(countriesCount, citiesCount, postsCount, likesReceived, commentsReceived);
+        return userTravelStatsService.getStats(userId);
     }
 
     public List<LastActiveCountryDto> getLastActiveCountries(Long userId, int limit) {
@@ -86,7 +85,7 @@ public class UserTravelService {
     }
 
     public List<String> getCommonCountries(Long currentUserId, Long targetUserId) {
-        return postRepository.findCommonCountriesBetweenUsers(currentUserId, targetUserId);
+        return countryBitsetService.findCommonCountryCodes(currentUserId, targetUserId);
     }
 
     public CountryCollectionsResponseDto getUserCountryCollections(Long userId) {
@@ -95,10 +94,7 @@ public class UserTravelService {
             return new CountryCollectionsResponseDto(userId, null, 0, 0, 0, List.of());
         }
 
-        List<Country> countriesVisited = postRepository.findDistinctCountriesByProfileOwnerId(userId);
-        List<CountryCollectionResponseDto> countryDtos = countriesVisited.stream()
-                .map(country -> mapToCountryCollectionDto(userId, country))
-                .collect(Collectors.toList());
+        List<CountryCollectionResponseDto> countryDtos = mapToCountryCollectionDtos(userId);
 
         UserTravelStatsDto stats = getUserTravelStatistics(userId);
         
@@ -112,52 +108,53 @@ public class UserTravelService {
         );
     }
 
-    private CountryCollectionResponseDto mapToCountryCollectionDto(Long userId, Country country) {
-        List<TravelPermission> activePermissions = travelPermissionRepository
-                .findByGrantorIdAndCountryIdAndStatus(
-                        userId,
-                        country.getId(),
-                        TravelPermissionStatus.ACTIVE
-                );
-
-        List<UserSummaryDto> collaborators = activePermissions.stream()
-                .map(permission -> mapToUserSummaryDto(permission.getGrantee()))
+    // Constant number of queries however many countries the user has been to
+    private List<CountryCollectionResponseDto> mapToCountryCollectionDtos(Long userId) {
+        List<PostRepository.CountryVisitRow> visits = postRepository.findCountryVisitsByProfileOwnerId(userId);
+        if (visits.isEmpty())
+            return List.of();
+
+        Map<Long, Country> countries = countryRepository.findAllById(visits.stream().map(PostRepository.CountryVisitRow::getCountryId).toList()).stream()
+                .collect(Collectors.toMap(Country::getId, Function.identity()));
+        Map<Long, List<String>> citiesByCountry = postRepository.findDistinctCitiesByProfileOwnerId(userId).stream()
+                .collect(Collectors.groupingBy(CountryCityDto::countryId, Collectors.mapping(CountryCityDto::cityName, Collectors.toList())));
+        Map<Long, String> latestImages = postMediaRepository.findLatestImagePerCountryByProfileOwnerId(userId).stream()
+                .collect(Collectors.toMap(PostMediaRepository.CountryImageRow::getCountryId, PostMediaRepository.CountryImageRow::getCloudinaryUrl, (first, second) -> first));
+
+        List<TravelPermission> activePermissions = travelPermissionRepository.findWithGranteeByGrantorIdAndStatus(userId, TravelPermissionStatus.ACTIVE);
+        Map<Long, List<TravelPermission>> permissionsByCountry = activePermissions.stream()
+                .collect(Collectors.groupingBy(permission -> permission.getCountry().getId()));
+        List<Long> granteeIds = activePermissions.stream().map(permission -> permission.getGrantee().getId()).distinct().toList();
+        Map<Long, Long> countriesVisited = granteeIds.isEmpty() ? Map.of() : countryBitsetService.countCountries(granteeIds);
+
+        return visits.stream()
+                .map(visit -> {
+                    Country country = countries.get(visit.getCountryId());
+                    List<TravelPermission> permissions = permissionsByCountry.getOrDefault(country.getId(), List.of());
+                    List<UserSummaryDto> collaborators = permissions.stream()
+                            .map(permission -> mapToUserSummaryDto(permission.getGrantee(), countriesVisited.getOrDefault(permission.getGrantee().getId(), 0L).intValue()))
+                            .collect(Collectors.toList());
+
+                    return new CountryCollectionResponseDto(
+                            country.getId(),
+                            country.getCode(),
+                            country.getNameKey(),
+                            country.getLatitude(),
+                            country.getLongitude(),
+                            visit.getFirstPostAt() != null ? visit.getFirstPostAt().toLocalDate() : null,
+                            visit.getLastPostAt() != null ? visit.getLastPostAt().toLocalDate() : null,
+                            visit.getCityCount().intValue(),
+                            visit.getPostCount().intValue(),
+                            citiesByCountry.getOrDefault(country.getId(), List.of()),
+                            collaborators,
+                            !permissions.isEmpty(),
+                            latestImages.get(country.getId())
+                    );
+                })
                 .collect(Collectors.toList());
-
-        int postsCount = (int) postRepository.countByProfileOwnerIdAndCountryId(userId, country.getId());
-        List<String> cities = postRepository.findDistinctCitiesByUserAndCountry(userId, country.getId());
-        
-        LocalDateTime firstPostDate = postRepository.findFirstPostDateInCountryByIds(userId, country.getId());
-        LocalDateTime lastPostDate = postRepository.findLastPostDateInCountryByIds(userId, country.getId());
-        
-        LocalDate firstVisitDate = firstPostDate != null ? firstPostDate.toLocalDate() : null;
-        LocalDate lastVisitDate = lastPostDate != null ? lastPostDate.toLocalDate() : null;
-        
-        int visitCount = cities.size();
-
-        // Get the latest post image URL for this country
-        String latestPostImageUrl = postRepository.findLatestPostImageUrlByUserAndCountry(userId, country.getId());
-
-        return new CountryCollectionResponseDto(
-                country.getId(),
-                country.getCode(),
-                country.getNameKey(),
-                country.getLatitude(),
-                country.getLongitude(),
-                firstVisitDate,
-                lastVisitDate,
-                visitCount,
-                postsCount,
-                cities,
-                collaborators,
-                !activePermissions.isEmpty(),
-                latestPostImageUrl
-        );
     }
 
-    private UserSummaryDto mapToUserSummaryDto(UserAccount user) {
-        int countriesCount = (int) getTotalCountriesVisited(user.getId());
-        
+    private UserSummaryDto mapToUserSummaryDto(UserAccount user, int countriesCount) {
         return new UserSummaryDto(
                 user.getId(),
                 user.getUsername(),
@@ -168,4 +165,4 @@ public class UserTravelService {
                 false
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package com.sora.backend.service;
+
+import com.sora.backend.dto.UserTravelStatsDto;
+import com.sora.backend.model.Post;
+import com.sora.backend.repository.PostRepository;
+import com.sora.backend.repository.UserContinentStatsRepository;
+import com.sora.backend.repository.UserStatsRollupRepository;
+import com.sora.backend.repository.UserTravelStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+@Service
+@Transactional
+public class UserTravelStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTravelStatsService.class);
+
+    // Longest windows read from each granularity are 30 days and 12 months, kept with some slack
+    private static final int DAY_BUCKET_RETENTION_DAYS = 60;
+    private static final int MONTH_BUCKET_RETENTION_MONTHS = 24;
+
+    @Autowired
+    private UserTravelStatsRepository userTravelStatsRepository;
+
+    @Autowired
+    private UserStatsRollupRepository userStatsRollupRepository;
+
+    @Autowired
+    private UserContinentStatsRepository userContinentStatsRepository;
+
+    @Autowired
+    private CountryBitsetService countryBitsetService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    public void onPostCreated(Post post) {
+        userTravelStatsRepository.recordPost(post.getProfileOwner().getId(), post.getCountry().getId(), post.getId(), post.getCityName());
+        userStatsRollupRepository.recordPost(post.getProfileOwner().getId(), post.getCountry().getId(), post.getId(), post.getCityName(), post.getCreatedAt());
+        userContinentStatsRepository.recordPost(post.getProfileOwner().getId(), post.getCountry().getId(), post.getId());
+        countryBitsetService.evict(post.getProfileOwner().getId());
+    }
+
+    public void onPostDeleted(Post post) {
+        // Likes and comments go with the post, so the author's received totals are recomputed too
+        postRepository.flush();
+        userTravelStatsRepository.refresh(post.getProfileOwner().getId());
+        userStatsRollupRepository.deleteByUser(post.getProfileOwner().getId());
+        userStatsRollupRepository.insertForUser(post.getProfileOwner().getId());
+        userContinentStatsRepository.deleteByUser(post.getProfileOwner().getId());
+        userContinentStatsRepository.insertForUser(post.getProfileOwner().getId());
+        countryBitsetService.evict(post.getProfileOwner().getId());
+        if (post.getAuthor() != null && !post.getAuthor().getId().equals(post.getProfileOwner().getId()))
+            userTravelStatsRepository.refresh(post.getAuthor().getId());
+    }
+
+    public void onLikeChanged(Post post, int delta) {
+        if (post.getAuthor() != null)
+            userTravelStatsRepository.addLikesReceived(post.getAuthor().getId(), delta);
+    }
+
+    public void onCommentsChanged(Post post, int delta) {
+        if (post.getAuthor() != null)
+            userTravelStatsRepository.addCommentsReceived(post.getAuthor().getId(), delta);
+    }
+
+    @Transactional(readOnly = true)
+    public UserTravelStatsDto getStats(Long userId) {
+        return userTravelStatsRepository.findByUserId(userId)
+                .map(stats -> new UserTravelStatsDto(stats.getCountriesCount(), stats.getCitiesCount(), stats.getPostsCount(), stats.getLikesReceived(), stats.getCommentsReceived()))
+                .orElse(new UserTravelStatsDto(0, 0, 0, 0, 0));
+    }
+
+    // Repairs any drift from writes that bypassed the hooks
+    @Scheduled(cron = "${travel-stats.rebuild-cron:0 0 4 * * *}")
+    public void rebuild() {
+        int rows = userTravelStatsRepository.rebuildAll();
+        countryBitsetService.evictAll();
+        logger.info("Rebuilt travel stats for {} users", rows);
+
+        // Only drifted rows are written, so the job does not lock rows readers and the hooks are using
+        int continentRows = userContinentStatsRepository.upsertChangedRows();
+        int emptyContinentRows = userContinentStatsRepository.deleteEmptyRows();
+        logger.info("Repaired {} continent coverage rows, removed {}", continentRows, emptyContinentRows);
+
+        // Buckets past retention are never read, so only the ones still inside it are recomputed
+        LocalDate today = LocalDate.now();
+        LocalDate dayCutoff = today.minusDays(DAY_BUCKET_RETENTION_DAYS);
+        LocalDate monthCutoff = today.withDayOfMonth(1).minusMonths(MONTH_BUCKET_RETENTION_MONTHS);
+        int buckets = userStatsRollupRepository.upsertRecentBuckets(dayCutoff, monthCutoff);
+        int emptyBuckets = userStatsRollupRepository.deleteEmptyRecentBuckets(dayCutoff, monthCutoff);
+        int expired = userStatsRollupRepository.deleteExpired(dayCutoff, monthCutoff);
+        logger.info("Repaired {} stats rollup buckets, removed {} empty and {} past retention", buckets, emptyBuckets, expired);
+    }
+}
@@ -0,0 +1,139 @@
+package com.sora.backend.service;
+
+import com.sora.backend.dto.CityPointDto;
+import com.sora.backend.dto.GeoClusterDto;
+import com.sora.backend.dto.PostPointDto;
+import com.sora.backend.exception.ServiceException;
+import com.sora.backend.repository.PostRepository;
+import com.sora.backend.util.MessageUtil;
+import com.sora.backend.util.VectorTileEncoder;
+import com.sora.backend.util.WebMercator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mapbox Vector Tiles of post locations: a clusters layer of geohash cell centroids at every zoom,
+ * a cities layer from city-min-zoom and individual posts from post-min-zoom. Each point carries its
+ * post count. Tiles below post-min-zoom are cached by TileCacheService under the current data version.
+ */
+@Service
+public class VectorTileService {
+
+    public static final String CLUSTERS_LAYER = "clusters";
+    public static final String CITIES_LAYER = "cities";
+    public static final String POSTS_LAYER = "posts";
+
+    // A tile without layers encodes to no bytes at all
+    private static final byte[] EMPTY_TILE = new byte[0];
+
+    // About eight cluster cells across a tile keeps low zoom tiles to a few hundred points
+    private static final int CELLS_PER_TILE = 8;
+
+    @Autowired
+    private GeoClusterService geoClusterService;
+
+    @Autowired
+    private TileCacheService tileCacheService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Value("${globe.tiles.vector.max-zoom:16}")
+    private int maxZoom;
+
+    @Value("${globe.tiles.vector.extent:4096}")
+    private int extent;
+
+    @Value("${globe.tiles.vector.buffer:64}")
+    private int buffer;
+
+    @Value("${globe.tiles.vector.city-min-zoom:5}")
+    private int cityMinZoom;
+
+    @Value("${globe.tiles.vector.post-min-zoom:12}")
+    private int postMinZoom;
+
+    @Value("${globe.tiles.vector.max-posts:2000}")
+    private int maxPosts;
+
+    @Value("${globe.tiles.max-cells:2048}")
+    private int maxCells;
+
+    public TileCacheService.CachedTile getTile(int zoom, int x, int y) throws IOException {
+        if (!WebMercator.isValidTile(zoom, x, y, maxZoom))
+            throw new ServiceException(MessageUtil.getMessage("globe.tile.invalid"));
+        // Post layer tiles are too many to cache and cheap to build from the coordinates index
+        if (zoom >= postMinZoom)
+            return tileCacheService.renderUncached(EMPTY_TILE, () -> encode(zoom, x, y));
+        return tileCacheService.getOrRender("mvt", zoom, x, y, EMPTY_TILE, () -> encode(zoom, x, y));
+    }
+
+    private byte[] encode(int zoom, int x, int y) {
+        VectorTileEncoder encoder = new VectorTileEncoder(extent, buffer);
+        WebMercator.Bounds bounds = WebMercator.tileBounds(zoom, x, y, (double) buffer / extent);
+
+        double targetCellWidth = 360.0 / (1 << zoom) / CELLS_PER_TILE;
+        for (GeoClusterDto cluster : geoClusterService.findClustersInBox(bounds.minLat(), bounds.minLng(), bounds.maxLat(), bounds.maxLng(), targetCellWidth, maxCells)) {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            properties.put("count", cluster.postCount());
+            properties.put("cell", cluster.cell());
+            addPoint(encoder, CLUSTERS_LAYER, null, cluster.latitude(), cluster.longitude(), zoom, x, y, properties);
+        }
+
+        if (zoom >= cityMinZoom) {
+            for (CityPointDto city : findCityPoints(bounds)) {
+                Map<String, Object> properties = new LinkedHashMap<>();
+                properties.put("count", city.postCount());
+                properties.put("city", city.cityName());
+                properties.put("country", city.countryCode());
+                addPoint(encoder, CITIES_LAYER, null, city.latitude(), city.longitude(), zoom, x, y, properties);
+            }
+        }
+
+        if (zoom >= postMinZoom) {
+            for (PostPointDto post : findPostPoints(bounds)) {
+                Map<String, Object> properties = new LinkedHashMap<>();
+                properties.put("count", 1);
+                properties.put("city", post.cityName());
+                properties.put("country", post.countryCode());
+                addPoint(encoder, POSTS_LAYER, post.postId(), post.latitude(), post.longitude(), zoom, x, y, properties);
+            }
+        }
+
+        return encoder.isEmpty() ? null : encoder.encode();
+    }
+
+    private void addPoint(VectorTileEncoder encoder, String layer, Long id, double latitude, double longitude, int zoom, int x, int y, Map<String, Object> properties) {
+        int px = (int) Math.round(WebMercator.pixelX(longitude, zoom, x, extent));
+        int py = (int) Math.round(WebMercator.pixelY(latitude, zoom, y, extent));
+        encoder.addPoint(layer, id, px, py, properties);
+    }
+
+    // A box spilling over the antimeridian is queried as its two halves
+    private List<CityPointDto> findCityPoints(WebMercator.Bounds bounds) {
+        if (bounds.minLng() <= bounds.maxLng())
+            return postRepository.findCityPointsInBox(bounds.minLat(), bounds.minLng(), bounds.maxLat(), bounds.maxLng());
+
+        List<CityPointDto> cities = new ArrayList<>(postRepository.findCityPointsInBox(bounds.minLat(), bounds.minLng(), bounds.maxLat(), 180));
+        cities.addAll(postRepository.findCityPointsInBox(bounds.minLat(), -180, bounds.maxLat(), bounds.maxLng()));
+        return cities;
+    }
+
+    private List<PostPointDto> findPostPoints(WebMercator.Bounds bounds) {
+        PageRequest limit = PageRequest.of(0, maxPosts);
+        if (bounds.minLng() <= bounds.maxLng())
+            return postRepository.findPostPointsInBox(bounds.minLat(), bounds.minLng(), bounds.maxLat(), bounds.maxLng(), limit);
+
+        List<PostPointDto> posts = new ArrayList<>(postRepository.findPostPointsInBox(bounds.minLat(), bounds.minLng(), bounds.maxLat(), 180, limit));
+        posts.addAll(postRepository.findPostPointsInBox(bounds.minLat(), -180, bounds.maxLat(), bounds.maxLng(), limit));
+        return posts;
+    }
+}
@@ -0,0 +1,47 @@
+package com.sora.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Set of country bit indexes (country.bit_index, 0..255) packed into the four countries_mask words of user_travel_stats
+public record CountryBitset(long word0, long word1, long word2, long word3) {
+
+    public static final int CAPACITY = 256;
+
+    public static final CountryBitset EMPTY = new CountryBitset(0, 0, 0, 0);
+
+    public boolean contains(int bitIndex) {
+        if (bitIndex < 0 || bitIndex >= CAPACITY)
+            return false;
+        return (word(bitIndex >>> 6) & (1L << (bitIndex & 63))) != 0;
+    }
+
+    public int count() {
+        return Long.bitCount(word0) + Long.bitCount(word1) + Long.bitCount(word2) + Long.bitCount(word3);
+    }
+
+    public CountryBitset and(CountryBitset other) {
+        return new CountryBitset(word0 & other.word0, word1 & other.word1, word2 & other.word2, word3 & other.word3);
+    }
+
+    public List<Integer> bitIndexes() {
+        List<Integer> indexes = new ArrayList<>(count());
+        for (int w = 0; w < 4; w++) {
+            long word = word(w);
+            while (word != 0) {
+                indexes.add(w * 64 + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return indexes;
+    }
+
+    private long word(int index) {
+        return switch (index) {
+            case 0 -> word0;
+            case 1 -> word1;
+            case 2 -> word2;
+            default -> word3;
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package com.sora.backend.util;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Standard base32 geohash; a prefix of a hash is the enclosing cell at a coarser level
+public final class Geohash {
+
+    public static final int POST_PRECISION = 9;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private Geohash() {}
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double latMin = -90, latMax = 90;
+        double lngMin = -180, lngMax = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (lngMin + lngMax) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    lngMin = mid;
+                } else {
+                    ch = ch << 1;
+                    lngMax = mid;
+                }
+            } else {
+                double mid = (latMin + latMax) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    latMin = mid;
+                } else {
+                    ch = ch << 1;
+                    latMax = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    public static double cellHeight(int precision) {
+        int latBits = (precision * 5) / 2;
+        return 180.0 / (1L << latBits);
+    }
+
+    public static double cellWidth(int precision) {
+        int lngBits = (precision * 5 + 1) / 2;
+        return 360.0 / (1L << lngBits);
+    }
+
+    // Number of cells needed to cover the box at this precision, before walking them
+    public static long coverSize(double minLat, double minLng, double maxLat, double maxLng, int precision) {
+        long rows = (long) Math.ceil((clampLat(maxLat) - clampLat(minLat)) / cellHeight(precision)) + 1;
+        long columns = (long) Math.ceil(lngSpan(minLng, maxLng) / cellWidth(precision)) + 1;
+        return rows * columns;
+    }
+
+    // Cells at this precision intersecting the box; minLng > maxLng means the box crosses the antimeridian
+    public static Set<String> cover(double minLat, double minLng, double maxLat, double maxLng, int precision) {
+        if (!Double.isFinite(minLat) || !Double.isFinite(minLng) || !Double.isFinite(maxLat) || !Double.isFinite(maxLng))
+            throw new IllegalArgumentException("Box coordinates must be finite");
+        double height = cellHeight(precision);
+        double width = cellWidth(precision);
+        double south = clampLat(minLat);
+        double north = clampLat(maxLat);
+        double span = lngSpan(minLng, maxLng);
+
+        Set<String> cells = new LinkedHashSet<>();
+        for (double lat = south; ; lat = Math.min(lat + height, north)) {
+            for (double offset = 0; ; offset = Math.min(offset + width, span)) {
+                cells.add(encode(lat, wrapLng(minLng + offset), precision));
+                if (offset >= span)
+                    break;
+            }
+            if (lat >= north)
+                break;
+        }
+        return cells;
+    }
+
+    private static double lngSpan(double minLng, double maxLng) {
+        return minLng <= maxLng ? maxLng - minLng : 360 - (minLng - maxLng);
+    }
+
+    private static double clampLat(double latitude) {
+        return Math.max(-90, Math.min(90, latitude));
+    }
+
+    private static double wrapLng(double longitude) {
+        double wrapped = ((longitude + 180) % 360 + 360) % 360 - 180;
+        return wrapped == -180 && longitude > 0 ? 180 - 1e-9 : wrapped;
+    }
+}
@@ -0,0 +1,78 @@
+package com.sora.backend.util;
+
+import com.sora.backend.exception.ServiceException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque keyset position. Rows are always read strictly after (score, createdAt, id) in descending order,
+ * so a page costs one index range scan regardless of how deep the client has scrolled. Cursors over an
+ * in-memory ranking also carry the version of the ranking snapshot they were taken from.
+ */
+public record PageCursor(Double score, LocalDateTime createdAt, Long id, Long version) {
+
+    private static final LocalDateTime MAX_CREATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final String SEPARATOR = "|";
+
+    public static PageCursor first() {
+        return new PageCursor(Double.MAX_VALUE, MAX_CREATED_AT, Long.MAX_VALUE, null);
+    }
+
+    public static PageCursor of(LocalDateTime createdAt, Long id) {
+        return new PageCursor(null, createdAt, id, null);
+    }
+
+    public static PageCursor of(double score, LocalDateTime createdAt, Long id) {
+        return new PageCursor(score, createdAt, id, null);
+    }
+
+    public static PageCursor ofRanking(long version, double score, LocalDateTime createdAt, Long id) {
+        return new PageCursor(score, createdAt, id, version);
+    }
+
+    public static PageCursor ofRankingTail(long version, LocalDateTime createdAt, Long id) {
+        return new PageCursor(null, createdAt, id, version);
+    }
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank())
+            return first();
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3 && parts.length != 4)
+                throw new IllegalArgumentException(raw);
+
+            Double score = parts[0].isEmpty() ? null : Double.valueOf(parts[0]);
+            Long version = parts.length == 4 ? Long.valueOf(parts[3]) : null;
+            return new PageCursor(score, LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]), version);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ServiceException(MessageUtil.getMessage("pagination.cursor.invalid"));
+        }
+    }
+
+    public String encode() {
+        String raw = (score != null ? score.toString() : "") + SEPARATOR + createdAt + SEPARATOR + id + (version != null ? SEPARATOR + version : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // One extra row tells whether another page exists without a COUNT query
+    public static Pageable window(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    public static <T> Slice<T> toSlice(List<T> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+}
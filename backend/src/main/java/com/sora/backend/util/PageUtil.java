@@ -0,0 +1,17 @@
+package com.sora.backend.util;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+
+public final class PageUtil {
+
+    private PageUtil() {}
+
+    // Keeps the Page JSON shape for existing clients while first/last stay driven by the size+1 probe
+    public static <T> Page<T> withApproximateTotal(Slice<T> slice, long approximateTotal) {
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements();
+        long total = slice.hasNext() ? Math.max(approximateTotal, seen + 1) : seen;
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+}
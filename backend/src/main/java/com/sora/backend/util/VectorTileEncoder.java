@@ -0,0 +1,177 @@
+package com.sora.backend.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal Mapbox Vector Tile (spec 2.1) writer for point layers. Coordinates are in tile extent
+ * units, origin at the top left; keys and values are deduplicated per layer as the spec requires.
+ */
+public final class VectorTileEncoder {
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+    private static final int GEOM_POINT = 1;
+    private static final int COMMAND_MOVE_TO = 1;
+
+    private final int extent;
+    private final int buffer;
+    private final Map<String, Layer> layers = new LinkedHashMap<>();
+
+    public VectorTileEncoder(int extent, int buffer) {
+        this.extent = extent;
+        this.buffer = buffer;
+    }
+
+    // Points beyond the buffer are dropped; returns whether the point was kept
+    public boolean addPoint(String layerName, Long id, int x, int y, Map<String, ?> properties) {
+        if (x < -buffer || y < -buffer || x > extent + buffer || y > extent + buffer)
+            return false;
+
+        Layer layer = layers.computeIfAbsent(layerName, Layer::new);
+        List<Integer> tags = new ArrayList<>(properties.size() * 2);
+        properties.forEach((key, value) -> {
+            if (value == null)
+                return;
+            tags.add(layer.keys.computeIfAbsent(key, k -> layer.keys.size()));
+            tags.add(layer.values.computeIfAbsent(normalize(value), v -> layer.values.size()));
+        });
+        layer.features.add(new Feature(id, tags, x, y));
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return layers.isEmpty();
+    }
+
+    public byte[] encode() {
+        ProtoWriter tile = new ProtoWriter();
+        for (Layer layer : layers.values())
+            tile.writeMessage(3, encodeLayer(layer));
+        return tile.toByteArray();
+    }
+
+    private byte[] encodeLayer(Layer layer) {
+        ProtoWriter out = new ProtoWriter();
+        out.writeVarintField(15, 2);
+        out.writeString(1, layer.name);
+        for (Feature feature : layer.features)
+            out.writeMessage(2, encodeFeature(feature));
+        for (String key : layer.keys.keySet())
+            out.writeString(3, key);
+        for (Object value : layer.values.keySet())
+            out.writeMessage(4, encodeValue(value));
+        out.writeVarintField(5, extent);
+        return out.toByteArray();
+    }
+
+    private static byte[] encodeFeature(Feature feature) {
+        ProtoWriter out = new ProtoWriter();
+        if (feature.id() != null && feature.id() >= 0)
+            out.writeVarintField(1, feature.id());
+        if (!feature.tags().isEmpty())
+            out.writePacked(2, feature.tags().stream().mapToLong(Integer::longValue).toArray());
+        out.writeVarintField(3, GEOM_POINT);
+        // One MoveTo from the cursor at the origin
+        out.writePacked(4, new long[] {(1L << 3) | COMMAND_MOVE_TO, zigZag(feature.x()), zigZag(feature.y())});
+        return out.toByteArray();
+    }
+
+    private static byte[] encodeValue(Object value) {
+        ProtoWriter out = new ProtoWriter();
+        if (value instanceof String string) {
+            out.writeString(1, string);
+        } else if (value instanceof Double doubleValue) {
+            out.writeTag(3, 1);
+            out.writeFixed64(Double.doubleToLongBits(doubleValue));
+        } else if (value instanceof Number number) {
+            long longValue = number.longValue();
+            if (longValue >= 0)
+                out.writeVarintField(5, longValue);
+            else
+                out.writeVarintField(6, zigZag(longValue));
+        } else if (value instanceof Boolean bool) {
+            out.writeVarintField(7, bool ? 1 : 0);
+        } else {
+            out.writeString(1, value.toString());
+        }
+        return out.toByteArray();
+    }
+
+    // Integer 5 and Long 5 must share one value entry
+    private static Object normalize(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte)
+            return ((Number) value).longValue();
+        if (value instanceof Float floatValue)
+            return floatValue.doubleValue();
+        return value;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private record Feature(Long id, List<Integer> tags, int x, int y) {}
+
+    private static final class Layer {
+        private final String name;
+        private final Map<String, Integer> keys = new LinkedHashMap<>();
+        private final Map<Object, Integer> values = new LinkedHashMap<>();
+        private final List<Feature> features = new ArrayList<>();
+
+        Layer(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class ProtoWriter {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        void writeTag(int field, int wireType) {
+            writeVarint(((long) field << 3) | wireType);
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        void writeFixed64(long value) {
+            for (int i = 0; i < 8; i++)
+                out.write((int) (value >>> (8 * i)) & 0xFF);
+        }
+
+        void writeVarintField(int field, long value) {
+            writeTag(field, WIRE_VARINT);
+            writeVarint(value);
+        }
+
+        void writeString(int field, String value) {
+            writeMessage(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeMessage(int field, byte[] bytes) {
+            writeTag(field, WIRE_LENGTH_DELIMITED);
+            writeVarint(bytes.length);
+            out.writeBytes(bytes);
+        }
+
+        void writePacked(int field, long[] values) {
+            ProtoWriter packed = new ProtoWriter();
+            for (long value : values)
+                packed.writeVarint(value);
+            writeMessage(field, packed.toByteArray());
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.sora.backend.util;
+
+// XYZ tile scheme math; x and y are fractions of the world square, 0 at the west and north edges
+public final class WebMercator {
+
+    public static final double MAX_LATITUDE = 85.05112878;
+
+    private WebMercator() {}
+
+    public static double x(double longitude) {
+        return (longitude + 180) / 360;
+    }
+
+    public static double y(double latitude) {
+        double radians = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        return (1 - Math.log(Math.tan(radians) + 1 / Math.cos(radians)) / Math.PI) / 2;
+    }
+
+    public static double tileLongitude(double tileX, int zoom) {
+        return tileX / (1 << zoom) * 360 - 180;
+    }
+
+    public static double tileLatitude(double tileY, int zoom) {
+        int tiles = 1 << zoom;
+        double clamped = Math.max(0, Math.min(tiles, tileY));
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * clamped / tiles))));
+    }
+
+    // Tile box grown by pad tiles on each side; a box spilling over the antimeridian wraps so minLng > maxLng
+    public static Bounds tileBounds(int zoom, int x, int y, double pad) {
+        double west = tileLongitude(x - pad, zoom);
+        double east = tileLongitude(x + 1 + pad, zoom);
+        double north = tileLatitude(y - pad, zoom);
+        double south = tileLatitude(y + 1 + pad, zoom);
+        if (east - west >= 360)
+            return new Bounds(south, -180, north, 180);
+        return new Bounds(south, wrapLongitude(west), north, wrapLongitude(east));
+    }
+
+    // Pixel offset of a longitude from the tile's west edge, taking the short way around the world
+    public static double pixelX(double longitude, int zoom, int tileX, int tileSize) {
+        double worldSize = (double) tileSize * (1 << zoom);
+        double px = x(longitude) * worldSize - (double) tileX * tileSize;
+        if (px - tileSize / 2.0 > worldSize / 2)
+            px -= worldSize;
+        else if (px - tileSize / 2.0 < -worldSize / 2)
+            px += worldSize;
+        return px;
+    }
+
+    public static double pixelY(double latitude, int zoom, int tileY, int tileSize) {
+        return y(latitude) * tileSize * (1 << zoom) - (double) tileY * tileSize;
+    }
+
+    public static boolean isValidTile(int zoom, int x, int y, int maxZoom) {
+        return zoom >= 0 && zoom <= maxZoom && x >= 0 && y >= 0 && x < (1 << zoom) && y < (1 << zoom);
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude >= -180 && longitude <= 180)
+            return longitude;
+        return ((longitude + 180) % 360 + 360) % 360 - 180;
+    }
+
+    public record Bounds(double minLat, double minLng, double maxLat, double maxLng) {}
+}
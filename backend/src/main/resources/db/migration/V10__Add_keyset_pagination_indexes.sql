@@ -0,0 +1,5 @@
+-- Composite (created_at DESC, id DESC) indexes backing cursor pagination
+CREATE INDEX idx_post_created_at_id ON post(created_at DESC, id DESC);
+CREATE INDEX idx_comment_post_created_at_id ON comment(post_id, created_at DESC, id DESC) WHERE parent_comment_id IS NULL;
+CREATE INDEX idx_like_post_post_created_at_id ON like_post(post_id, created_at DESC, id DESC);
+CREATE INDEX idx_notification_recipient_created_at_id ON notification(recipient_id, created_at DESC, id DESC);
@@ -0,0 +1,13 @@
+-- Denormalized engagement counters, maintained by buffered increments from the like and comment write paths
+ALTER TABLE post ADD COLUMN likes_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE post ADD COLUMN comments_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE post p SET likes_count = c.total
+FROM (SELECT post_id, COUNT(*) AS total FROM like_post GROUP BY post_id) c
+WHERE c.post_id = p.id;
+
+UPDATE post p SET comments_count = c.total
+FROM (SELECT post_id, COUNT(*) AS total FROM comment GROUP BY post_id) c
+WHERE c.post_id = p.id;
+
+CREATE INDEX idx_post_engagement ON post((likes_count + comments_count) DESC, created_at DESC, id DESC);
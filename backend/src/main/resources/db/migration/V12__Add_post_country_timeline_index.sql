@@ -0,0 +1,4 @@
+-- Per-country timeline read by cursor, newest first
+CREATE INDEX idx_post_country_created_at_id ON post(country_id, created_at DESC, id DESC);
+-- Superseded by the composite index above
+DROP INDEX IF EXISTS idx_post_country;
@@ -0,0 +1,38 @@
+CREATE TABLE user_country_stats (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    country_id BIGINT NOT NULL,
+    post_count INTEGER NOT NULL DEFAULT 0,
+    city_count INTEGER NOT NULL DEFAULT 0,
+    first_post_at TIMESTAMP,
+    last_post_at TIMESTAMP,
+    latest_post_id BIGINT,
+    latest_thumbnail_url VARCHAR(500),
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES user_account(id) ON DELETE CASCADE,
+    FOREIGN KEY (country_id) REFERENCES country(id) ON DELETE CASCADE,
+    FOREIGN KEY (latest_post_id) REFERENCES post(id) ON DELETE SET NULL,
+    CONSTRAINT uk_user_country_stats_user_country UNIQUE(user_id, country_id)
+);
+
+CREATE INDEX idx_user_country_stats_user_last_post ON user_country_stats(user_id, last_post_at DESC);
+
+-- One row per (profile owner, country) that has posts
+INSERT INTO user_country_stats (user_id, country_id, post_count, city_count, first_post_at, last_post_at, latest_post_id, latest_thumbnail_url, created_at, updated_at)
+SELECT p.profile_owner_id,
+       p.country_id,
+       COUNT(*),
+       COUNT(DISTINCT p.city_name),
+       MIN(p.created_at),
+       MAX(p.created_at),
+       (SELECT lp.id FROM post lp
+        WHERE lp.profile_owner_id = p.profile_owner_id AND lp.country_id = p.country_id
+        ORDER BY lp.created_at DESC, lp.id DESC LIMIT 1),
+       (SELECT pm.cloudinary_url FROM post_media pm JOIN post mp ON mp.id = pm.post_id
+        WHERE mp.profile_owner_id = p.profile_owner_id AND mp.country_id = p.country_id
+        ORDER BY mp.created_at DESC, mp.id DESC, pm.sort_order ASC LIMIT 1),
+       CURRENT_TIMESTAMP,
+       CURRENT_TIMESTAMP
+FROM post p
+GROUP BY p.profile_owner_id, p.country_id;
@@ -0,0 +1,2 @@
+-- Newest posts per (profile owner, country) for bounded globe markers and per-country drill-down
+CREATE INDEX idx_post_owner_country_created_at_id ON post(profile_owner_id, country_id, created_at DESC, id DESC);
@@ -0,0 +1,71 @@
+-- Same encoding as com.sora.backend.util.Geohash, used to backfill existing posts
+CREATE OR REPLACE FUNCTION geohash_encode(latitude DOUBLE PRECISION, longitude DOUBLE PRECISION, hash_precision INTEGER)
+RETURNS VARCHAR AS $$
+DECLARE
+    base32 CONSTANT TEXT := '0123456789bcdefghjkmnpqrstuvwxyz';
+    lat_min DOUBLE PRECISION := -90;
+    lat_max DOUBLE PRECISION := 90;
+    lng_min DOUBLE PRECISION := -180;
+    lng_max DOUBLE PRECISION := 180;
+    mid DOUBLE PRECISION;
+    hash TEXT := '';
+    even_bit BOOLEAN := TRUE;
+    bit INTEGER := 0;
+    ch INTEGER := 0;
+BEGIN
+    WHILE length(hash) < hash_precision LOOP
+        IF even_bit THEN
+            mid := (lng_min + lng_max) / 2;
+            IF longitude >= mid THEN
+                ch := ch * 2 + 1;
+                lng_min := mid;
+            ELSE
+                ch := ch * 2;
+                lng_max := mid;
+            END IF;
+        ELSE
+            mid := (lat_min + lat_max) / 2;
+            IF latitude >= mid THEN
+                ch := ch * 2 + 1;
+                lat_min := mid;
+            ELSE
+                ch := ch * 2;
+                lat_max := mid;
+            END IF;
+        END IF;
+        even_bit := NOT even_bit;
+        bit := bit + 1;
+        IF bit = 5 THEN
+            hash := hash || substr(base32, ch + 1, 1);
+            bit := 0;
+            ch := 0;
+        END IF;
+    END LOOP;
+    RETURN hash;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+ALTER TABLE post ADD COLUMN geohash VARCHAR(12);
+
+UPDATE post SET geohash = geohash_encode(city_latitude, city_longitude, 9)
+WHERE city_latitude IS NOT NULL AND city_longitude IS NOT NULL;
+
+-- Precomputed cluster per geohash cell for levels 1-7; the cell is a prefix of the post geohash
+CREATE TABLE geo_cell_cluster (
+    id BIGSERIAL PRIMARY KEY,
+    level INTEGER NOT NULL,
+    cell VARCHAR(12) NOT NULL,
+    post_count INTEGER NOT NULL DEFAULT 0,
+    latitude_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    longitude_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_geo_cell_cluster_level_cell UNIQUE(level, cell)
+);
+
+INSERT INTO geo_cell_cluster (level, cell, post_count, latitude_sum, longitude_sum, created_at, updated_at)
+SELECT l.level, LEFT(p.geohash, l.level), COUNT(*), SUM(p.city_latitude), SUM(p.city_longitude), NOW(), NOW()
+FROM post p
+CROSS JOIN generate_series(1, 7) AS l(level)
+WHERE p.geohash IS NOT NULL
+GROUP BY l.level, LEFT(p.geohash, l.level);
@@ -0,0 +1,18 @@
+-- Change log behind the main globe delta endpoint; the id doubles as the globe version.
+-- owner_id rows: a profile owner's country aggregate changed (seen by the owner and followers).
+-- viewer_id rows: a follow or unfollow changed which posts one viewer's globe includes.
+CREATE TABLE globe_change (
+    id BIGSERIAL PRIMARY KEY,
+    owner_id BIGINT,
+    viewer_id BIGINT,
+    country_id BIGINT NOT NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    FOREIGN KEY (owner_id) REFERENCES user_account(id) ON DELETE CASCADE,
+    FOREIGN KEY (viewer_id) REFERENCES user_account(id) ON DELETE CASCADE,
+    FOREIGN KEY (country_id) REFERENCES country(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_globe_change_owner_id ON globe_change(owner_id, id);
+CREATE INDEX idx_globe_change_viewer_id ON globe_change(viewer_id, id);
+CREATE INDEX idx_globe_change_created_at ON globe_change(created_at);
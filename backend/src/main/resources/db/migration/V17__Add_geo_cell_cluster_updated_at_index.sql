@@ -0,0 +1,2 @@
+-- MAX(updated_at) is the heatmap tile data version; keeps reading it an index lookup
+CREATE INDEX idx_geo_cell_cluster_updated_at ON geo_cell_cluster(updated_at);
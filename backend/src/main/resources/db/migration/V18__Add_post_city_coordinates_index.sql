@@ -0,0 +1,3 @@
+-- Box lookups behind the vector tile city and post layers
+CREATE INDEX idx_post_city_coordinates ON post(city_latitude, city_longitude)
+WHERE city_latitude IS NOT NULL AND city_longitude IS NOT NULL;
@@ -0,0 +1,31 @@
+CREATE TABLE user_travel_stats (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    countries_count INTEGER NOT NULL DEFAULT 0,
+    cities_count INTEGER NOT NULL DEFAULT 0,
+    posts_count INTEGER NOT NULL DEFAULT 0,
+    likes_received INTEGER NOT NULL DEFAULT 0,
+    comments_received INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES user_account(id) ON DELETE CASCADE,
+    CONSTRAINT uk_user_travel_stats_user UNIQUE(user_id)
+);
+
+-- Profile counts are by profile owner; likes and comments received are by post author
+INSERT INTO user_travel_stats (user_id, countries_count, cities_count, posts_count, likes_received, comments_received, created_at, updated_at)
+SELECT u.id,
+       COALESCE(p.countries_count, 0),
+       COALESCE(p.cities_count, 0),
+       COALESCE(p.posts_count, 0),
+       COALESCE(l.likes_received, 0),
+       COALESCE(c.comments_received, 0),
+       CURRENT_TIMESTAMP,
+       CURRENT_TIMESTAMP
+FROM user_account u
+LEFT JOIN (SELECT profile_owner_id, COUNT(DISTINCT country_id) AS countries_count, COUNT(DISTINCT city_name) AS cities_count, COUNT(*) AS posts_count
+           FROM post GROUP BY profile_owner_id) p ON p.profile_owner_id = u.id
+LEFT JOIN (SELECT lp_post.author_id, COUNT(*) AS likes_received
+           FROM like_post lp JOIN post lp_post ON lp_post.id = lp.post_id GROUP BY lp_post.author_id) l ON l.author_id = u.id
+LEFT JOIN (SELECT c_post.author_id, COUNT(*) AS comments_received
+           FROM comment cm JOIN post c_post ON c_post.id = cm.post_id GROUP BY c_post.author_id) c ON c.author_id = u.id;
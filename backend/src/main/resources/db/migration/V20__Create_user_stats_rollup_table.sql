@@ -0,0 +1,32 @@
+CREATE TABLE user_stats_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start DATE NOT NULL,
+    posts_count INTEGER NOT NULL DEFAULT 0,
+    new_countries_count INTEGER NOT NULL DEFAULT 0,
+    new_cities_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES user_account(id) ON DELETE CASCADE,
+    CONSTRAINT uk_user_stats_rollup_bucket UNIQUE(user_id, granularity, bucket_start)
+);
+
+CREATE INDEX idx_user_stats_rollup_bucket ON user_stats_rollup(granularity, bucket_start);
+
+-- A country or city counts as new in the bucket holding the owner's first post there
+INSERT INTO user_stats_rollup (user_id, granularity, bucket_start, posts_count, new_countries_count, new_cities_count, created_at, updated_at)
+SELECT p.profile_owner_id,
+       g.granularity,
+       CAST(date_trunc(g.unit, p.created_at) AS DATE),
+       COUNT(*),
+       COUNT(*) FILTER (WHERE p.country_rank = 1),
+       COUNT(*) FILTER (WHERE p.city_rank = 1),
+       CURRENT_TIMESTAMP,
+       CURRENT_TIMESTAMP
+FROM (SELECT profile_owner_id, created_at,
+             ROW_NUMBER() OVER (PARTITION BY profile_owner_id, country_id ORDER BY created_at, id) AS country_rank,
+             ROW_NUMBER() OVER (PARTITION BY profile_owner_id, city_name ORDER BY created_at, id) AS city_rank
+      FROM post) p
+CROSS JOIN (VALUES ('DAY', 'day'), ('MONTH', 'month')) AS g(granularity, unit)
+GROUP BY p.profile_owner_id, g.granularity, CAST(date_trunc(g.unit, p.created_at) AS DATE);
@@ -0,0 +1,35 @@
+-- Dense 0..255 index per country so a user's visited countries fit in four BIGINT words
+CREATE SEQUENCE country_bit_index_seq MINVALUE 0 MAXVALUE 255 START 0;
+
+ALTER TABLE country ADD COLUMN bit_index SMALLINT;
+
+UPDATE country SET bit_index = ranked.rn - 1
+FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS rn FROM country) ranked
+WHERE ranked.id = country.id;
+
+SELECT setval('country_bit_index_seq', (SELECT COALESCE(MAX(bit_index), 0) FROM country), (SELECT COUNT(*) > 0 FROM country));
+
+ALTER SEQUENCE country_bit_index_seq OWNED BY country.bit_index;
+
+ALTER TABLE country
+    ALTER COLUMN bit_index SET DEFAULT nextval('country_bit_index_seq'),
+    ALTER COLUMN bit_index SET NOT NULL,
+    ADD CONSTRAINT uk_country_bit_index UNIQUE (bit_index);
+
+ALTER TABLE user_travel_stats
+    ADD COLUMN countries_mask_0 BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN countries_mask_1 BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN countries_mask_2 BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN countries_mask_3 BIGINT NOT NULL DEFAULT 0;
+
+UPDATE user_travel_stats s
+SET countries_mask_0 = m.mask_0, countries_mask_1 = m.mask_1, countries_mask_2 = m.mask_2, countries_mask_3 = m.mask_3
+FROM (SELECT p.profile_owner_id,
+             BIT_OR(CASE WHEN c.bit_index / 64 = 0 THEN CAST(1 AS BIGINT) << (c.bit_index % 64) ELSE 0 END) AS mask_0,
+             BIT_OR(CASE WHEN c.bit_index / 64 = 1 THEN CAST(1 AS BIGINT) << (c.bit_index % 64) ELSE 0 END) AS mask_1,
+             BIT_OR(CASE WHEN c.bit_index / 64 = 2 THEN CAST(1 AS BIGINT) << (c.bit_index % 64) ELSE 0 END) AS mask_2,
+             BIT_OR(CASE WHEN c.bit_index / 64 = 3 THEN CAST(1 AS BIGINT) << (c.bit_index % 64) ELSE 0 END) AS mask_3
+      FROM post p
+      JOIN country c ON c.id = p.country_id
+      GROUP BY p.profile_owner_id) m
+WHERE m.profile_owner_id = s.user_id;
@@ -0,0 +1,62 @@
+-- Continent per country, following the grouping of the seed data (Turkey and Cyprus under Asia)
+ALTER TABLE country ADD COLUMN continent_code VARCHAR(2);
+
+UPDATE country SET continent_code = 'AF' WHERE code IN (
+    'DZ', 'AO', 'BJ', 'BW', 'BF', 'BI', 'CV', 'CM', 'CF', 'TD', 'KM', 'CG', 'CD', 'DJ', 'EG', 'GQ',
+    'ER', 'SZ', 'ET', 'GA', 'GM', 'GH', 'GN', 'GW', 'CI', 'KE', 'LS', 'LR', 'LY', 'MG', 'MW', 'ML',
+    'MR', 'MU', 'MA', 'MZ', 'NA', 'NE', 'NG', 'RW', 'ST', 'SN', 'SC', 'SL', 'SO', 'ZA', 'SS', 'SD',
+    'TZ', 'TG', 'TN', 'UG', 'ZM', 'ZW'
+);
+
+UPDATE country SET continent_code = 'AS' WHERE code IN (
+    'AF', 'AM', 'AZ', 'BH', 'BD', 'BT', 'BN', 'KH', 'CN', 'CY', 'GE', 'IN', 'ID', 'IR', 'IQ', 'IL',
+    'JP', 'JO', 'KZ', 'KW', 'KG', 'LA', 'LB', 'MY', 'MV', 'MN', 'MM', 'NP', 'KP', 'OM', 'PK', 'PS',
+    'PH', 'QA', 'SA', 'SG', 'KR', 'LK', 'SY', 'TJ', 'TH', 'TL', 'TR', 'TM', 'AE', 'UZ', 'VN', 'YE',
+    'HK', 'MO', 'TW'
+);
+
+UPDATE country SET continent_code = 'EU' WHERE code IN (
+    'AL', 'AD', 'AT', 'BY', 'BE', 'BA', 'BG', 'HR', 'CZ', 'DK', 'EE', 'FI', 'FR', 'DE', 'GR', 'HU',
+    'IS', 'IE', 'IT', 'XK', 'LV', 'LI', 'LT', 'LU', 'MT', 'MD', 'MC', 'ME', 'NL', 'MK', 'NO', 'PL',
+    'PT', 'RO', 'RU', 'SM', 'RS', 'SK', 'SI', 'ES', 'SE', 'CH', 'UA', 'GB', 'VA', 'GI', 'IM', 'JE',
+    'GG', 'FO'
+);
+
+UPDATE country SET continent_code = 'NA' WHERE code IN (
+    'AG', 'BS', 'BB', 'BZ', 'CA', 'CR', 'CU', 'DM', 'DO', 'SV', 'GD', 'GT', 'HT', 'HN', 'JM', 'MX',
+    'NI', 'PA', 'KN', 'LC', 'VC', 'TT', 'US', 'PR'
+);
+
+UPDATE country SET continent_code = 'OC' WHERE code IN (
+    'AU', 'FJ', 'KI', 'MH', 'FM', 'NR', 'NZ', 'PW', 'PG', 'WS', 'SB', 'TO', 'TV', 'VU'
+);
+
+UPDATE country SET continent_code = 'SA' WHERE code IN (
+    'AR', 'BO', 'BR', 'CL', 'CO', 'EC', 'GY', 'PY', 'PE', 'SR', 'UY', 'VE'
+);
+
+CREATE INDEX idx_country_continent ON country(continent_code);
+
+CREATE TABLE user_continent_stats (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    continent_code VARCHAR(2) NOT NULL,
+    countries_visited INTEGER NOT NULL DEFAULT 0,
+    posts_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES user_account(id) ON DELETE CASCADE,
+    CONSTRAINT uk_user_continent_stats_continent UNIQUE(user_id, continent_code)
+);
+
+INSERT INTO user_continent_stats (user_id, continent_code, countries_visited, posts_count, created_at, updated_at)
+SELECT p.profile_owner_id,
+       c.continent_code,
+       COUNT(DISTINCT p.country_id),
+       COUNT(*),
+       CURRENT_TIMESTAMP,
+       CURRENT_TIMESTAMP
+FROM post p
+JOIN country c ON c.id = p.country_id
+WHERE c.continent_code IS NOT NULL
+GROUP BY p.profile_owner_id, c.continent_code;
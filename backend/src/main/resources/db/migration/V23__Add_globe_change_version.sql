@@ -0,0 +1,18 @@
+-- Globe versions are stamped from a single counter just before the writing transaction commits,
+-- so they follow commit order. Ids follow insert order and a late commit could land below a version
+-- a client already holds.
+CREATE TABLE globe_version (
+    id SMALLINT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO globe_version (id, version) SELECT 1, COALESCE(MAX(id), 0) FROM globe_change;
+
+ALTER TABLE globe_change ADD COLUMN version BIGINT;
+UPDATE globe_change SET version = id;
+
+DROP INDEX IF EXISTS idx_globe_change_owner_id;
+DROP INDEX IF EXISTS idx_globe_change_viewer_id;
+CREATE INDEX idx_globe_change_owner_version ON globe_change(owner_id, version);
+CREATE INDEX idx_globe_change_viewer_version ON globe_change(viewer_id, version);
+CREATE INDEX idx_globe_change_unstamped ON globe_change(id) WHERE version IS NULL;
@@ -0,0 +1,4 @@
+-- idx_post_city_location (V1) and idx_post_city_coordinates (V18) index the same columns. Only the
+-- partial one is kept: posts without coordinates are never looked up by box, and the BETWEEN bounds
+-- already imply the NOT NULL predicate.
+DROP INDEX IF EXISTS idx_post_city_location;
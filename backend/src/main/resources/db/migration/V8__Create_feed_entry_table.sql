@@ -0,0 +1,32 @@
+CREATE TABLE feed_entry (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    post_id BIGINT NOT NULL,
+    source_user_id BIGINT NOT NULL,
+    post_created_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES user_account(id) ON DELETE CASCADE,
+    FOREIGN KEY (post_id) REFERENCES post(id) ON DELETE CASCADE,
+    FOREIGN KEY (source_user_id) REFERENCES user_account(id) ON DELETE CASCADE,
+    CONSTRAINT uk_feed_entry_user_post UNIQUE(user_id, post_id)
+);
+
+CREATE INDEX idx_feed_entry_user_timeline ON feed_entry(user_id, post_created_at DESC, post_id DESC);
+CREATE INDEX idx_feed_entry_user_source ON feed_entry(user_id, source_user_id);
+CREATE INDEX idx_feed_entry_post ON feed_entry(post_id);
+
+-- Own posts always appear in the owner's feed
+INSERT INTO feed_entry (user_id, post_id, source_user_id, post_created_at, created_at, updated_at)
+SELECT p.profile_owner_id, p.id, p.profile_owner_id, COALESCE(p.created_at, CURRENT_TIMESTAMP), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM post p
+ON CONFLICT (user_id, post_id) DO NOTHING;
+
+-- Posts from followed users
+INSERT INTO feed_entry (user_id, post_id, source_user_id, post_created_at, created_at, updated_at)
+SELECT f.follower_id, p.id, p.profile_owner_id, COALESCE(p.created_at, CURRENT_TIMESTAMP), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM follow f
+JOIN post p ON p.profile_owner_id = f.following_id
+ON CONFLICT (user_id, post_id) DO NOTHING;
+
+SELECT setval('feed_entry_id_seq', (SELECT COALESCE(MAX(id), 1) FROM feed_entry), true);
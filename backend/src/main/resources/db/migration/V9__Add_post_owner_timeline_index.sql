@@ -0,0 +1,2 @@
+-- Read-time pull of posts from high-follower accounts in the hybrid feed
+CREATE INDEX idx_post_profile_owner_created_at ON post(profile_owner_id, created_at DESC, id DESC);
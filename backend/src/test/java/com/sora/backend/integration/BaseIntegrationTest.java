@@ -6,6 +6,8 @@ import com.sora.backend.model.PostVisibilityType;
 import com.sora.backend.repository.*;
 import com.sora.backend.security.JwtUtil;
 import com.sora.backend.service.UserAccountService;
+import com.sora.backend.service.UserCountryStatsService;
+import com.sora.backend.service.UserTravelStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
@@ -16,6 +18,10 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -59,6 +65,12 @@ public abstract class BaseIntegrationTest {
     @Autowired
     protected LikePostRepository likePostRepository;
 
+    @Autowired
+    protected UserCountryStatsService userCountryStatsService;
+
+    @Autowired
+    protected UserTravelStatsService userTravelStatsService;
+
     protected UserAccount testUser1;
     protected UserAccount testUser2;
     protected String testUser1Token;
@@ -71,6 +83,23 @@ public abstract class BaseIntegrationTest {
         createEssentialTestData();
     }
 
+    // Test transactions always roll back, so hooks registered for commit are run by hand
+    protected void runCommitHooks() {
+        List<TransactionSynchronization> pending = TransactionSynchronizationManager.getSynchronizations();
+        pending.forEach(synchronization -> synchronization.beforeCommit(false));
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        pending.forEach(TransactionSynchronization::afterCommit);
+        pending.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    protected void runRollbackHooks() {
+        List<TransactionSynchronization> pending = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        pending.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+
     protected void createTestUsers() {
         testUser1 = userAccountService.registerUser(
             "testuser1",
@@ -223,7 +252,10 @@ public abstract class BaseIntegrationTest {
         post.setCityName(cityName);
         post.setCaption(caption);
         post.setVisibilityType(PostVisibilityType.PERSONAL);
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        userCountryStatsService.onPostCreated(savedPost);
+        userTravelStatsService.onPostCreated(savedPost);
+        return savedPost;
     }
 
     protected void createDefaultTravelPermissions() {
@@ -8,6 +8,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -54,6 +55,27 @@ class CountryCollectionControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.countries").isArray());
     }
 
+    @Test
+    @DisplayName("Should aggregate every visited country with cities and collaborators")
+    void shouldAggregateCountryCollectionsPerCountry() throws Exception {
+        createTestPosts();
+        createTravelPermission(testUser1, testUser2, countryRepository.findByCode("BR").orElseThrow());
+
+        mockMvc.perform(get("/api/country-collections/" + testUser1.getId())
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCountriesVisited").value(4))
+                .andExpect(jsonPath("$.totalPostsCount").value(6))
+                .andExpect(jsonPath("$.countries", hasSize(4)))
+                .andExpect(jsonPath("$.countries[?(@.countryCode == 'BR')].postsCount").value(contains(2)))
+                .andExpect(jsonPath("$.countries[?(@.countryCode == 'BR')].visitCount").value(contains(2)))
+                .andExpect(jsonPath("$.countries[?(@.countryCode == 'BR')].citiesVisited[*]", containsInAnyOrder("São Paulo", "Rio de Janeiro")))
+                .andExpect(jsonPath("$.countries[?(@.countryCode == 'BR')].hasActivePermissions").value(contains(true)))
+                .andExpect(jsonPath("$.countries[?(@.countryCode == 'BR')].activeCollaborators[*].username", contains("testuser2")))
+                .andExpect(jsonPath("$.countries[?(@.countryCode == 'BR')].activeCollaborators[*].countriesVisitedCount", contains(2)))
+                .andExpect(jsonPath("$.countries[?(@.countryCode == 'JP')].hasActivePermissions").value(contains(false)));
+    }
+
     @Test
     @DisplayName("Should return 404 for non-existent user collections")
     void shouldReturn404ForNonExistentUser() throws Exception {
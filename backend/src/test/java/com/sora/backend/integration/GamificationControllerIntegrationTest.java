@@ -1,14 +1,20 @@
 package com.sora.backend.integration;
 
+import com.sora.backend.dto.CommentCreateRequestDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
 
@@ -18,6 +24,9 @@ import static org.hamcrest.Matchers.*;
 @DisplayName("Gamification Controller Integration Tests")
 class GamificationControllerIntegrationTest extends BaseIntegrationTest {
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     @Transactional
     @Override
@@ -109,6 +118,21 @@ class GamificationControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.currentUserPosition").value(1));
     }
 
+    @Test
+    @DisplayName("Should report current user position below the leaderboard cut")
+    void shouldReportCurrentUserPositionBelowLimit() throws Exception {
+        mockMvc.perform(get("/api/gamification/leaderboard")
+                        .param("metric", "countries")
+                        .param("limit", "1")
+                        .header("Authorization", "Bearer " + testUser2Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.leaderboard", hasSize(1)))
+                .andExpect(jsonPath("$.leaderboard[0].user.id").value(testUser1.getId()))
+                .andExpect(jsonPath("$.leaderboard[0].user.countriesVisitedCount").value(4))
+                .andExpect(jsonPath("$.leaderboard[0].isCurrentUser").value(false))
+                .andExpect(jsonPath("$.currentUserPosition").value(2));
+    }
+
     @Test
     @DisplayName("Should limit leaderboard to maximum 100")
     void shouldLimitLeaderboardToMaximum() throws Exception {
@@ -262,6 +286,140 @@ class GamificationControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.postsRankAmongMutuals.percentile", closeTo(50.0, 0.1)));
     }
 
+    @Test
+    @DisplayName("Should keep travel stats current across post, like and comment writes")
+    void shouldKeepTravelStatsCurrentAcrossWrites() throws Exception {
+        var japan = countryRepository.findByCode("JP").orElseThrow();
+        var generalCollection = collectionRepository.findByCode("GENERAL").orElseThrow();
+        var osakaPost = createPost(testUser2, testUser2, japan, generalCollection, "Osaka", "Street food in Osaka");
+
+        mockMvc.perform(post("/api/posts/" + osakaPost.getId() + "/like")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/posts/" + osakaPost.getId() + "/comments")
+                        .header("Authorization", "Bearer " + testUser1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new CommentCreateRequestDto("Looks delicious"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/gamification/users/" + testUser2.getId() + "/stats")
+                        .header("Authorization", "Bearer " + testUser2Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.travelStats.totalCountriesVisited").value(3))
+                .andExpect(jsonPath("$.travelStats.totalCitiesVisited").value(5))
+                .andExpect(jsonPath("$.travelStats.totalPostsCount").value(5))
+                .andExpect(jsonPath("$.travelStats.totalLikesReceived").value(1))
+                .andExpect(jsonPath("$.travelStats.totalCommentsReceived").value(1));
+
+        mockMvc.perform(delete("/api/posts/" + osakaPost.getId())
+                        .header("Authorization", "Bearer " + testUser2Token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/gamification/users/" + testUser2.getId() + "/stats")
+                        .header("Authorization", "Bearer " + testUser2Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.travelStats.totalCountriesVisited").value(2))
+                .andExpect(jsonPath("$.travelStats.totalCitiesVisited").value(4))
+                .andExpect(jsonPath("$.travelStats.totalPostsCount").value(4))
+                .andExpect(jsonPath("$.travelStats.totalLikesReceived").value(0))
+                .andExpect(jsonPath("$.travelStats.totalCommentsReceived").value(0));
+
+        userTravelStatsService.rebuild();
+
+        mockMvc.perform(get("/api/gamification/users/" + testUser1.getId() + "/stats")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.travelStats.totalCountriesVisited").value(4))
+                .andExpect(jsonPath("$.travelStats.totalPostsCount").value(6));
+    }
+
+    @Test
+    @DisplayName("Should report continent coverage from maintained counts")
+    void shouldReportContinentCoverage() throws Exception {
+        mockMvc.perform(get("/api/gamification/users/" + testUser1.getId() + "/stats")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.continentStats[?(@.continentCode == 'SA')].countriesVisited", contains(1)))
+                .andExpect(jsonPath("$.continentStats[?(@.continentCode == 'SA')].totalCountries", contains(12)))
+                .andExpect(jsonPath("$.continentStats[?(@.continentCode == 'SA')].completionPercentage", contains(8.3)))
+                .andExpect(jsonPath("$.continentStats[?(@.continentCode == 'SA')].postsCount", contains(2)))
+                .andExpect(jsonPath("$.continentStats[?(@.continentCode == 'AS')].countriesVisited", contains(1)))
+                .andExpect(jsonPath("$.continentStats[?(@.continentCode == 'AF')].countriesVisited", contains(0)));
+
+        var japan = countryRepository.findByCode("JP").orElseThrow();
+        var korea = countryRepository.findByCode("KR").orElseThrow();
+        var generalCollection = collectionRepository.findByCode("GENERAL").orElseThrow();
+        createPost(testUser1, testUser1, japan, generalCollection, "Kyoto", "Temples in Kyoto");
+        var seoulPost = createPost(testUser1, testUser1, korea, generalCollection, "Seoul", "Night market in Seoul");
+
+        mockMvc.perform(get("/api/gamification/users/" + testUser1.getId() + "/stats")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.continentStats[?(@.continentCode == 'AS')].countriesVisited", contains(2)))
+                .andExpect(jsonPath("$.continentStats[?(@.continentCode == 'AS')].postsCount", contains(3)));
+
+        mockMvc.perform(delete("/api/posts/" + seoulPost.getId())
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/gamification/users/" + testUser1.getId() + "/stats")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.continentStats[?(@.continentCode == 'AS')].countriesVisited", contains(1)))
+                .andExpect(jsonPath("$.continentStats[?(@.continentCode == 'AS')].postsCount", contains(2)));
+    }
+
+    @Test
+    @DisplayName("Should rank timeframe leaderboards from rollup buckets")
+    void shouldRankTimeframeLeaderboardsFromRollups() throws Exception {
+        postRepository.flush();
+        jdbcTemplate.update("UPDATE post SET created_at = created_at - INTERVAL '45 days' WHERE profile_owner_id = ?", testUser1.getId());
+        userTravelStatsService.rebuild();
+
+        mockMvc.perform(get("/api/gamification/leaderboard")
+                        .param("metric", "countries")
+                        .param("timeframe", "month")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.timeframe").value("month"))
+                .andExpect(jsonPath("$.leaderboard[0].user.id").value(testUser2.getId()))
+                .andExpect(jsonPath("$.leaderboard[0].score").value(2))
+                .andExpect(jsonPath("$.leaderboard[1].score").value(0))
+                .andExpect(jsonPath("$.leaderboard[1].user.countriesVisitedCount").value(4))
+                .andExpect(jsonPath("$.currentUserPosition").value(2));
+
+        mockMvc.perform(get("/api/gamification/followers-leaderboard")
+                        .param("metric", "posts")
+                        .param("timeframe", "year")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.leaderboard[0].user.id").value(testUser1.getId()))
+                .andExpect(jsonPath("$.leaderboard[0].score").value(6))
+                .andExpect(jsonPath("$.leaderboard[1].score").value(4));
+
+        // Paris was first visited before the window, so only the new city counts this week
+        var france = countryRepository.findByCode("FR").orElseThrow();
+        var generalCollection = collectionRepository.findByCode("GENERAL").orElseThrow();
+        createPost(testUser1, testUser1, france, generalCollection, "Lyon", "Weekend in Lyon");
+
+        mockMvc.perform(get("/api/gamification/following-leaderboard")
+                        .param("metric", "countries")
+                        .param("timeframe", "week")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.leaderboard[1].user.id").value(testUser1.getId()))
+                .andExpect(jsonPath("$.leaderboard[1].score").value(0));
+
+        mockMvc.perform(get("/api/gamification/following-leaderboard")
+                        .param("metric", "cities")
+                        .param("timeframe", "week")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.leaderboard[0].score").value(4))
+                .andExpect(jsonPath("$.leaderboard[1].user.id").value(testUser1.getId()))
+                .andExpect(jsonPath("$.leaderboard[1].score").value(1));
+    }
+
     @Test
     @DisplayName("Should validate user2 stats are accurate")
     void shouldValidateUser2Stats() throws Exception {
@@ -1,16 +1,34 @@
 package com.sora.backend.integration;
 
+import com.sora.backend.model.Country;
+import com.sora.backend.model.Post;
+import com.sora.backend.service.CountryActivityService;
+import com.sora.backend.service.ExploreGlobeSnapshotService;
+import com.sora.backend.service.GeoClusterService;
+import com.sora.backend.service.GlobeService;
+import com.sora.backend.service.TileCacheService;
+import com.sora.backend.util.Geohash;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.CoreMatchers.anyOf;
 import static org.hamcrest.CoreMatchers.equalTo;
 
@@ -20,6 +38,21 @@ import static org.hamcrest.CoreMatchers.equalTo;
 @DisplayName("Globe Controller Integration Tests")
 class GlobeControllerIntegrationTest extends BaseIntegrationTest {
 
+    @Autowired
+    private GlobeService globeService;
+
+    @Autowired
+    private ExploreGlobeSnapshotService exploreGlobeSnapshotService;
+
+    @Autowired
+    private CountryActivityService countryActivityService;
+
+    @Autowired
+    private GeoClusterService geoClusterService;
+
+    @Autowired
+    private TileCacheService tileCacheService;
+
     @BeforeEach
     @Transactional
     @Override
@@ -59,6 +92,83 @@ class GlobeControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.countryMarkers[0].recentPosts", hasSize(greaterThan(0))));
     }
 
+    @Test
+    @DisplayName("Should return only changed and removed markers since a main globe version")
+    void shouldGetMainGlobeDeltaSinceVersion() throws Exception {
+        runCommitHooks();
+        String full = mockMvc.perform(get("/api/globe/main")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.delta").value(false))
+                .andExpect(jsonPath("$.version").value(greaterThan(0)))
+                .andExpect(jsonPath("$.countryMarkers", hasSize(4)))
+                .andReturn().getResponse().getContentAsString();
+        long version = objectMapper.readTree(full).get("version").asLong();
+
+        mockMvc.perform(get("/api/globe/main")
+                        .param("since", String.valueOf(version))
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.delta").value(true))
+                .andExpect(jsonPath("$.version").value(version))
+                .andExpect(jsonPath("$.countryMarkers", hasSize(0)))
+                .andExpect(jsonPath("$.removedCountryCodes", hasSize(0)));
+
+        Country france = countryRepository.findByCode("FR").orElseThrow();
+        createPost(testUser2, testUser2, france, collectionRepository.findByCode("GENERAL").orElseThrow(), "Lyon", "Old town of Lyon");
+        Post tokyoPost = postRepository.findAll().stream()
+                .filter(post -> "Exploring Tokyo city".equals(post.getCaption()))
+                .findFirst()
+                .orElseThrow();
+        mockMvc.perform(delete("/api/posts/" + tokyoPost.getId())
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk());
+
+        // Changes only get a version once their transaction commits
+        mockMvc.perform(get("/api/globe/main")
+                        .param("since", String.valueOf(version))
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(version))
+                .andExpect(jsonPath("$.countryMarkers", hasSize(0)));
+
+        runCommitHooks();
+
+        mockMvc.perform(get("/api/globe/main")
+                        .param("since", String.valueOf(version))
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.delta").value(true))
+                .andExpect(jsonPath("$.version").value(greaterThan((int) version)))
+                .andExpect(jsonPath("$.totalCountriesWithActivity").value(3))
+                .andExpect(jsonPath("$.totalRecentPosts").value(10))
+                .andExpect(jsonPath("$.countryMarkers", hasSize(1)))
+                .andExpect(jsonPath("$.countryMarkers[0].countryCode").value("FR"))
+                .andExpect(jsonPath("$.countryMarkers[0].recentPostsCount").value(2))
+                .andExpect(jsonPath("$.removedCountryCodes", contains("JP")));
+    }
+
+    @Test
+    @DisplayName("Should list each user once in the normalized main globe")
+    void shouldGetNormalizedMainGlobeData() throws Exception {
+        String user1Key = "$.users['" + testUser1.getId() + "']";
+        String user2Key = "$.users['" + testUser2.getId() + "']";
+
+        mockMvc.perform(get("/api/globe/main/normalized")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.globeType").value("MAIN"))
+                .andExpect(jsonPath("$.totalRecentPosts").value(10))
+                .andExpect(jsonPath("$.countryMarkers", hasSize(4)))
+                .andExpect(jsonPath("$.users.length()").value(2))
+                .andExpect(jsonPath(user1Key + ".username").value(testUser1.getUsername()))
+                .andExpect(jsonPath(user1Key + ".countriesVisitedCount").value(4))
+                .andExpect(jsonPath(user2Key + ".countriesVisitedCount").value(2))
+                .andExpect(jsonPath("$.countryMarkers[0].activeUserIds", hasSize(greaterThan(0))))
+                .andExpect(jsonPath("$.countryMarkers[0].recentPosts[0].authorId").isNumber())
+                .andExpect(jsonPath("$.countryMarkers[0].recentPosts[0].author").doesNotExist());
+    }
+
     @Test
     @DisplayName("Should require authentication for main globe data")
     void shouldRequireAuthenticationForMainGlobeData() throws Exception {
@@ -84,6 +194,61 @@ class GlobeControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.countryMarkers[0].recentPosts", hasSize(greaterThan(0))));
     }
 
+    @Test
+    @DisplayName("Should drop a country from the profile globe when its last post is deleted")
+    void shouldUpdateProfileGlobeWhenLastPostInCountryIsDeleted() throws Exception {
+        Post tokyoPost = postRepository.findAll().stream()
+                .filter(post -> "Exploring Tokyo city".equals(post.getCaption()))
+                .findFirst()
+                .orElseThrow();
+
+        mockMvc.perform(delete("/api/posts/" + tokyoPost.getId())
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/globe/profile/" + testUser1.getId())
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCountriesWithActivity").value(3))
+                .andExpect(jsonPath("$.totalRecentPosts").value(5))
+                .andExpect(jsonPath("$.countryMarkers[*].countryCode", not(hasItem("JP"))));
+    }
+
+    @Test
+    @DisplayName("Should cap marker posts per country and page the rest through the drill-down")
+    void shouldCapMarkerPostsAndDrillDownIntoCountry() throws Exception {
+        GlobeService target = AopTestUtils.getTargetObject(globeService);
+        ReflectionTestUtils.setField(target, "markerPostsLimit", 1);
+        try {
+            mockMvc.perform(get("/api/globe/main")
+                            .header("Authorization", "Bearer " + testUser1Token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalRecentPosts").value(10))
+                    .andExpect(jsonPath("$.countryMarkers[?(@.countryCode == 'BR')].recentPostsCount").value(contains(4)))
+                    .andExpect(jsonPath("$.countryMarkers[?(@.countryCode == 'BR')].recentPosts[*]", hasSize(1)))
+                    .andExpect(jsonPath("$.countryMarkers[?(@.countryCode == 'BR')].activeUsers[*]", hasSize(2)));
+        } finally {
+            ReflectionTestUtils.setField(target, "markerPostsLimit", 5);
+        }
+
+        mockMvc.perform(get("/api/globe/main/countries/BR/posts")
+                        .param("size", "3")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(3)))
+                .andExpect(jsonPath("$.totalElements").value(4));
+
+        mockMvc.perform(get("/api/globe/profile/" + testUser1.getId() + "/countries/BR/posts")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.totalElements").value(2));
+
+        mockMvc.perform(get("/api/globe/explore/countries/XX/posts")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should return 404 for non-existent user profile globe data")
     void shouldReturn404ForNonExistentUserProfileGlobeData() throws Exception {
@@ -103,7 +268,8 @@ class GlobeControllerIntegrationTest extends BaseIntegrationTest {
     @Test
     @DisplayName("Should get explore globe data with posts from all users")
     void shouldGetExploreGlobeDataWithDefaultParameters() throws Exception {
-                
+        exploreGlobeSnapshotService.refresh();
+
         mockMvc.perform(get("/api/globe/explore")
                         .param("minPosts", "1")
                         .header("Authorization", "Bearer " + testUser1Token))
@@ -124,7 +290,8 @@ class GlobeControllerIntegrationTest extends BaseIntegrationTest {
     @Test
     @DisplayName("Should filter explore globe data by minimum posts requirement")
     void shouldGetExploreGlobeDataWithCustomParameters() throws Exception {
-                
+        exploreGlobeSnapshotService.refresh();
+
         mockMvc.perform(get("/api/globe/explore")
                         .param("timeframe", "month")
                         .param("minPosts", "1")
@@ -136,6 +303,231 @@ class GlobeControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.totalRecentPosts").value(greaterThan(0)));
     }
 
+    @Test
+    @DisplayName("Should serve explore globe from the snapshot until it is refreshed")
+    void shouldServeExploreGlobeFromSnapshot() throws Exception {
+        exploreGlobeSnapshotService.refresh();
+        Country japan = countryRepository.findByCode("JP").orElseThrow();
+        createPost(testUser2, testUser2, japan, collectionRepository.findByCode("GENERAL").orElseThrow(), "Kyoto", "Temples of Kyoto");
+
+        mockMvc.perform(get("/api/globe/explore")
+                        .param("timeframe", "week")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRecentPosts").value(10))
+                .andExpect(jsonPath("$.generatedAt").exists());
+
+        exploreGlobeSnapshotService.refresh();
+
+        mockMvc.perform(get("/api/globe/explore")
+                        .param("timeframe", "week")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRecentPosts").value(11));
+
+        countryActivityService.seed();
+
+        mockMvc.perform(get("/api/globe/explore")
+                        .param("timeframe", "week")
+                        .param("minPosts", "4")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCountriesWithActivity").value(2))
+                .andExpect(jsonPath("$.totalRecentPosts").value(8))
+                .andExpect(jsonPath("$.countryMarkers[*].countryCode", containsInAnyOrder("BR", "US")));
+    }
+
+    @Test
+    @DisplayName("Should apply explore minPosts from the daily country activity buckets")
+    void shouldFilterExploreGlobeByCountryActivity() throws Exception {
+        exploreGlobeSnapshotService.refresh();
+        countryActivityService.seed();
+
+        mockMvc.perform(get("/api/globe/explore")
+                        .param("timeframe", "year")
+                        .param("minPosts", "2")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCountriesWithActivity").value(2))
+                .andExpect(jsonPath("$.countryMarkers[*].countryCode", containsInAnyOrder("BR", "US")));
+
+        mockMvc.perform(get("/api/globe/explore")
+                        .param("timeframe", "year")
+                        .param("minPosts", "5")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCountriesWithActivity").value(0))
+                .andExpect(jsonPath("$.countryMarkers", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Should return geohash clusters for a viewport and drop deleted posts from them")
+    void shouldGetCityClustersForViewport() throws Exception {
+        Country brazil = countryRepository.findByCode("BR").orElseThrow();
+        var generalCollection = collectionRepository.findByCode("GENERAL").orElseThrow();
+        Post saoPaulo = createLocatedPost(brazil, generalCollection, "São Paulo", -23.5505, -46.6333);
+        createLocatedPost(brazil, generalCollection, "São Paulo", -23.5614, -46.6559);
+        createLocatedPost(brazil, generalCollection, "Rio de Janeiro", -22.9068, -43.1729);
+
+        mockMvc.perform(get("/api/globe/clusters")
+                        .param("minLat", "-34").param("minLng", "-74")
+                        .param("maxLat", "6").param("maxLng", "-34")
+                        .param("zoom", "12")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.level").value(lessThan(5)))
+                .andExpect(jsonPath("$.totalPosts").value(3));
+
+        mockMvc.perform(get("/api/globe/clusters")
+                        .param("minLat", "-24").param("minLng", "-47")
+                        .param("maxLat", "-22.5").param("maxLng", "-43")
+                        .param("zoom", "6")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalPosts").value(3))
+                .andExpect(jsonPath("$.clusters", hasSize(2)))
+                .andExpect(jsonPath("$.clusters[0].postCount").value(2));
+
+        mockMvc.perform(delete("/api/posts/" + saoPaulo.getId())
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/globe/clusters")
+                        .param("minLat", "-24").param("minLng", "-47")
+                        .param("maxLat", "-22.5").param("maxLng", "-43")
+                        .param("zoom", "6")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalPosts").value(2))
+                .andExpect(jsonPath("$.clusters", hasSize(2)));
+
+        mockMvc.perform(get("/api/globe/clusters")
+                        .param("minLat", "10").param("minLng", "0")
+                        .param("maxLat", "-10").param("maxLng", "10")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should reject viewports with non-finite coordinates")
+    void shouldRejectNonFiniteViewport() throws Exception {
+        mockMvc.perform(get("/api/globe/clusters")
+                        .param("minLat", "NaN").param("minLng", "-47")
+                        .param("maxLat", "-22.5").param("maxLng", "-43")
+                        .param("zoom", "6")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/globe/clusters")
+                        .param("minLat", "-24").param("minLng", "NaN")
+                        .param("maxLat", "-22.5").param("maxLng", "-43")
+                        .param("zoom", "6")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/globe/clusters")
+                        .param("minLat", "-24").param("minLng", "-47")
+                        .param("maxLat", "Infinity").param("maxLng", "-43")
+                        .param("zoom", "6")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should render heatmap tiles cached per data version")
+    void shouldRenderHeatmapTilesPerDataVersion() throws Exception {
+        String previousETag = mockMvc.perform(get("/api/globe/tiles/0/0/0.png")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        Country brazil = countryRepository.findByCode("BR").orElseThrow();
+        var generalCollection = collectionRepository.findByCode("GENERAL").orElseThrow();
+        createLocatedPost(brazil, generalCollection, "São Paulo", -23.5505, -46.6333);
+        createLocatedPost(brazil, generalCollection, "São Paulo", -23.5614, -46.6559);
+        tileCacheService.refreshVersion();
+
+        byte[] png = mockMvc.perform(get("/api/globe/tiles/0/0/0.png")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(equalTo(previousETag))))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        BufferedImage tile = ImageIO.read(new ByteArrayInputStream(png));
+        assertThat(tile.getWidth(), is(256));
+        // São Paulo projects to roughly (95, 145) on the single zoom 0 tile
+        assertThat(tile.getRGB(95, 145) >>> 24, greaterThan(0));
+
+        String currentETag = mockMvc.perform(get("/api/globe/tiles/0/0/0.png")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/globe/tiles/0/0/0.png")
+                        .header("If-None-Match", currentETag)
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", currentETag))
+                .andExpect(content().bytes(new byte[0]));
+
+        // Open ocean in the South Pacific: the shared empty tile, still a valid transparent PNG
+        byte[] emptyPng = mockMvc.perform(get("/api/globe/tiles/4/0/9.png")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getContentAsByteArray();
+        BufferedImage emptyTile = ImageIO.read(new ByteArrayInputStream(emptyPng));
+        assertThat(emptyTile.getWidth(), is(256));
+        assertThat(emptyTile.getRGB(128, 128) >>> 24, is(0));
+
+        mockMvc.perform(get("/api/globe/tiles/1/2/0.png")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should encode vector tiles with cluster, city and post layers")
+    void shouldEncodeVectorTilesWithCountLayers() throws Exception {
+        Country brazil = countryRepository.findByCode("BR").orElseThrow();
+        var generalCollection = collectionRepository.findByCode("GENERAL").orElseThrow();
+        createLocatedPost(brazil, generalCollection, "São Paulo", -23.5505, -46.6333);
+        createLocatedPost(brazil, generalCollection, "São Paulo", -23.5614, -46.6559);
+        tileCacheService.refreshVersion();
+
+        // Both posts fall in tile 6/23/36 and 12/1517/2323
+        byte[] cityTile = mockMvc.perform(get("/api/globe/tiles/6/23/36.mvt")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/vnd.mapbox-vector-tile"))
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getContentAsByteArray();
+        String cityTileText = new String(cityTile, StandardCharsets.UTF_8);
+        assertThat(cityTileText, containsString("clusters"));
+        assertThat(cityTileText, containsString("cities"));
+        assertThat(cityTileText, containsString("São Paulo"));
+        assertThat(cityTileText, not(containsString("posts")));
+
+        byte[] postTile = mockMvc.perform(get("/api/globe/tiles/12/1517/2323.mvt")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new String(postTile, StandardCharsets.UTF_8), containsString("posts"));
+
+        mockMvc.perform(get("/api/globe/tiles/17/0/0.mvt")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Post createLocatedPost(Country country, com.sora.backend.model.Collection collection, String cityName, double latitude, double longitude) {
+        Post post = createPost(testUser1, testUser1, country, collection, cityName, "Located in " + cityName);
+        post.setCityLatitude(latitude);
+        post.setCityLongitude(longitude);
+        post.setGeohash(Geohash.encode(latitude, longitude, Geohash.POST_PRECISION));
+        Post saved = postRepository.save(post);
+        geoClusterService.onPostCreated(saved);
+        return saved;
+    }
+
     @Test
     @DisplayName("Should require authentication for explore globe data")
     void shouldRequireAuthenticationForExploreGlobeData() throws Exception {
@@ -209,6 +601,40 @@ class GlobeControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    @DisplayName("Should stream the country timeline page by page with a cursor")
+    void shouldWalkCountryTimelineWithCursor() throws Exception {
+        String firstPage = mockMvc.perform(get("/api/globe/countries/BR/posts")
+                        .param("size", "3")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(3)))
+                .andExpect(jsonPath("$.content[0].country.code").value("BR"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String nextCursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/globe/countries/BR/posts")
+                        .param("cursor", nextCursor)
+                        .param("size", "3")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should reject country timeline for unknown country")
+    void shouldRejectCountryTimelineForUnknownCountry() throws Exception {
+        mockMvc.perform(get("/api/globe/countries/XX/posts")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should handle different country codes")
     void shouldHandleDifferentCountryCodes() throws Exception {
@@ -1,6 +1,7 @@
 package com.sora.backend.integration;
 
 import com.sora.backend.config.TestCloudinaryConfig;
+import com.sora.backend.dto.CommentCreateRequestDto;
 import com.sora.backend.dto.PostCreateRequestDto;
 import com.sora.backend.dto.PostUpdateRequestDto;
 import com.sora.backend.model.Collection;
@@ -12,23 +13,34 @@ import com.sora.backend.model.PostSharingOption;
 import com.sora.backend.model.PostVisibilityType;
 import com.sora.backend.model.TravelPermission;
 import com.sora.backend.model.TravelPermissionStatus;
+import com.sora.backend.service.FeedService;
+import com.sora.backend.service.PostCounterService;
+import com.sora.backend.service.TrendingRankingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -42,6 +54,18 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
     private Country testCountry;
     private Collection testCollection;
     private Post testPost;
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private TrendingRankingService trendingRankingService;
+
+    @Autowired
+    private PostCounterService postCounterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
     
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -98,6 +122,8 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
         testPost.setCaption("Test post caption");
         testPost.setVisibilityType(PostVisibilityType.PERSONAL);
         testPost = postRepository.save(testPost);
+        feedService.fanOutPost(testPost);
+        userTravelStatsService.onPostCreated(testPost);
     }
 
     @Test
@@ -409,7 +435,7 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
         user2Post.setCaption("User 2 post");
         user2Post.setVisibilityType(PostVisibilityType.PERSONAL);
         user2Post.setCreatedAt(java.time.LocalDateTime.now());
-        postRepository.save(user2Post);
+        feedService.fanOutPost(postRepository.save(user2Post));
 
         mockMvc.perform(get("/api/posts/feed")
                 .header("Authorization", "Bearer " + testUser1Token))
@@ -419,6 +445,82 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.totalElements").value(2));
     }
 
+    @Test
+    void getFeed_PullsPostsFromHighFollowerAccounts() throws Exception {
+        Follow follow = new Follow();
+        follow.setFollower(testUser1);
+        follow.setFollowing(testUser2);
+        follow.setCreatedAt(java.time.LocalDateTime.now());
+        followRepository.save(follow);
+
+        feedService.fanOutPost(createPost(testUser2, testUser2, testCountry, testCollection, "Rio de Janeiro", "Pushed before threshold"));
+
+        FeedService target = AopTestUtils.getTargetObject(feedService);
+        Object originalThreshold = ReflectionTestUtils.getField(target, "celebrityFollowerThreshold");
+        ReflectionTestUtils.setField(target, "celebrityFollowerThreshold", 1L);
+        try {
+            feedService.refreshCelebrityIds();
+            runCommitHooks();
+
+            Post user2Post = new Post();
+            user2Post.setAuthor(testUser2);
+            user2Post.setProfileOwner(testUser2);
+            user2Post.setCountry(testCountry);
+            user2Post.setCollection(testCollection);
+            user2Post.setCityName("Rio de Janeiro");
+            user2Post.setCityLatitude(-22.9068);
+            user2Post.setCityLongitude(-43.1729);
+            user2Post.setCaption("Celebrity post");
+            user2Post.setVisibilityType(PostVisibilityType.PERSONAL);
+            feedService.fanOutPost(postRepository.save(user2Post));
+
+            mockMvc.perform(get("/api/posts/feed")
+                    .header("Authorization", "Bearer " + testUser1Token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(3))
+                    .andExpect(jsonPath("$.content[0].caption").value("Celebrity post"))
+                    .andExpect(jsonPath("$.totalElements").value(3));
+        } finally {
+            ReflectionTestUtils.setField(target, "celebrityFollowerThreshold", originalThreshold);
+            feedService.refreshCelebrityIds();
+            runCommitHooks();
+        }
+    }
+
+    @Test
+    void getFeed_KeepsPostsOfDemotedHighFollowerAccounts() throws Exception {
+        Follow follow = new Follow();
+        follow.setFollower(testUser1);
+        follow.setFollowing(testUser2);
+        follow.setCreatedAt(java.time.LocalDateTime.now());
+        followRepository.save(follow);
+
+        FeedService target = AopTestUtils.getTargetObject(feedService);
+        Object originalThreshold = ReflectionTestUtils.getField(target, "celebrityFollowerThreshold");
+        ReflectionTestUtils.setField(target, "celebrityFollowerThreshold", 1L);
+        try {
+            feedService.refreshCelebrityIds();
+            runCommitHooks();
+            feedService.fanOutPost(createPost(testUser2, testUser2, testCountry, testCollection, "Rio de Janeiro", "Posted while pulled"));
+
+            // Falling below the threshold pushes the pulled posts before reads stop pulling them
+            ReflectionTestUtils.setField(target, "celebrityFollowerThreshold", 2L);
+            feedService.refreshCelebrityIds();
+            runCommitHooks();
+
+            mockMvc.perform(get("/api/posts/feed")
+                    .header("Authorization", "Bearer " + testUser1Token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(2))
+                    .andExpect(jsonPath("$.content[0].caption").value("Posted while pulled"))
+                    .andExpect(jsonPath("$.totalElements").value(2));
+        } finally {
+            ReflectionTestUtils.setField(target, "celebrityFollowerThreshold", originalThreshold);
+            feedService.refreshCelebrityIds();
+            runCommitHooks();
+        }
+    }
+
     @Test
     void getFeed_OnlyOwnPostsWhenNotFollowingAnyone() throws Exception {
         mockMvc.perform(get("/api/posts/feed")
@@ -443,7 +545,7 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
             post.setCaption("Post number " + i);
             post.setVisibilityType(PostVisibilityType.PERSONAL);
             post.setCreatedAt(java.time.LocalDateTime.now().minusMinutes(i));
-            postRepository.save(post);
+            feedService.fanOutPost(postRepository.save(post));
         }
 
         mockMvc.perform(get("/api/posts/feed")
@@ -489,7 +591,7 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
         oldPost.setCaption("Old post");
         oldPost.setVisibilityType(PostVisibilityType.PERSONAL);
         oldPost.setCreatedAt(java.time.LocalDateTime.now().minusDays(2));
-        postRepository.save(oldPost);
+        feedService.fanOutPost(postRepository.save(oldPost));
 
         Post middlePost = new Post();
         middlePost.setAuthor(testUser1);
@@ -502,7 +604,7 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
         middlePost.setCaption("Middle post");
         middlePost.setVisibilityType(PostVisibilityType.PERSONAL);
         middlePost.setCreatedAt(java.time.LocalDateTime.now().minusDays(1));
-        postRepository.save(middlePost);
+        feedService.fanOutPost(postRepository.save(middlePost));
 
         Post newPost = new Post();
         newPost.setAuthor(testUser2);
@@ -515,7 +617,7 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
         newPost.setCaption("New post");
         newPost.setVisibilityType(PostVisibilityType.PERSONAL);
         newPost.setCreatedAt(java.time.LocalDateTime.now());
-        postRepository.save(newPost);
+        feedService.fanOutPost(postRepository.save(newPost));
 
         mockMvc.perform(get("/api/posts/feed")
                 .header("Authorization", "Bearer " + testUser1Token))
@@ -527,6 +629,165 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.content[2].caption").value("Old post"));
     }
 
+    @Test
+    void getFeed_HydratesEngagementForEachPost() throws Exception {
+        likePostRepository.save(new LikePost(testUser1, testPost));
+        likePostRepository.save(new LikePost(testUser2, testPost));
+
+        mockMvc.perform(get("/api/posts/feed")
+                .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].likesCount").value(2))
+                .andExpect(jsonPath("$.content[0].commentsCount").value(0))
+                .andExpect(jsonPath("$.content[0].isLikedByCurrentUser").value(true))
+                .andExpect(jsonPath("$.content[0].author.countriesVisitedCount").value(1))
+                .andExpect(jsonPath("$.content[0].country.code").value("BR"));
+    }
+
+    @Test
+    void getFeed_CachedFirstPageRefreshesWhenFollowedUserPosts() throws Exception {
+        Follow follow = new Follow();
+        follow.setFollower(testUser1);
+        follow.setFollowing(testUser2);
+        follow.setCreatedAt(java.time.LocalDateTime.now());
+        followRepository.save(follow);
+
+        mockMvc.perform(get("/api/posts/feed")
+                .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1));
+
+        Post user2Post = new Post();
+        user2Post.setAuthor(testUser2);
+        user2Post.setProfileOwner(testUser2);
+        user2Post.setCountry(testCountry);
+        user2Post.setCollection(testCollection);
+        user2Post.setCityName("Rio de Janeiro");
+        user2Post.setCityLatitude(-22.9068);
+        user2Post.setCityLongitude(-43.1729);
+        user2Post.setCaption("Fresh post");
+        user2Post.setVisibilityType(PostVisibilityType.PERSONAL);
+        feedService.fanOutPost(postRepository.save(user2Post));
+
+        mockMvc.perform(get("/api/posts/feed")
+                .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1));
+
+        runCommitHooks();
+
+        mockMvc.perform(get("/api/posts/feed")
+                .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].caption").value("Fresh post"))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void getFeed_CachedFirstPageDropsDeletedPost() throws Exception {
+        mockMvc.perform(get("/api/posts/feed")
+                .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1));
+
+        mockMvc.perform(delete("/api/posts/" + testPost.getId())
+                .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk());
+        runCommitHooks();
+
+        mockMvc.perform(get("/api/posts/feed")
+                .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0))
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void getFeed_WithoutCountStillReportsLastPage() throws Exception {
+        for (int i = 0; i < 12; i++) {
+            Post post = new Post();
+            post.setAuthor(testUser1);
+            post.setProfileOwner(testUser1);
+            post.setCountry(testCountry);
+            post.setCollection(testCollection);
+            post.setCityName("City " + i);
+            post.setCityLatitude(-23.5558);
+            post.setCityLongitude(-46.6396);
+            post.setCaption("Slice post " + i);
+            post.setVisibilityType(PostVisibilityType.PERSONAL);
+            feedService.fanOutPost(postRepository.save(post));
+        }
+
+        mockMvc.perform(get("/api/posts/feed")
+                .param("page", "0")
+                .param("size", "10")
+                .param("count", "false")
+                .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10))
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.totalElements").value(13));
+
+        mockMvc.perform(get("/api/posts/feed")
+                .param("page", "1")
+                .param("size", "10")
+                .param("count", "false")
+                .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.last").value(true));
+    }
+
+    @Test
+    void getFeed_WithCursorWalksAllPagesWithoutOverlap() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            Post post = new Post();
+            post.setAuthor(testUser1);
+            post.setProfileOwner(testUser1);
+            post.setCountry(testCountry);
+            post.setCollection(testCollection);
+            post.setCityName("City " + i);
+            post.setCityLatitude(-23.5558);
+            post.setCityLongitude(-46.6396);
+            post.setCaption("Cursor post " + i);
+            post.setVisibilityType(PostVisibilityType.PERSONAL);
+            feedService.fanOutPost(postRepository.save(post));
+        }
+
+        String firstPage = mockMvc.perform(get("/api/posts/feed")
+                .param("cursor", "")
+                .param("size", "3")
+                .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.content[0].caption").value("Cursor post 3"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String nextCursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/posts/feed")
+                .param("cursor", nextCursor)
+                .param("size", "3")
+                .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].caption").value("Cursor post 0"))
+                .andExpect(jsonPath("$.content[1].caption").value("Test post caption"))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getFeed_WithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/posts/feed")
+                .param("cursor", "not-a-cursor")
+                .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getFeed_Unauthorized() throws Exception {
         mockMvc.perform(get("/api/posts/feed"))
@@ -535,6 +796,7 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
 
     @Test
     void getExplorePosts_WithDefaultTimeframe() throws Exception {
+        trendingRankingService.rebuild();
         mockMvc.perform(get("/api/posts/explore")
                         .header("Authorization", "Bearer " + testUser1Token))
                 .andExpect(status().isOk())
@@ -544,6 +806,7 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
 
     @Test
     void getExplorePosts_WithWeekTimeframe() throws Exception {
+        trendingRankingService.rebuild();
         mockMvc.perform(get("/api/posts/explore")
                         .param("timeframe", "week")
                         .header("Authorization", "Bearer " + testUser1Token))
@@ -553,6 +816,7 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
 
     @Test
     void getExplorePosts_WithMonthTimeframe() throws Exception {
+        trendingRankingService.rebuild();
         mockMvc.perform(get("/api/posts/explore")
                         .param("timeframe", "month")
                         .header("Authorization", "Bearer " + testUser1Token))
@@ -562,6 +826,7 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
 
     @Test
     void getExplorePosts_WithAllTimeframe() throws Exception {
+        trendingRankingService.rebuild();
         mockMvc.perform(get("/api/posts/explore")
                         .param("timeframe", "all")
                         .header("Authorization", "Bearer " + testUser1Token))
@@ -598,6 +863,7 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
         olderPost.setUpdatedAt(LocalDateTime.now().minusDays(3));
         postRepository.save(olderPost);
 
+        trendingRankingService.rebuild();
         mockMvc.perform(get("/api/posts/explore")
                         .param("timeframe", "week")
                         .header("Authorization", "Bearer " + testUser1Token))
@@ -623,6 +889,7 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
             postRepository.save(post);
         }
 
+        trendingRankingService.rebuild();
         mockMvc.perform(get("/api/posts/explore")
                         .param("page", "0")
                         .param("size", "20")
@@ -634,6 +901,188 @@ class PostControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.totalPages").value(2));
     }
 
+    @Test
+    void getExplorePosts_RanksByDecayedEngagementAndPagesByCursor() throws Exception {
+        Post popularPost = new Post();
+        popularPost.setAuthor(testUser2);
+        popularPost.setProfileOwner(testUser2);
+        popularPost.setCountry(testCountry);
+        popularPost.setCollection(testCollection);
+        popularPost.setCityName("Popular City");
+        popularPost.setCityLatitude(-23.5505);
+        popularPost.setCityLongitude(-46.6333);
+        popularPost.setCaption("Popular post");
+        popularPost = postRepository.save(popularPost);
+        postRepository.applyCounterDeltas(popularPost.getId(), 10, 3);
+
+        trendingRankingService.rebuild();
+
+        String firstPage = mockMvc.perform(get("/api/posts/explore")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].caption").value("Popular post"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String nextCursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/posts/explore")
+                        .param("cursor", nextCursor)
+                        .param("size", "1")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].caption").value("Test post caption"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void getExplorePosts_CursorKeepsItsSnapshotAcrossRebuilds() throws Exception {
+        Post popularPost = new Post();
+        popularPost.setAuthor(testUser2);
+        popularPost.setProfileOwner(testUser2);
+        popularPost.setCountry(testCountry);
+        popularPost.setCollection(testCollection);
+        popularPost.setCityName("Popular City");
+        popularPost.setCityLatitude(-23.5505);
+        popularPost.setCityLongitude(-46.6333);
+        popularPost.setCaption("Popular post");
+        popularPost = postRepository.save(popularPost);
+        postRepository.applyCounterDeltas(popularPost.getId(), 10, 3);
+
+        trendingRankingService.rebuild();
+
+        String firstPage = mockMvc.perform(get("/api/posts/explore")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].caption").value("Popular post"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String nextCursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        // The order flips in the next rebuild; the open cursor still continues its own snapshot
+        postRepository.applyCounterDeltas(testPost.getId(), 100, 0);
+        trendingRankingService.rebuild();
+
+        mockMvc.perform(get("/api/posts/explore")
+                        .param("cursor", nextCursor)
+                        .param("size", "1")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].caption").value("Test post caption"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        mockMvc.perform(get("/api/posts/explore")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].caption").value("Test post caption"));
+    }
+
+    @Test
+    void getExplorePosts_ContinuesPastTheRankingCap() throws Exception {
+        Post newerPost = new Post();
+        newerPost.setAuthor(testUser2);
+        newerPost.setProfileOwner(testUser2);
+        newerPost.setCountry(testCountry);
+        newerPost.setCollection(testCollection);
+        newerPost.setCityName("Newer City");
+        newerPost.setCityLatitude(-23.5505);
+        newerPost.setCityLongitude(-46.6333);
+        newerPost.setCaption("Newer post");
+        newerPost = postRepository.save(newerPost);
+        postRepository.applyCounterDeltas(testPost.getId(), 10, 3);
+
+        TrendingRankingService target = AopTestUtils.getTargetObject(trendingRankingService);
+        Object originalMaxEntries = ReflectionTestUtils.getField(target, "maxEntries");
+        ReflectionTestUtils.setField(target, "maxEntries", 1);
+        try {
+            trendingRankingService.rebuild();
+
+            mockMvc.perform(get("/api/posts/explore")
+                            .param("page", "0")
+                            .param("size", "20")
+                            .header("Authorization", "Bearer " + testUser1Token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(2))
+                    .andExpect(jsonPath("$.content[0].caption").value("Test post caption"))
+                    .andExpect(jsonPath("$.content[1].caption").value("Newer post"))
+                    .andExpect(jsonPath("$.totalElements").value(2));
+
+            String firstPage = mockMvc.perform(get("/api/posts/explore")
+                            .param("cursor", "")
+                            .param("size", "1")
+                            .header("Authorization", "Bearer " + testUser1Token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].caption").value("Test post caption"))
+                    .andExpect(jsonPath("$.hasNext").value(true))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            String nextCursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+            mockMvc.perform(get("/api/posts/explore")
+                            .param("cursor", nextCursor)
+                            .param("size", "1")
+                            .header("Authorization", "Bearer " + testUser1Token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(1))
+                    .andExpect(jsonPath("$.content[0].caption").value("Newer post"))
+                    .andExpect(jsonPath("$.hasNext").value(false));
+        } finally {
+            ReflectionTestUtils.setField(target, "maxEntries", originalMaxEntries);
+            trendingRankingService.rebuild();
+        }
+    }
+
+    @Test
+    void likeAndComment_FlushAppliesCounterDeltas() throws Exception {
+        likeAndCommentTestPost();
+        runCommitHooks();
+        postCounterService.flush();
+
+        assertCounters(testPost.getId(), 1, 2);
+    }
+
+    @Test
+    void likeAndComment_RolledBackWritesLeaveCountersUnchanged() throws Exception {
+        likeAndCommentTestPost();
+        runRollbackHooks();
+        postCounterService.flush();
+
+        assertCounters(testPost.getId(), 0, 0);
+    }
+
+    private void likeAndCommentTestPost() throws Exception {
+        mockMvc.perform(post("/api/posts/" + testPost.getId() + "/like")
+                .header("Authorization", "Bearer " + testUser2Token))
+                .andExpect(status().isCreated());
+
+        for (String content : List.of("First comment", "Second comment")) {
+            mockMvc.perform(post("/api/posts/" + testPost.getId() + "/comments")
+                    .header("Authorization", "Bearer " + testUser2Token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(asJsonString(new CommentCreateRequestDto(content))))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    private void assertCounters(Long postId, int likesCount, int commentsCount) {
+        postRepository.flush();
+        Map<String, Object> counters = jdbcTemplate.queryForMap("SELECT likes_count, comments_count FROM post WHERE id = ?", postId);
+        assertThat(((Number) counters.get("likes_count")).intValue(), is(likesCount));
+        assertThat(((Number) counters.get("comments_count")).intValue(), is(commentsCount));
+    }
+
     @Test
     void getExplorePosts_Unauthorized() throws Exception {
         mockMvc.perform(get("/api/posts/explore"))
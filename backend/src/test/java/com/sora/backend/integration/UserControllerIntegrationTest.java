@@ -15,6 +15,7 @@ import java.nio.file.Paths;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -169,6 +170,29 @@ class UserControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.content").isArray());
     }
 
+    @Test
+    void searchUsers_ReportsCommonCountries() throws Exception {
+        createTestPosts();
+
+        mockMvc.perform(get("/api/users/search")
+                .param("q", "testuser2")
+                .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].countriesVisitedCount").value(2))
+                .andExpect(jsonPath("$.content[0].commonCountries", containsInAnyOrder("BR", "US")));
+
+        var japan = countryRepository.findByCode("JP").orElseThrow();
+        var generalCollection = collectionRepository.findByCode("GENERAL").orElseThrow();
+        createPost(testUser2, testUser2, japan, generalCollection, "Kyoto", "Temples in Kyoto");
+
+        mockMvc.perform(get("/api/users/search")
+                .param("q", "testuser2")
+                .header("Authorization", "Bearer " + testUser1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].countriesVisitedCount").value(3))
+                .andExpect(jsonPath("$.content[0].commonCountries", containsInAnyOrder("BR", "US", "JP")));
+    }
+
     @Test
     void searchUsers_QueryTooShort() throws Exception {
         mockMvc.perform(get("/api/users/search")